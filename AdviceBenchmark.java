@@ -0,0 +1,62 @@
+package com.example.ccjava;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Helper.getAdvice, the human player's help text, with every category open.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AdviceBenchmark {
+    @Param({"1", "2", "3"})
+    public int rollCount;
+
+    private int[][] rolls;
+    private boolean[][] holds;
+    private List<String> availableCategories;
+    private Map<String, Integer> scores;
+    private int next;
+    private PrintStream console;
+
+    @Setup
+    public void setUp() {
+        console = BenchmarkHands.silenceConsole();
+        rolls = BenchmarkHands.rolls();
+        holds = BenchmarkHands.holds();
+        availableCategories = new ArrayList<>(Arrays.asList(Constants.CATEGORIES));
+        scores = new Player("Human", new CategoryBoard()).getScores();
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(console);
+    }
+
+    @Benchmark
+    public String getAdvice() {
+        int i = next++ & BenchmarkHands.MASK;
+        return Helper.getAdvice(rolls[i], holds[i], rollCount, availableCategories, scores);
+    }
+}
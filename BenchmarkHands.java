@@ -0,0 +1,68 @@
+package com.example.ccjava;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Random;
+
+/**
+ * Fixed, seeded inputs shared by the JMH benchmarks.
+ *
+ * Hands are real rolls of five dice, so every benchmark sees the natural mix
+ * of junk, pairs, straights and the occasional Yahtzee rather than a single
+ * hand the JIT can specialise on. The pool size is a power of two so the
+ * benchmarks can cycle through it with a mask.
+ */
+final class BenchmarkHands {
+    static final int SIZE = 1024;
+    static final int MASK = SIZE - 1;
+    private static final long SEED = 20240601L;
+
+    private BenchmarkHands() {
+    }
+
+    /**
+     * Natural first-roll hands.
+     */
+    static int[][] rolls() {
+        Random random = new Random(SEED);
+        int[][] hands = new int[SIZE][Constants.DICE_COUNT];
+        for (int[] hand : hands) {
+            for (int i = 0; i < hand.length; i++) {
+                hand[i] = random.nextInt(Constants.DIE_MAX_VALUE) + 1;
+            }
+        }
+        return hands;
+    }
+
+    /**
+     * Hold patterns to pair with the hands, from keeping nothing to keeping everything.
+     */
+    static boolean[][] holds() {
+        Random random = new Random(SEED + 1);
+        boolean[][] holds = new boolean[SIZE][Constants.DICE_COUNT];
+        for (boolean[] hold : holds) {
+            for (int i = 0; i < hold.length; i++) {
+                hold[i] = random.nextBoolean();
+            }
+        }
+        return holds;
+    }
+
+    /**
+     * Sends System.out nowhere and returns the stream it replaced, so that turning
+     * DebugLog up does not flood the results with the players' narration.
+     */
+    static PrintStream silenceConsole() {
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        }));
+        return console;
+    }
+}
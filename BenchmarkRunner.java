@@ -0,0 +1,29 @@
+package com.example.ccjava;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs every benchmark in this package with the GC profiler, which adds the
+ * allocation rate (gc.alloc.rate.norm, bytes per operation) next to ns/op.
+ *
+ * The benchmarks need jmh-core on the classpath and jmh-generator-annprocess
+ * as an annotation processor when compiling. Pass a regular expression to run
+ * a subset, for example "ScoringBenchmark".
+ */
+public final class BenchmarkRunner {
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : "com\\.example\\.ccjava\\..*Benchmark";
+        Options options = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.ccjava;
+
+/**
+ * Scorecard categories in scorecard order. The ordinal of each constant is its
+ * index into Constants.CATEGORIES, ScoreTable and the per-player score arrays,
+ * and (1 << ordinal) is its bit in a category mask.
+ *
+ * Masks are plain ints so availability checks and iteration do not allocate:
+ *
+ *     for (int m = mask; m != 0; m &= m - 1) {
+ *         int category = Integer.numberOfTrailingZeros(m);
+ *         ...
+ *     }
+ */
+public enum Category {
+    ACES,
+    TWOS,
+    THREES,
+    FOURS,
+    FIVES,
+    SIXES,
+    THREE_OF_A_KIND,
+    FOUR_OF_A_KIND,
+    FULL_HOUSE,
+    SMALL_STRAIGHT,
+    LARGE_STRAIGHT,
+    YAHTZEE;
+
+    public static final int COUNT = 12;
+    public static final int ALL_MASK = (1 << COUNT) - 1;
+    public static final int UPPER_MASK = (1 << 6) - 1;
+    public static final int LOWER_MASK = ALL_MASK & ~UPPER_MASK;
+
+    // values() clones its array on every call, so keep one copy around
+    private static final Category[] VALUES = values();
+
+    public String displayName() {
+        return Constants.CATEGORIES[ordinal()];
+    }
+
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    public boolean isUpper() {
+        return ordinal() < 6;
+    }
+
+    /**
+     * Face value counted by an upper-section category, 0 for the lower section.
+     */
+    public int faceValue() {
+        return isUpper() ? ordinal() + 1 : 0;
+    }
+
+    @Override
+    public String toString() {
+        return displayName();
+    }
+
+    public static Category of(int index) {
+        return VALUES[index];
+    }
+
+    /**
+     * Returns the category with the given scorecard name, or null if there is none.
+     */
+    public static Category fromName(String name) {
+        int index = Constants.getCategoryIndex(name);
+        return index < 0 ? null : VALUES[index];
+    }
+
+    public static boolean isSet(int mask, int index) {
+        return (mask & (1 << index)) != 0;
+    }
+
+    public static int count(int mask) {
+        return Integer.bitCount(mask & ALL_MASK);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.ccjava;
+
+/**
+ * Categories filled so far in one game. Each category can only be claimed once,
+ * by whichever player fills it first, so both players of a game share a board.
+ */
+public final class CategoryBoard {
+    // Board for players created without one, reset by Player.resetFilledCategories()
+    static final CategoryBoard SHARED = new CategoryBoard();
+
+    private int filledMask;
+
+    public int getFilledMask() {
+        return filledMask;
+    }
+
+    public boolean isFilled(int category) {
+        return Category.isSet(filledMask, category);
+    }
+
+    public boolean isFull() {
+        return filledMask == Category.ALL_MASK;
+    }
+
+    public void setFilled(int category, boolean filled) {
+        if (filled) {
+            filledMask |= 1 << category;
+        } else {
+            filledMask &= ~(1 << category);
+        }
+    }
+
+    public void reset() {
+        filledMask = 0;
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.ccjava;
+
+/**
+ * The heuristic player's category overrides, as one ordered rule table.
+ *
+ * Each rule looks at the hand's DiceFeatures and the open categories and
+ * either names a category, asks for another roll or passes; the first rule
+ * that decides wins. The outcome depends only on the hand, the open
+ * categories and whether this is the final roll, so select() works it out
+ * once per combination and keeps it. Each set of open categories gets its
+ * own small table the first time it is asked about, so only the few hundred
+ * sets a game passes through take any memory.
+ *
+ * A decision packs the category index in bits 0-3 and the DecisionTrace fix
+ * that made it in bits 4-6.
+ */
+public final class CategoryRules {
+    public static final int NO_RULE = -1;
+    public static final int ROLL_AGAIN = -2;
+
+    private static final int THREE_OF_A_KIND = Category.THREE_OF_A_KIND.ordinal();
+    private static final int FOUR_OF_A_KIND = Category.FOUR_OF_A_KIND.ordinal();
+    private static final int SMALL_STRAIGHT = Category.SMALL_STRAIGHT.ordinal();
+    private static final int LARGE_STRAIGHT = Category.LARGE_STRAIGHT.ordinal();
+    private static final int YAHTZEE = Category.YAHTZEE.ordinal();
+
+    private enum Rule {
+        // [2,2,3,4,5] before the final roll: reroll a 2 for the Large Straight
+        CHASE_LARGE_STRAIGHT {
+            int decide(DiceFeatures f, int open, boolean finalRoll) {
+                boolean exact22345 = f.count(2) == 2 && f.count(3) == 1 && f.count(4) == 1 && f.count(5) == 1;
+                return !finalRoll && exact22345 && isOpen(open, LARGE_STRAIGHT) ? ROLL_AGAIN : NO_RULE;
+            }
+        },
+        TAKE_LARGE_STRAIGHT {
+            int decide(DiceFeatures f, int open, boolean finalRoll) {
+                return isOpen(open, LARGE_STRAIGHT) && f.score(LARGE_STRAIGHT) == Constants.LARGE_STRAIGHT_SCORE
+                        ? decision(LARGE_STRAIGHT, DecisionTrace.FIX_NONE) : NO_RULE;
+            }
+        },
+        TAKE_SMALL_STRAIGHT {
+            int decide(DiceFeatures f, int open, boolean finalRoll) {
+                return isOpen(open, SMALL_STRAIGHT) && f.score(SMALL_STRAIGHT) == Constants.SMALL_STRAIGHT_SCORE
+                        ? decision(SMALL_STRAIGHT, DecisionTrace.FIX_NONE) : NO_RULE;
+            }
+        },
+        // Three of a Kind over an upper category it outscores, unless Four of a Kind applies
+        THREE_OVER_NUMBER {
+            int decide(DiceFeatures f, int open, boolean finalRoll) {
+                if (!finalRoll || !isOpen(open, THREE_OF_A_KIND) || f.score(THREE_OF_A_KIND) <= 0) {
+                    return NO_RULE;
+                }
+                int threeScore = f.score(THREE_OF_A_KIND);
+                if (f.maxOfAKind >= 4 && isOpen(open, FOUR_OF_A_KIND) && f.score(FOUR_OF_A_KIND) >= threeScore) {
+                    return NO_RULE;
+                }
+                int numeric = f.threeValue - 1;
+                if (isOpen(open, numeric) && threeScore > f.score(numeric)) {
+                    return decision(THREE_OF_A_KIND, DecisionTrace.FIX_THREE_OF_A_KIND);
+                }
+                // Or clearly ahead of any open upper category
+                for (int m = open & Category.UPPER_MASK; m != 0; m &= m - 1) {
+                    if (threeScore > f.score(Integer.numberOfTrailingZeros(m)) * 1.2) {
+                        return decision(THREE_OF_A_KIND, DecisionTrace.FIX_THREE_OF_A_KIND);
+                    }
+                }
+                return NO_RULE;
+            }
+        },
+        // Four of a Kind over the matching upper category when it scores more, or when that is taken
+        FOUR_OVER_NUMBER {
+            int decide(DiceFeatures f, int open, boolean finalRoll) {
+                if (!finalRoll || f.fourValue == 0 || !isOpen(open, FOUR_OF_A_KIND)) {
+                    return NO_RULE;
+                }
+                int numeric = f.fourValue - 1;
+                if (!isOpen(open, numeric) || f.sum > f.score(numeric)) {
+                    return decision(FOUR_OF_A_KIND, DecisionTrace.FIX_DIRECT);
+                }
+                return NO_RULE;
+            }
+        },
+        FOUR_OVER_THREE {
+            int decide(DiceFeatures f, int open, boolean finalRoll) {
+                return finalRoll && f.maxOfAKind >= 4 && isOpen(open, FOUR_OF_A_KIND) && isOpen(open, THREE_OF_A_KIND)
+                        && f.score(FOUR_OF_A_KIND) >= f.score(THREE_OF_A_KIND)
+                        ? decision(FOUR_OF_A_KIND, DecisionTrace.FIX_FOUR_OVER_THREE) : NO_RULE;
+            }
+        },
+        FOUR_OF_A_KIND_FIRST {
+            int decide(DiceFeatures f, int open, boolean finalRoll) {
+                if (!finalRoll || f.fourValue == 0 || !isOpen(open, FOUR_OF_A_KIND)) {
+                    return NO_RULE;
+                }
+                int numeric = f.fourValue - 1;
+                int fourScore = f.score(FOUR_OF_A_KIND);
+                if (fourScore > (isOpen(open, numeric) ? f.score(numeric) : 0)
+                        || isOpen(open, THREE_OF_A_KIND) && fourScore >= f.score(THREE_OF_A_KIND)) {
+                    return decision(FOUR_OF_A_KIND, DecisionTrace.FIX_FOUR_OF_A_KIND);
+                }
+                return NO_RULE;
+            }
+        },
+        TAKE_YAHTZEE {
+            int decide(DiceFeatures f, int open, boolean finalRoll) {
+                return f.maxOfAKind == 5 && isOpen(open, YAHTZEE) ? decision(YAHTZEE, DecisionTrace.FIX_NONE) : NO_RULE;
+            }
+        };
+
+        abstract int decide(DiceFeatures f, int open, boolean finalRoll);
+    }
+
+    private static final Rule[] RULES = Rule.values();
+    // Per open mask, decision + OFFSET per (final roll, hand index); 0 until first asked for
+    private static final int OFFSET = 3;
+    private static final byte[][] TABLES = new byte[1 << Category.COUNT][];
+
+    private CategoryRules() {
+    }
+
+    /**
+     * Decision for a hand given the open categories and the roll number, from the table.
+     */
+    public static int select(int hand, int availableMask, int rollCount) {
+        boolean finalRoll = rollCount >= Constants.MAX_ROLLS;
+        int open = availableMask & Category.ALL_MASK;
+        byte[] table = TABLES[open];
+        if (table == null) {
+            // Threads racing here may each make one; the decisions in the lost one are worked out again
+            table = new byte[2 * ScoreTable.HAND_COUNT];
+            TABLES[open] = table;
+        }
+        int slot = (finalRoll ? ScoreTable.HAND_COUNT : 0) + DiceHand.index(hand);
+        int cached = table[slot];
+        if (cached == 0) {
+            // Threads racing here store the same value
+            cached = evaluate(DiceFeatures.of(hand), open, finalRoll) + OFFSET;
+            table[slot] = (byte) cached;
+        }
+        return cached - OFFSET;
+    }
+
+    /**
+     * Runs the rules in order without the table.
+     */
+    public static int evaluate(DiceFeatures features, int availableMask, boolean finalRoll) {
+        for (Rule rule : RULES) {
+            int decision = rule.decide(features, availableMask, finalRoll);
+            if (decision != NO_RULE) {
+                if (DebugLog.DEBUG) {
+                    DebugLog.debug("Category rule " + rule + " decided "
+                            + (decision == ROLL_AGAIN ? "to roll again" : Constants.CATEGORIES[category(decision)]));
+                }
+                return decision;
+            }
+        }
+        return NO_RULE;
+    }
+
+    public static int category(int decision) {
+        return decision & 0xF;
+    }
+
+    public static int fix(int decision) {
+        return decision >>> 4;
+    }
+
+    static int decision(int category, int fix) {
+        return category | fix << 4;
+    }
+
+    private static boolean isOpen(int availableMask, int category) {
+        return (availableMask & (1 << category)) != 0;
+    }
+}
@@ -3,139 +3,195 @@ package com.example.ccjava;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.ArrayList;
 import java.util.List;
 
 public class ComputerPlayer extends Player {
+    /**
+     * How the computer picks keeps and categories. OPTIMAL maximises the expected
+     * final score using SolitaireSolver; HEURISTIC is the hand-tuned strategy.
+     */
+    public enum Mode {
+        HEURISTIC,
+        OPTIMAL
+    }
+
     private boolean[] selectedDice;
     private String currentStrategy;
-    private String lastCategory;
-    private int lastScore;
-    private int[] scorecard;
     private int rollCount;
+    private Mode mode = Mode.HEURISTIC;
+    // Keep optimizer for the scorecard it was built from; rebuilt once per turn in OPTIMAL mode
+    private KeepOptimizer optimalTurn;
+    private int optimalTurnMask = -1;
+    private int optimalTurnUpper = -1;
+    // Recent decisions, rendered only on request
+    private static final int TRACE_CAPACITY = 64;
+    private final DecisionTrace trace = new DecisionTrace(TRACE_CAPACITY);
+    // Fix that decided the current category choice, and the last optimal keep's value
+    private int lastFix;
+    private double lastExpectedValue;
+    // Features of the dice being analysed, looked up once per roll by determineStrategy
+    private DiceFeatures features;
+    // Analysis of the latest roll, handed back if the same roll is analysed again
+    private RollAnalysis lastAnalysis;
+    private static final String MAXIMISE_STRATEGY = "Maximise expected score";
+    private static final String[] SCORE_STRATEGIES = new String[Category.COUNT];
+
+    static {
+        for (int c = 0; c < Category.COUNT; c++) {
+            SCORE_STRATEGIES[c] = "Score " + Constants.CATEGORIES[c];
+        }
+    }
 
     public ComputerPlayer() {
-        super("Computer");
+        this("Computer");
+    }
+
+    public ComputerPlayer(String name) {
+        this(name, CategoryBoard.SHARED);
+    }
+
+    public ComputerPlayer(String name, CategoryBoard board) {
+        super(name, board);
         selectedDice = new boolean[5];
-        scorecard = new int[13];  // One for each category
-        lastCategory = "";
-        lastScore = 0;
         rollCount = 0;
     }
 
     public String analyzeRoll(int[] diceValues) {
-        StringBuilder analysis = new StringBuilder();
-        analysis.append("Current Dice: ").append(Arrays.toString(diceValues)).append("\n\n");
+        return analyze(diceValues).getText();
+    }
 
-        // Calculate potential scores
-        Map<String, Integer> potentialScores = new HashMap<>();
-        for (String category : getAvailableCategories()) {
-            int score = Helper.calculateScore(category, diceValues);
-            potentialScores.put(category, score);
+    /**
+     * Decides which dice to keep after a roll and returns the reasoning. Asking again
+     * for the same dice in the same situation returns the earlier analysis.
+     */
+    public RollAnalysis analyze(int[] diceValues) {
+        int availableMask = getAvailableMask();
+        boolean optimal = mode == Mode.OPTIMAL;
+        if (lastAnalysis != null && lastAnalysis.matches(diceValues, rollCount, availableMask, optimal)) {
+            for (int i = 0; i < selectedDice.length; i++) {
+                selectedDice[i] = lastAnalysis.isKept(i);
+            }
+            currentStrategy = lastAnalysis.getStrategy();
+            return lastAnalysis;
         }
 
-        // Build detailed explanation of available categories
-        analysis.append("AVAILABLE CATEGORIES:\n");
-        analysis.append(String.format("%-20s %-10s\n", "Category", "Points"));
-        analysis.append("------------------------------\n");
-        
-        // Sort categories by score (highest to lowest)
-        List<Map.Entry<String, Integer>> sortedCategories = new ArrayList<>(potentialScores.entrySet());
-        sortedCategories.sort((e1, e2) -> e2.getValue().compareTo(e1.getValue()));
-        
-        for (Map.Entry<String, Integer> entry : sortedCategories) {
-            analysis.append(String.format("%-20s %-10d", entry.getKey(), entry.getValue()));
-            
-            // Add indicator for best scoring options
-            if (entry.getValue() > 0) {
-                if (entry.getValue() >= 25) {
-                    analysis.append(" ★★★"); // High value
-                } else if (entry.getValue() >= 15) {
-                    analysis.append(" ★★"); // Medium value
-                } else if (entry.getValue() > 0) {
-                    analysis.append(" ★"); // Low value
-                }
+        // Determine best strategy based on current roll
+        if (optimal) {
+            determineOptimalStrategy(diceValues);
+        } else {
+            // Calculate potential scores
+            Map<String, Integer> potentialScores = new HashMap<>();
+            int handIndex = ScoreTable.indexOf(diceValues);
+            for (int m = availableMask; m != 0; m &= m - 1) {
+                int c = Integer.numberOfTrailingZeros(m);
+                potentialScores.put(Constants.CATEGORIES[c], ScoreTable.score(handIndex, c));
             }
-            
-            analysis.append("\n");
+            determineStrategy(diceValues, potentialScores);
         }
-        analysis.append("\n");
+        traceKeep(diceValues);
 
-        // Add roll count information
-        analysis.append("Roll #").append(rollCount).append(" of 3\n\n");
+        lastAnalysis = new RollAnalysis(diceValues, rollCount, availableMask, currentStrategy, getKeepMask(),
+                optimal, optimal ? lastExpectedValue : 0);
+        return lastAnalysis;
+    }
 
-        // Determine best strategy based on current roll
-        determineStrategy(diceValues, potentialScores);
+    private void determineOptimalStrategy(int[] diceValues) {
+        int rollsLeft = Constants.MAX_ROLLS - rollCount;
+        KeepOptimizer.Choice choice = getOptimalTurn().choose(diceValues, rollsLeft);
+        lastExpectedValue = choice.expectedValue;
+        for (int i = 0; i < selectedDice.length; i++) {
+            selectedDice[i] = (choice.keepMask & (1 << i)) != 0;
+        }
 
-        // Add strategic explanation
-        analysis.append("STRATEGY ANALYSIS:\n");
-        analysis.append("Current Strategy: ").append(currentStrategy != null ? currentStrategy : "None").append("\n\n");
+        if (Integer.bitCount(choice.keepMask) == diceValues.length) {
+            int category = SolitaireSolver.getDefault()
+                    .bestCategory(board.getFilledMask(), getUpperSectionScore(), DiceHand.of(diceValues));
+            currentStrategy = category < 0 ? null : SCORE_STRATEGIES[category];
+        } else {
+            currentStrategy = MAXIMISE_STRATEGY;
+        }
+    }
 
-        // Explain dice selection
-        analysis.append("DICE SELECTION:\n");
-        int selectedCount = 0;
-        for (int i = 0; i < diceValues.length; i++) {
+    private int getKeepMask() {
+        int keepMask = 0;
+        for (int i = 0; i < selectedDice.length; i++) {
             if (selectedDice[i]) {
-                selectedCount++;
-                analysis.append("Keeping ").append(diceValues[i]);
-                if (currentStrategy != null) {
-                    if (currentStrategy.contains("Yahtzee")) {
-                        analysis.append(" (Potential Yahtzee)");
-                    } else if (currentStrategy.contains("Straight")) {
-                        analysis.append(" (Part of Straight)");
-                    } else if (currentStrategy.contains("Full House")) {
-                        analysis.append(" (Part of Full House)");
-                    } else if (currentStrategy.contains("Kind")) {
-                        analysis.append(" (Part of ").append(currentStrategy).append(")");
-                    } else {
-                        analysis.append(" (For ").append(currentStrategy).append(")");
-                    }
-                }
-                analysis.append("\n");
+                keepMask |= 1 << i;
             }
         }
+        return keepMask;
+    }
 
-        // Explain why we're keeping these dice
-        analysis.append("\nREASONING:\n");
-        if (selectedCount == 0) {
-            analysis.append("No good combinations found. Will try for a better roll.\n");
-        } else if (selectedCount == 5) {
-            analysis.append("Have a complete combination! Ready to score.\n");
-        } else {
-            analysis.append("Keeping ").append(selectedCount).append(" dice to build towards ").append(currentStrategy).append("\n");
+    private void traceKeep(int[] diceValues) {
+        boolean optimal = mode == Mode.OPTIMAL;
+        trace.recordKeep(diceValues, getKeepMask(), getAvailableMask(), rollCount, optimal,
+                optimal ? lastExpectedValue : 0);
+    }
+
+    /**
+     * Recent keep and category decisions, oldest overwritten first.
+     */
+    public DecisionTrace getTrace() {
+        return trace;
+    }
+
+    /**
+     * The DecisionTrace fix behind the latest category choice, FIX_NONE if the strategy chose freely.
+     */
+    int getLastFix() {
+        return lastFix;
+    }
+
+    /**
+     * Takes a keep optimizer built elsewhere, such as on a background thread, for the
+     * scorecard it was built from. It is ignored if the scorecard has changed since.
+     */
+    public void useOptimalTurn(KeepOptimizer optimizer, int filledMask, int upper) {
+        if (board.getFilledMask() == filledMask && getUpperSectionScore() == upper) {
+            optimalTurn = optimizer;
+            optimalTurnMask = filledMask;
+            optimalTurnUpper = upper;
         }
+    }
 
-        return analysis.toString();
+    private KeepOptimizer getOptimalTurn() {
+        int filledMask = board.getFilledMask();
+        int upper = getUpperSectionScore();
+        if (optimalTurn == null || optimalTurnMask != filledMask || optimalTurnUpper != upper) {
+            optimalTurn = SolitaireSolver.getDefault().keepOptimizer(filledMask, upper);
+            optimalTurnMask = filledMask;
+            optimalTurnUpper = upper;
+        }
+        return optimalTurn;
     }
 
-    private void determineStrategy(int[] diceValues, Map<String, Integer> potentialScores) {
+    // Package-private for the benchmarks
+    void determineStrategy(int[] diceValues, Map<String, Integer> potentialScores) {
         // Reset dice selection
         Arrays.fill(selectedDice, false);
+        features = DiceFeatures.of(diceValues);
+        int hand = features.hand;
         
         // ULTRA SPECIFIC CHECK: Find exact 2,2,3,4,5 pattern immediately
         boolean hasExact22345 = false;
-        int twoCount = 0;
-        int threeCount = 0;
-        int fourCount = 0;
-        int fiveCount = 0;
-        
-        // Count the values directly
-        for (int val : diceValues) {
-            if (val == 2) twoCount++;
-            else if (val == 3) threeCount++;
-            else if (val == 4) fourCount++;
-            else if (val == 5) fiveCount++;
-        }
+        int twoCount = DiceHand.count(hand, 2);
+        int threeCount = DiceHand.count(hand, 3);
+        int fourCount = DiceHand.count(hand, 4);
+        int fiveCount = DiceHand.count(hand, 5);
         
         // Check for the exact pattern
         if (twoCount == 2 && threeCount == 1 && fourCount == 1 && fiveCount == 1) {
             hasExact22345 = true;
-            System.out.println("FOUND EXACT [2,2,3,4,5] PATTERN! Dice values: " + Arrays.toString(diceValues));
+            if (DebugLog.DEBUG) {
+                DebugLog.debug("FOUND EXACT [2,2,3,4,5] PATTERN! Dice values: " + Arrays.toString(diceValues));
+            }
         }
         
         // If we have exactly 2,2,3,4,5 and Large Straight is available, always pursue it
-        if (hasExact22345 && getAvailableCategories().contains("Large Straight")) {
-            System.out.println("FORCING STRATEGY FOR EXACT [2,2,3,4,5] PATTERN!");
+        if (hasExact22345 && isCategoryAvailable(Category.LARGE_STRAIGHT)) {
+            if (DebugLog.DEBUG) {
+                DebugLog.debug("FORCING STRATEGY FOR EXACT [2,2,3,4,5] PATTERN!");
+            }
             
             // Set strategy
             currentStrategy = "Pursuing Large Straight";
@@ -149,30 +205,41 @@ public class ComputerPlayer extends Player {
                     if (!keptOne2) {
                         selectedDice[i] = true;
                         keptOne2 = true;
-                        System.out.println("Keeping first 2 at position " + i);
+                        if (DebugLog.DEBUG) {
+                            DebugLog.debug("Keeping first 2 at position " + i);
+                        }
                     } else {
                         selectedDice[i] = false;
-                        System.out.println("Rerolling second 2 at position " + i);
+                        if (DebugLog.DEBUG) {
+                            DebugLog.debug("Rerolling second 2 at position " + i);
+                        }
                     }
                 } else if (value == 3 || value == 4 || value == 5) {
                     selectedDice[i] = true;
-                    System.out.println("Keeping " + value + " at position " + i);
+                    if (DebugLog.DEBUG) {
+                        DebugLog.debug("Keeping " + value + " at position " + i);
+                    }
                 } else {
                     selectedDice[i] = false;
-                    System.out.println("Discarding " + value + " at position " + i);
+                    if (DebugLog.DEBUG) {
+                        DebugLog.debug("Discarding " + value + " at position " + i);
+                    }
                 }
             }
             
             // Verify correct selection
-            System.out.println("FINAL SELECTION ARRAY: " + Arrays.toString(selectedDice));
+            if (DebugLog.DEBUG) {
+                DebugLog.debug("FINAL SELECTION ARRAY: " + Arrays.toString(selectedDice));
+            }
             return;
         }
         
         // SPECIAL CASE: Check for 4 of a kind FIRST - this should override everything else
-        int[] counts = getCounts(diceValues);
         for (int i = 1; i <= 6; i++) {
-            if (counts[i] >= 4) {
-                System.out.println("STRATEGY FIX: Found 4 " + i + "s - forcing Yahtzee strategy");
+            if (DiceHand.count(hand, i) >= 4) {
+                if (DebugLog.DEBUG) {
+                    DebugLog.debug("STRATEGY FIX: Found 4 " + i + "s - forcing Yahtzee strategy");
+                }
                 currentStrategy = "Pursuing Yahtzee with " + i + "s";
                 // Keep all dice of this value
                 for (int j = 0; j < diceValues.length; j++) {
@@ -183,7 +250,7 @@ public class ComputerPlayer extends Player {
         }
         
         // Check for Yahtzee first - if we have a Yahtzee (all 5 dice the same), prioritize it
-        boolean hasYahtzee = isYahtzee(diceValues);
+        boolean hasYahtzee = DiceHand.maxOfAKind(hand) == 5;
         List<String> availableCategories = getAvailableCategories();
         
         // If we have a Yahtzee and Yahtzee category is available, always choose it
@@ -195,20 +262,13 @@ public class ComputerPlayer extends Player {
         }
 
         // CRITICAL FIX: Detect the special pattern [2,2,3,4,5] early and prioritize Large Straight
-        boolean[] hasValue = new boolean[7]; // 0-6, ignore 0
-        for (int v : diceValues) {
-            hasValue[v] = true;
-        }
-        
-        boolean hasTwo = hasValue[2];
-        boolean hasThree = hasValue[3];
-        boolean hasFour = hasValue[4];
-        boolean hasFive = hasValue[5];
-        boolean has2345 = hasTwo && hasThree && hasFour && hasFive;
-        boolean has2Duplicate = counts[2] > 1;
+        boolean has2345 = features.hasFaces(StraightTable.FACES_2345);
+        boolean has2Duplicate = DiceHand.count(hand, 2) > 1;
         
         if (has2345 && has2Duplicate && availableCategories.contains("Large Straight")) {
-            System.out.println("CRITICAL FIX: Detected [2,2,3,4,5] pattern - prioritizing Large Straight strategy");
+            if (DebugLog.DEBUG) {
+                DebugLog.debug("CRITICAL FIX: Detected [2,2,3,4,5] pattern - prioritizing Large Straight strategy");
+            }
             currentStrategy = "Pursuing Large Straight";
             
             // Keep one 2 and all 3,4,5
@@ -219,17 +279,25 @@ public class ComputerPlayer extends Player {
                     if (!keptOne2) {
                         selectedDice[i] = true;
                         keptOne2 = true;
-                        System.out.println("Keeping one 2 for Large Straight potential");
+                        if (DebugLog.DEBUG) {
+                            DebugLog.debug("Keeping one 2 for Large Straight potential");
+                        }
                     } else {
                         selectedDice[i] = false;
-                        System.out.println("Rerolling duplicate 2 to try for 1 or 6 for Large Straight");
+                        if (DebugLog.DEBUG) {
+                            DebugLog.debug("Rerolling duplicate 2 to try for 1 or 6 for Large Straight");
+                        }
                     }
                 } else if (value == 3 || value == 4 || value == 5) {
                     selectedDice[i] = true;
-                    System.out.println("Keeping " + value + " for Straight");
+                    if (DebugLog.DEBUG) {
+                        DebugLog.debug("Keeping " + value + " for Straight");
+                    }
                 } else {
                     selectedDice[i] = false;
-                    System.out.println("Discarding " + value);
+                    if (DebugLog.DEBUG) {
+                        DebugLog.debug("Discarding " + value);
+                    }
                 }
             }
             return;
@@ -269,22 +337,15 @@ public class ComputerPlayer extends Player {
         // SPECIAL CASE: Explicitly check for potential Small Straight or Large Straight
         // This will override normal strategy selection for certain dice combinations
         // Check for 1,3,4,5 or 2,3,4,5 pattern (close to Large Straight)
-        boolean hasOne = hasValue[1];
-        boolean hasSix = hasValue[6];
-        
         // CRITICAL FIX: Special patterns for Large Straight
-        boolean has1345 = hasOne && hasThree && hasFour && hasFive;
+        boolean has1345 = features.hasFaces(StraightTable.FACES_1345);
         
         // If we have a promising pattern for Large Straight, prioritize it
         if ((has1345 || has2345) && availableCategories.contains("Large Straight") && rollCount < 3) {
-            System.out.println("CRITICAL FIX: Found pattern for Large Straight - forcing Large Straight strategy");
-            currentStrategy = "Pursuing Large Straight";
-            
-            // Count occurrences of each value - need to handle duplicate 3s 
-            int[] valueCounts = new int[7];
-            for (int value : diceValues) {
-                valueCounts[value]++;
+            if (DebugLog.DEBUG) {
+                DebugLog.debug("CRITICAL FIX: Found pattern for Large Straight - forcing Large Straight strategy");
             }
+            currentStrategy = "Pursuing Large Straight";
             
             // For 1,3,4,5 pattern, keep one 1 and all 3,4,5
             // For 2,3,4,5 pattern, keep one 2 and all 3,4,5
@@ -315,42 +376,26 @@ public class ComputerPlayer extends Player {
             }
             
             // Log results for debugging
-            if (valueCounts[3] > 1) {
-                System.out.println("CRITICAL BUGFIX: Found duplicate 3s - only keeping one 3 to allow for a 2 in Large Straight");
+            if (DebugLog.DEBUG && DiceHand.count(hand, 3) > 1) {
+                DebugLog.debug("CRITICAL BUGFIX: Found duplicate 3s - only keeping one 3 to allow for a 2 in Large Straight");
             }
             
             return;
         }
         
         // Check for consecutive values (potential straights)
-        int bestSequenceLength = 0;
-        int currentLength = 0;
-        
-        for (int i = 1; i <= 6; i++) {
-            if (hasValue[i]) {
-                currentLength++;
-                bestSequenceLength = Math.max(bestSequenceLength, currentLength);
-            } else {
-                currentLength = 0;
-            }
-        }
+        int bestSequenceLength = features.longestRun;
         
         // BUGFIX: Check for multiple pairs - this is a good start for Full House
         // Check this BEFORE the Small Straight logic
-        int pairCount = 0;
-        int threeOfAKindValue = -1;
-        for (int i = 1; i <= 6; i++) {
-            if (counts[i] >= 3) {
-                threeOfAKindValue = i;
-            } else if (counts[i] == 2) {
-                pairCount++;
-            }
-        }
+        int pairCount = features.pairs;
         
         // If we have two pairs or a three of a kind + a pair, prioritize Full House
-        if ((pairCount >= 2 || (threeOfAKindValue > 0 && pairCount >= 1)) && 
+        if ((pairCount >= 2 || (features.threeValue > 0 && pairCount >= 1)) && 
             availableCategories.contains("Full House")) {
-            System.out.println("STRATEGY OVERRIDE: Found multiple pairs or three of a kind + pair - prioritizing Full House");
+            if (DebugLog.DEBUG) {
+                DebugLog.debug("STRATEGY OVERRIDE: Found multiple pairs or three of a kind + pair - prioritizing Full House");
+            }
             currentStrategy = "Pursuing Full House";
             handleFullHouseStrategy(diceValues);
             return;
@@ -358,8 +403,10 @@ public class ComputerPlayer extends Player {
         
         // If we have 3 or more consecutive values, prioritize straight strategy over Aces/low values
         if (bestSequenceLength >= 3 && availableCategories.contains("Small Straight")) {
-            System.out.println("STRATEGY OVERRIDE: Found " + bestSequenceLength + 
+            if (DebugLog.DEBUG) {
+                DebugLog.debug("STRATEGY OVERRIDE: Found " + bestSequenceLength + 
                               " consecutive values - forcing Small Straight strategy");
+            }
             currentStrategy = "Pursuing Small Straight";
             handleSmallStraightStrategy(diceValues);
             return;
@@ -375,7 +422,7 @@ public class ComputerPlayer extends Player {
         double bestExpectedValue = 0;
 
         // Special case for lots of 1s
-        boolean hasMany1s = counts[1] >= 3;
+        boolean hasMany1s = DiceHand.count(hand, 1) >= 3;
         
         for (Map.Entry<String, Integer> entry : potentialScores.entrySet()) {
             String category = entry.getKey();
@@ -389,22 +436,26 @@ public class ComputerPlayer extends Player {
             }
             
             // If we have many 1s, reduce the expected value of Aces unless it's one of our only options
-            double expectedValue = calculateExpectedValue(category, score, needsUpperBonus, 3);
+            double expectedValue = calculateExpectedValue(category, score, hand, needsUpperBonus, 3);
             
             // Reduce expected value for low-value categories early in the game
             if (availableCategories.size() > 3) {
                 if ((hasMany1s && category.equals("Aces")) || 
-                    (counts[2] >= 3 && category.equals("Twos")) || 
-                    (counts[3] >= 3 && category.equals("Threes"))) {
+                    (DiceHand.count(hand, 2) >= 3 && category.equals("Twos")) || 
+                    (DiceHand.count(hand, 3) >= 3 && category.equals("Threes"))) {
                     expectedValue *= 0.5; // Reduce expected value by half
-                    System.out.println("Reducing expected value for " + category);
+                    if (DebugLog.DEBUG) {
+                        DebugLog.debug("Reducing expected value for " + category);
+                    }
                 }
             }
             
             // Even more aggressively penalize Aces when we have few of them
-            if (category.equals("Aces") && counts[1] <= 2) {
+            if (category.equals("Aces") && DiceHand.count(hand, 1) <= 2) {
                 expectedValue *= 0.2; // Severely reduce expected value for Aces when we only have 1 or 2
-                System.out.println("Severely reducing expected value for Aces - only have " + counts[1]);
+                if (DebugLog.DEBUG) {
+                    DebugLog.debug("Severely reducing expected value for Aces - only have " + DiceHand.count(hand, 1));
+                }
             }
 
             if (expectedValue > bestExpectedValue) {
@@ -448,16 +499,19 @@ public class ComputerPlayer extends Player {
 
     private int calculateUpperSectionScore() {
         int score = 0;
-        for (String category : Arrays.asList("Aces", "Twos", "Threes", "Fours", "Fives", "Sixes")) {
-            if (!getAvailableCategories().contains(category)) {
-                score += getLastScoreForCategory(category);
-            }
+        for (int m = scoredMask & Category.UPPER_MASK; m != 0; m &= m - 1) {
+            score += getLastScoreForCategory(Integer.numberOfTrailingZeros(m));
         }
         return score;
     }
 
-    private double calculateExpectedValue(String category, int currentScore, boolean needsUpperBonus, int remainingRolls) {
-        double baseValue = currentScore;
+    private double calculateExpectedValue(String category, int currentScore, int hand, boolean needsUpperBonus, int remainingRolls) {
+        // Exact best expected score if the rerolls still to come chase this category
+        int categoryIndex = Constants.getCategoryIndex(category);
+        int rollsLeft = Math.min(Constants.MAX_ROLLS - rollCount, Constants.MAX_ROLLS - 1);
+        double baseValue = rollsLeft > 0 && categoryIndex >= 0
+                ? RerollOdds.expectedScore(hand, categoryIndex, rollsLeft)
+                : currentScore;
 
         // For a completed Four of a Kind (or better), prioritize that over upper section
         if ((category.equals("Four of a Kind") || category.equals("Yahtzee")) && 
@@ -467,11 +521,6 @@ public class ComputerPlayer extends Player {
         
         // BUGFIX: Special case for Full House when we have multiple pairs or three of a kind
         if (category.equals("Full House")) {
-            // Count pairs and three of a kinds in current dice
-            int[] counts = getCounts(null); // We don't have access to dice values here
-            int pairCount = 0;
-            boolean hasThreeOfKind = false;
-            
             // If we're on roll 1, boost Full House slightly to encourage that strategy
             if (rollCount == 1) {
                 baseValue *= 1.2;
@@ -525,55 +574,24 @@ public class ComputerPlayer extends Player {
         return baseValue;
     }
 
-    private int getLastScoreForCategory(String category) {
-        // This should be implemented to return the last score for a category
-        // For now, returning 0 as placeholder
-        return 0;
+    private int getLastScoreForCategory(int category) {
+        return scorecard[category];
     }
 
     private void handleYahtzeeStrategy(int[] diceValues) {
-        // IMPROVED: Find the value with the most occurrences, prioritizing higher counts
-        int[] counts = getCounts(diceValues);
-        int maxCount = 0;
-        int bestValue = 0;
-        
-        // First check for 4 of a kind - that's an automatic priority
-        for (int i = 1; i <= 6; i++) {
-            if (counts[i] >= 4) {
-                System.out.println("YAHTZEE STRATEGY: Found 4 of a kind with " + i + "s - prioritizing for Yahtzee");
-                bestValue = i;
-                maxCount = counts[i];
-                break; // No need to look further
-            }
+        // Keep the most common value; a 4 of a kind is always the most common
+        int bestValue = features.mostCommonFace;
+        if (DebugLog.DEBUG && features.maxOfAKind >= 4) {
+            DebugLog.debug("YAHTZEE STRATEGY: Found 4 of a kind with " + bestValue + "s - prioritizing for Yahtzee");
         }
-        
-        // If no 4 of a kind, find the most common value
-        if (bestValue == 0) {
-            for (int i = 1; i <= 6; i++) {
-                if (counts[i] > maxCount) {
-                    maxCount = counts[i];
-                    bestValue = i;
-                } else if (counts[i] == maxCount && i > bestValue) {
-                    // If tied, prefer higher values
-                    bestValue = i;
-                }
-            }
-        }
-        
+
         // Set strategy and keep dice
-        if (bestValue > 0) {
-            currentStrategy = "Pursuing Yahtzee with " + bestValue + "s";
-            for (int i = 0; i < diceValues.length; i++) {
-                selectedDice[i] = (diceValues[i] == bestValue);
-            }
-            System.out.println("YAHTZEE STRATEGY: Keeping all " + bestValue + "s for Yahtzee potential");
-        } else {
-            // Fallback to original logic if something went wrong
-            int mostCommon = findMostCommonValue(diceValues);
-            currentStrategy = "Pursuing Yahtzee with " + mostCommon + "s";
-            for (int i = 0; i < diceValues.length; i++) {
-                selectedDice[i] = (diceValues[i] == mostCommon);
-            }
+        currentStrategy = "Pursuing Yahtzee with " + bestValue + "s";
+        for (int i = 0; i < diceValues.length; i++) {
+            selectedDice[i] = (diceValues[i] == bestValue);
+        }
+        if (DebugLog.DEBUG) {
+            DebugLog.debug("YAHTZEE STRATEGY: Keeping all " + bestValue + "s for Yahtzee potential");
         }
     }
 
@@ -583,21 +601,16 @@ public class ComputerPlayer extends Player {
         Arrays.fill(selectedDice, false);
 
         // BUGFIX: Properly handle the case of 1,3,3,4,5 for Large Straight
-        boolean[] hasValue = new boolean[7]; // 0-6, ignore 0
-        int[] valueCounts = new int[7]; // Count of each dice value
-        
-        // Count occurrences of each value
-        for (int value : diceValues) {
-            hasValue[value] = true;
-            valueCounts[value]++;
-        }
+        int hand = features.hand;
         
         // Check for special patterns like 1,3,3,4,5 or 2,3,3,4,5
-        boolean has1345 = hasValue[1] && hasValue[3] && hasValue[4] && hasValue[5];
-        boolean has2345 = hasValue[2] && hasValue[3] && hasValue[4] && hasValue[5];
+        boolean has1345 = features.hasFaces(StraightTable.FACES_1345);
+        boolean has2345 = features.hasFaces(StraightTable.FACES_2345);
         
-        if ((has1345 || has2345) && valueCounts[3] > 1) {
-            System.out.println("LARGE STRAIGHT FIX: Detected duplicate 3s with 1,3,4,5 or 2,3,4,5 pattern");
+        if ((has1345 || has2345) && DiceHand.count(hand, 3) > 1) {
+            if (DebugLog.DEBUG) {
+                DebugLog.debug("LARGE STRAIGHT FIX: Detected duplicate 3s with 1,3,4,5 or 2,3,4,5 pattern");
+            }
             
             // Keep 1/2,3,4,5 but only ONE 3
             boolean keptOne3 = false;
@@ -621,7 +634,9 @@ public class ComputerPlayer extends Player {
                 }
             }
             
-            System.out.println("LARGE STRAIGHT FIX: Keeping one 3 and rerolling duplicates to try for 2");
+            if (DebugLog.DEBUG) {
+                DebugLog.debug("LARGE STRAIGHT FIX: Keeping one 3 and rerolling duplicates to try for 2");
+            }
             return;
         }
         
@@ -629,7 +644,7 @@ public class ComputerPlayer extends Player {
         for (int i = 0; i < diceValues.length; i++) {
             int value = diceValues[i];
             // Only set true if part of the sequence
-            selectedDice[i] = isPartOfLargestSequence(diceValues, value);
+            selectedDice[i] = isPartOfLargestSequence(value);
         }
     }
 
@@ -637,21 +652,16 @@ public class ComputerPlayer extends Player {
         currentStrategy = "Pursuing Small Straight";
         
         // Analyze current dice values
-        boolean[] hasValue = new boolean[7]; // 0-6, ignore 0
-        int[] valueCounts = new int[7]; // Count of each dice value
-        
-        // Fill the arrays
-        for (int value : diceValues) {
-            hasValue[value] = true;
-            valueCounts[value]++;
-        }
+        int hand = features.hand;
         
         // Special handling for [2,2,3,4,5] pattern - prioritize going for Large Straight
-        boolean has2345 = hasValue[2] && hasValue[3] && hasValue[4] && hasValue[5];
-        boolean has2Duplicate = valueCounts[2] > 1;
+        boolean has2345 = features.hasFaces(StraightTable.FACES_2345);
+        boolean has2Duplicate = DiceHand.count(hand, 2) > 1;
         
         if (has2345 && has2Duplicate) {
-            System.out.println("STRATEGIC PATTERN: Detected [2,2,3,4,5] - keeping one 2 and going for Large Straight");
+            if (DebugLog.DEBUG) {
+                DebugLog.debug("STRATEGIC PATTERN: Detected [2,2,3,4,5] - keeping one 2 and going for Large Straight");
+            }
             
             // Keep one 2 and all 3, 4, 5
             boolean keptOne2 = false;
@@ -661,17 +671,25 @@ public class ComputerPlayer extends Player {
                     if (!keptOne2) {
                         selectedDice[i] = true;
                         keptOne2 = true;
-                        System.out.println("Keeping one 2 for potential Large Straight");
+                        if (DebugLog.DEBUG) {
+                            DebugLog.debug("Keeping one 2 for potential Large Straight");
+                        }
                     } else {
                         selectedDice[i] = false;
-                        System.out.println("Rerolling duplicate 2 to try for 1 or 6 to complete Large Straight");
+                        if (DebugLog.DEBUG) {
+                            DebugLog.debug("Rerolling duplicate 2 to try for 1 or 6 to complete Large Straight");
+                        }
                     }
                 } else if (value == 3 || value == 4 || value == 5) {
                     selectedDice[i] = true;
-                    System.out.println("Keeping " + value + " for Straight");
+                    if (DebugLog.DEBUG) {
+                        DebugLog.debug("Keeping " + value + " for Straight");
+                    }
                 } else {
                     selectedDice[i] = false;
-                    System.out.println("Discarding " + value);
+                    if (DebugLog.DEBUG) {
+                        DebugLog.debug("Discarding " + value);
+                    }
                 }
             }
             
@@ -681,7 +699,7 @@ public class ComputerPlayer extends Player {
         // Count how many dice are part of a potential Small Straight
         int countInSequence = 0;
         for (int value : diceValues) {
-            if (isPartOfSmallestSequence(diceValues, value)) {
+            if (isPartOfSmallestSequence(value)) {
                 countInSequence++;
             }
         }
@@ -690,10 +708,10 @@ public class ComputerPlayer extends Player {
         if (countInSequence >= 4) {
             for (int i = 0; i < diceValues.length; i++) {
                 int value = diceValues[i];
-                if (isPartOfSmallestSequence(diceValues, value)) {
+                if (isPartOfSmallestSequence(value)) {
                     // This is duplicated logic for the special case [2,2,3,4,5]
                     // If we have a duplicate 2 and already kept one, don't keep the second
-                    if (value == 2 && valueCounts[2] > 1) {
+                    if (value == 2 && DiceHand.count(hand, 2) > 1) {
                         boolean alreadyKeptA2 = false;
                         for (int j = 0; j < i; j++) {
                             if (diceValues[j] == 2 && selectedDice[j]) {
@@ -716,7 +734,7 @@ public class ComputerPlayer extends Player {
 
         // Original strategy for fewer matching dice
         for (int i = 0; i < diceValues.length; i++) {
-            if (isPartOfSmallestSequence(diceValues, diceValues[i])) {
+            if (isPartOfSmallestSequence(diceValues[i])) {
                 selectedDice[i] = true;
             } else {
                 selectedDice[i] = false;
@@ -726,14 +744,14 @@ public class ComputerPlayer extends Player {
 
     private void handleFullHouseStrategy(int[] diceValues) {
         currentStrategy = "Pursuing Full House";
-        int[] counts = getCounts(diceValues);
+        int hand = features.hand;
         int threeOfAKind = -1;
         int pairValue1 = -1;
         int pairValue2 = -1;
 
         // First find any three of a kind
         for (int i = 1; i <= 6; i++) {
-            if (counts[i] >= 3) {
+            if (DiceHand.count(hand, i) >= 3) {
                 threeOfAKind = i;
                 break;
             }
@@ -741,7 +759,7 @@ public class ComputerPlayer extends Player {
 
         // Then look for pairs (or a second three of a kind)
         for (int i = 6; i >= 1; i--) {
-            if (i != threeOfAKind && counts[i] >= 2) {
+            if (i != threeOfAKind && DiceHand.count(hand, i) >= 2) {
                 if (pairValue1 == -1) {
                     pairValue1 = i;
                 } else if (pairValue2 == -1) {
@@ -752,13 +770,17 @@ public class ComputerPlayer extends Player {
 
         // IMPROVED: Handle the case where we have two pairs but no three of a kind
         if (threeOfAKind == -1 && pairValue1 != -1 && pairValue2 != -1) {
-            System.out.println("FULL HOUSE: Have two pairs (" + pairValue1 + " and " + pairValue2 + ") but no three of a kind");
+            if (DebugLog.DEBUG) {
+                DebugLog.debug("FULL HOUSE: Have two pairs (" + pairValue1 + " and " + pairValue2 + ") but no three of a kind");
+            }
             
             // Choose the higher value pair to try to make into three of a kind
             int pairToUse = Math.max(pairValue1, pairValue2);
             int otherPair = Math.min(pairValue1, pairValue2);
             
-            System.out.println("FULL HOUSE: Trying to make " + pairToUse + " into three of a kind, keeping pair of " + otherPair);
+            if (DebugLog.DEBUG) {
+                DebugLog.debug("FULL HOUSE: Trying to make " + pairToUse + " into three of a kind, keeping pair of " + otherPair);
+            }
             
             // Keep all dice of the selected pairs
             for (int i = 0; i < diceValues.length; i++) {
@@ -770,7 +792,9 @@ public class ComputerPlayer extends Player {
         // IMPROVED: Handle scenario where we have one pair and a single die (try to make the pair into three of a kind)
         if (threeOfAKind == -1 && pairValue1 != -1 && pairValue2 == -1) {
             // Keep the pair and look for any single die that could be used for a second pair
-            System.out.println("FULL HOUSE: Have a pair of " + pairValue1 + " but no three of a kind");
+            if (DebugLog.DEBUG) {
+                DebugLog.debug("FULL HOUSE: Have a pair of " + pairValue1 + " but no three of a kind");
+            }
             
             // If we have a pair of low value (1s or 2s), try for three of a kind
             // Otherwise, keep the pair and any other highest value dice
@@ -796,15 +820,17 @@ public class ComputerPlayer extends Player {
         }
         
         // Log what we're doing
-        if (threeOfAKind != -1 && pairValue1 != -1) {
-            System.out.println("FULL HOUSE: Already have three " + threeOfAKind + "s and a pair of " + pairValue1 + "s - keeping all");
-        } else if (threeOfAKind != -1) {
-            System.out.println("FULL HOUSE: Have three " + threeOfAKind + "s - need a pair");
+        if (DebugLog.DEBUG) {
+            if (threeOfAKind != -1 && pairValue1 != -1) {
+                DebugLog.debug("FULL HOUSE: Already have three " + threeOfAKind + "s and a pair of " + pairValue1 + "s - keeping all");
+            } else if (threeOfAKind != -1) {
+                DebugLog.debug("FULL HOUSE: Have three " + threeOfAKind + "s - need a pair");
+            }
         }
     }
 
     private void handleMultipleOfKindStrategy(int[] diceValues, int count) {
-        int value = findMostCommonValue(diceValues);
+        int value = features.mostCommonFace;
         currentStrategy = "Pursuing " + count + " of a kind with " + value + "s";
         for (int i = 0; i < diceValues.length; i++) {
             selectedDice[i] = (diceValues[i] == value);
@@ -844,82 +870,14 @@ public class ComputerPlayer extends Player {
     }
 
     // Helper methods
-    private int findMostCommonValue(int[] diceValues) {
-        int[] counts = getCounts(diceValues);
-        int maxCount = 0;
-        int mostCommon = 1;
-
-        // First specifically check for 4 of a kind
-        for (int i = 1; i <= 6; i++) {
-            if (counts[i] >= 4) {
-                System.out.println("STRATEGY: Found 4 " + i + "s - prioritizing");
-                return i; // Immediately return this value
-            }
-        }
-
-        // If no 4 of a kind, proceed normally
-        for (int i = 1; i <= 6; i++) {
-            if (counts[i] > maxCount) {
-                maxCount = counts[i];
-                mostCommon = i;
-            } else if (counts[i] == maxCount && i > mostCommon) {
-                // In case of a tie, prefer higher values
-                mostCommon = i;
-            }
-        }
-        return mostCommon;
-    }
-
-    private int[] getCounts(int[] diceValues) {
-        int[] counts = new int[7];  // 0-6, ignore 0
-        for (int value : diceValues) {
-            counts[value]++;
-        }
-        return counts;
+    private boolean isPartOfLargestSequence(int value) {
+        // Within the longest run of 3 or more, or else a high value
+        return (features.chaseMask & (1 << (value - 1))) != 0;
     }
 
-    private boolean isPartOfLargestSequence(int[] diceValues, int value) {
-        // First, identify if we have a sequence
-        boolean[] hasValue = new boolean[7]; // 0-6, ignore 0
-        for (int v : diceValues) {
-            hasValue[v] = true;
-        }
-        
-        // Count consecutive values
-        int bestSequenceStart = 0;
-        int bestSequenceLength = 0;
-        int currentStart = 0;
-        int currentLength = 0;
-        
-        for (int i = 1; i <= 6; i++) {
-            if (hasValue[i]) {
-                if (currentLength == 0) {
-                    currentStart = i;
-                }
-                currentLength++;
-                
-                // Update best sequence if this one is better
-                if (currentLength > bestSequenceLength) {
-                    bestSequenceLength = currentLength;
-                    bestSequenceStart = currentStart;
-                }
-            } else {
-                currentLength = 0;
-            }
-        }
-        
-        // If the die's value is within the best sequence, keep it
-        if (bestSequenceLength >= 3) { // Only consider sequences of at least 3
-            return value >= bestSequenceStart && value < bestSequenceStart + bestSequenceLength;
-        }
-        
-        // If no good sequence, prefer higher values
-        return value >= 4;
-    }
-
-    private boolean isPartOfSmallestSequence(int[] diceValues, int value) {
+    private boolean isPartOfSmallestSequence(int value) {
         // Use the improved largest sequence method
-        return isPartOfLargestSequence(diceValues, value);
+        return isPartOfLargestSequence(value);
     }
 
     private int getCategoryNumber(String category) {
@@ -947,6 +905,7 @@ public class ComputerPlayer extends Player {
         Arrays.fill(selectedDice, false);
         // Reset the current strategy
         currentStrategy = null;
+        lastAnalysis = null;
     }
 
     public boolean shouldRollAgain() {
@@ -954,6 +913,14 @@ public class ComputerPlayer extends Player {
         if (rollCount >= 3) {
             return false;
         }
+
+        // The optimal strategy stands by keeping every die
+        if (mode == Mode.OPTIMAL) {
+            for (boolean isSelected : selectedDice) {
+                if (!isSelected) return true;
+            }
+            return false;
+        }
         
         // ULTRA SPECIFIC FIX: If we have exactly [2,2,3,4,5], ALWAYS reroll
         boolean hasExact22345 = false;
@@ -978,7 +945,9 @@ public class ComputerPlayer extends Player {
             
             // If we're keeping exactly 4 dice, it might be the 2,3,4,5 pattern
             if (selectedCount == 4) {
-                System.out.println("SHOULD ROLL: Strategy is for Large Straight and keeping 4 dice - ALWAYS rolling again");
+                if (DebugLog.DEBUG) {
+                    DebugLog.debug("SHOULD ROLL: Strategy is for Large Straight and keeping 4 dice - ALWAYS rolling again");
+                }
                 return true;
             }
         }
@@ -1028,169 +997,87 @@ public class ComputerPlayer extends Player {
     }
 
     public String selectCategory(int[] diceValues) {
-        Map<String, Integer> scores = new HashMap<>();
-        List<String> availableCategories = getAvailableCategories();
-        
+        return selectCategory(DiceHand.of(diceValues));
+    }
+
+    /**
+     * Picks a category for a packed DiceHand, or returns null to roll again.
+     */
+    public String selectCategory(int hand) {
+        int availableMask = getAvailableMask();
+        lastFix = DecisionTrace.FIX_NONE;
+        String category = mode == Mode.OPTIMAL ? selectOptimalCategory(hand) : selectHeuristicCategory(hand);
+        trace.recordCategory(hand, availableMask, rollCount, mode == Mode.OPTIMAL, lastFix,
+                category == null ? -1 : Constants.getCategoryIndex(category));
+        return category;
+    }
+
+    private String selectHeuristicCategory(int hand) {
         // For debugging
-        System.out.println("Roll count: " + rollCount);
-        System.out.println("Dice values: " + Arrays.toString(diceValues));
-        
-        // ULTRA SPECIFIC FIX: Check for [2,2,3,4,5] pattern and never score on first roll
-        boolean hasExact22345Pattern = false;
-        int twoCount = 0;
-        int threeCount = 0;
-        int fourCount = 0;
-        int fiveCount = 0;
-        
-        // Count occurrences
-        for (int val : diceValues) {
-            if (val == 2) twoCount++;
-            else if (val == 3) threeCount++;
-            else if (val == 4) fourCount++;
-            else if (val == 5) fiveCount++;
+        if (DebugLog.DEBUG) {
+            DebugLog.debug("Roll count: " + rollCount);
+            DebugLog.debug("Dice values: " + Arrays.toString(DiceHand.toValues(hand)));
         }
         
-        if (twoCount == 2 && threeCount == 1 && fourCount == 1 && fiveCount == 1) {
-            hasExact22345Pattern = true;
-            System.out.println("EXTREME FIX: Found exact [2,2,3,4,5] pattern in selectCategory!");
-            
-            // If we're not on the last roll and Large Straight is available, roll again
-            if (rollCount < 3 && availableCategories.contains("Large Straight")) {
-                System.out.println("EXTREME FIX: Rolling again to try for Large Straight!");
-                return null; // Signal to roll again
-            }
+        // Straights, the [2,2,3,4,5] reroll and the Three/Four of a Kind fixes
+        int decision = CategoryRules.select(hand, getAvailableMask(), rollCount);
+        if (decision == CategoryRules.ROLL_AGAIN) {
+            return null; // Signal to roll again
+        }
+        if (decision != CategoryRules.NO_RULE) {
+            int index = CategoryRules.category(decision);
+            String category = Constants.CATEGORIES[index];
+            int score = ScoreTable.score(DiceHand.index(hand), index);
+            lastCategory = category;
+            lastScore = score;
+            super.fillCategory(category, score);
+            lastFix = CategoryRules.fix(decision);
+            return category;
         }
-        
+
+        Map<String, Integer> scores = new HashMap<>();
+        List<String> availableCategories = getAvailableCategories();
+
         // Calculate raw scores for all available categories
         Map<String, Integer> rawScores = new HashMap<>();
+        int handIndex = DiceHand.index(hand);
         for (String category : availableCategories) {
-            int score = Helper.calculateScore(category, diceValues);
+            int score = ScoreTable.score(handIndex, Constants.getCategoryIndex(category));
             rawScores.put(category, score);
             if (score > 0) {
                 scores.put(category, score);
                 // For debugging
-                System.out.println("Category: " + category + ", Score: " + score);
+                if (DebugLog.DEBUG) {
+                    DebugLog.debug("Category: " + category + ", Score: " + score);
+                }
             }
         }
 
-        // CRITICAL FIX: ALWAYS prioritize Large Straight and Small Straight if available with optimal scores
-        if (rawScores.containsKey("Large Straight") && rawScores.get("Large Straight") == 40) {
-            System.out.println("CRITICAL FIX: Detected perfect Large Straight (40 points). Selecting it automatically.");
-            lastCategory = "Large Straight";
-            lastScore = 40;
-            super.fillCategory("Large Straight", 40);
-            return "Large Straight";
-        }
-        
-        // NEVER score Small Straight automatically on first roll if we have [2,2,3,4,5]
-        if (rawScores.containsKey("Small Straight") && rawScores.get("Small Straight") == 30) {
-            // Check if we have [2,2,3,4,5] pattern
-            if (hasExact22345Pattern && rollCount < 3 && availableCategories.contains("Large Straight")) {
-                System.out.println("BLOCKING Small Straight scoring with [2,2,3,4,5] to pursue Large Straight");
-                return null; // Roll again
-            }
-            
-            System.out.println("CRITICAL FIX: Detected perfect Small Straight (30 points). Selecting it automatically.");
-            lastCategory = "Small Straight";
-            lastScore = 30;
-            super.fillCategory("Small Straight", 30);
-            return "Small Straight";
-        }
-        
-        // BUGFIX: Apply Three of a Kind fix FIRST
-        String threeKindFixedCategory = ThreeOfAKindFixer.fixCategorySelection(diceValues, rawScores, rollCount);
-        if (threeKindFixedCategory != null) {
-            int score = rawScores.get(threeKindFixedCategory);
-            lastCategory = threeKindFixedCategory;
-            lastScore = score;
-            super.fillCategory(threeKindFixedCategory, score);
-            System.out.println("FIXED: Forcing selection of " + threeKindFixedCategory + " with score " + score);
-            return threeKindFixedCategory;
-        }
-        
-        // DIRECT BUGFIX: Check for Four of a Kind vs Three of a Kind with same score
-        // Reuse the counts array that will be initialized later
-        boolean hasFourOfKind = false;
-        // Calculate counts if needed for our check
-        int[] diceCounts = getCounts(diceValues);
-        for (int i = 1; i <= 6; i++) {
-            if (diceCounts[i] >= 4) {
-                hasFourOfKind = true;
-                break;
-            }
-        }
-        
-        if (hasFourOfKind && rollCount == 3 && 
-            rawScores.containsKey("Four of a Kind") && rawScores.containsKey("Three of a Kind")) {
-            int fourScore = rawScores.get("Four of a Kind");
-            int threeScore = rawScores.get("Three of a Kind");
-            
-            // Critical fix: If scores are equal or Four of a Kind is higher, always choose Four of a Kind
-            if (fourScore >= threeScore) {
-                System.out.println("CRITICAL BUGFIX: Forcing Four of a Kind (" + fourScore + 
-                                  ") over Three of a Kind (" + threeScore + ")");
-                lastCategory = "Four of a Kind";
-                lastScore = fourScore;
-                super.fillCategory("Four of a Kind", fourScore);
-                return "Four of a Kind";
-            }
-        }
-        
-        // BUGFIX: Apply Four of a Kind fix next
-        String fixedCategory = FourOfAKindFixer.fixCategorySelection(diceValues, rawScores, this);
-        if (fixedCategory != null) {
-            int score = rawScores.get(fixedCategory);
-            lastCategory = fixedCategory;
-            lastScore = score;
-            super.fillCategory(fixedCategory, score);
-            System.out.println("BUG FIX: Forcing selection of " + fixedCategory + " with score " + score);
-            return fixedCategory;
-        }
-        
-        // Special case: Check for Yahtzee first
-        boolean hasYahtzee = isYahtzee(diceValues);
-        if (hasYahtzee && availableCategories.contains("Yahtzee")) {
-            lastCategory = "Yahtzee";
-            lastScore = 50; // Yahtzee is worth 50 points
-            super.fillCategory("Yahtzee", 50);
-            return "Yahtzee";
-        }
-        
         // STRAIGHT DETECTION FIX: If we have 3 consecutive numbers and it's not the final roll,
         // we want to reroll the remaining dice to try for a straight
         if (rollCount < 3) {
-            boolean[] hasValue = new boolean[7]; // 0-6, ignore 0
-            for (int v : diceValues) {
-                hasValue[v] = true;
-            }
-            
             // CRITICAL FIX: Special case for patterns close to Large Straight
-            boolean hasOne = hasValue[1];
-            boolean hasTwo = hasValue[2];
-            boolean hasThree = hasValue[3];
-            boolean hasFour = hasValue[4];
-            boolean hasFive = hasValue[5];
-            boolean hasSix = hasValue[6];
-            
-            boolean has1345 = hasOne && hasThree && hasFour && hasFive;
-            boolean has2345 = hasTwo && hasThree && hasFour && hasFive;
+            int present = DiceHand.presentMask(hand);
+            boolean has1345 = StraightTable.contains(present, StraightTable.FACES_1345);
+            boolean has2345 = StraightTable.contains(present, StraightTable.FACES_2345);
             
             // If we have a pattern that's one die away from Large Straight, roll again
             if ((has1345 || has2345) && availableCategories.contains("Large Straight")) {
-                System.out.println("CRITICAL FIX: Found [1,3,4,5] or [2,3,4,5] pattern - rolling again for Large Straight");
+                if (DebugLog.DEBUG) {
+                    DebugLog.debug("CRITICAL FIX: Found [1,3,4,5] or [2,3,4,5] pattern - rolling again for Large Straight");
+                }
                 return null; // Signal to roll again instead of scoring in Small Straight
             }
             
             // BUGFIX: Special case for [2,2,3,4,5] - need 1 or 6 for Large Straight
-            // Count occurrences of each value
-            int[] counts = getCounts(diceValues);
-            
             // Check if we have 2,3,4,5 with duplicate 2
-            if (hasTwo && hasThree && hasFour && hasFive && counts[2] >= 2 &&
+            if (has2345 && DiceHand.count(hand, 2) >= 2 &&
                 availableCategories.contains("Large Straight") && availableCategories.contains("Small Straight")) {
                 
-                System.out.println("STRATEGIC FIX: Found [2,2,3,4,5] pattern - rolling again for Large Straight instead of scoring Small Straight");
-                System.out.println("STRATEGIC FIX: Need 1 or 6 to complete Large Straight");
+                if (DebugLog.DEBUG) {
+                    DebugLog.debug("STRATEGIC FIX: Found [2,2,3,4,5] pattern - rolling again for Large Straight instead of scoring Small Straight");
+                    DebugLog.debug("STRATEGIC FIX: Need 1 or 6 to complete Large Straight");
+                }
                 
                 // Always roll again on the first 2 rolls to try for Large Straight
                 if (rollCount < 3) {
@@ -1199,27 +1086,17 @@ public class ComputerPlayer extends Player {
             }
             
             // General check for 2,3,4,5 or 1,2,3,4 or 3,4,5,6 patterns (one away from Large Straight)
-            boolean potentialLargeStraight = 
-                (hasTwo && hasThree && hasFour && hasFive) || // 2,3,4,5 - need 1 or 6
-                (hasOne && hasTwo && hasThree && hasFour) || // 1,2,3,4 - need 5
-                (hasThree && hasFour && hasFive && hasSix);  // 3,4,5,6 - need 2
+            boolean potentialLargeStraight = StraightTable.isSmallStraight(present);
                 
             if (potentialLargeStraight && availableCategories.contains("Large Straight") && 
                 availableCategories.contains("Small Straight") && rollCount < 3) {
-                System.out.println("STRATEGIC FIX: Found pattern one die away from Large Straight - rolling again");
+                if (DebugLog.DEBUG) {
+                    DebugLog.debug("STRATEGIC FIX: Found pattern one die away from Large Straight - rolling again");
+                }
                 return null; // Signal to roll again instead of scoring in Small Straight
             }
             
-            int maxConsecutive = 0;
-            int currentConsecutive = 0;
-            for (int i = 1; i <= 6; i++) {
-                if (hasValue[i]) {
-                    currentConsecutive++;
-                    maxConsecutive = Math.max(maxConsecutive, currentConsecutive);
-                } else {
-                    currentConsecutive = 0;
-                }
-            }
+            int maxConsecutive = StraightTable.longestRun(present);
             
             // If we have 3 or more consecutive values and Small/Large Straight is available, 
             // don't score yet, try for straight
@@ -1227,8 +1104,10 @@ public class ComputerPlayer extends Player {
                 boolean straightAvailable = availableCategories.contains("Small Straight") || 
                                          availableCategories.contains("Large Straight");
                 if (straightAvailable) {
-                    System.out.println("REROLL FIX: Found " + maxConsecutive + 
+                    if (DebugLog.DEBUG) {
+                        DebugLog.debug("REROLL FIX: Found " + maxConsecutive + 
                                      " consecutive values - rerolling for straight");
+                    }
                     return null; // Signal to roll again
                 }
             }
@@ -1236,7 +1115,9 @@ public class ComputerPlayer extends Player {
         
         // ADDITIONAL CHECK: Prioritize high-value combinations
         if (rawScores.containsKey("Large Straight") && rawScores.get("Large Straight") > 0) {
-            System.out.println("HIGH VALUE FIX: Selecting Large Straight with " + rawScores.get("Large Straight") + " points");
+            if (DebugLog.DEBUG) {
+                DebugLog.debug("HIGH VALUE FIX: Selecting Large Straight with " + rawScores.get("Large Straight") + " points");
+            }
             lastCategory = "Large Straight";
             lastScore = rawScores.get("Large Straight");
             super.fillCategory("Large Straight", lastScore);
@@ -1247,42 +1128,33 @@ public class ComputerPlayer extends Player {
         if (rawScores.containsKey("Small Straight") && rawScores.get("Small Straight") > 0) {
             boolean potentialForLargeStraight = false;
             
-            // Recheck for patterns that are close to Large Straight
-            boolean[] hasValue = new boolean[7]; // 0-6, ignore 0
-            for (int v : diceValues) {
-                hasValue[v] = true;
-            }
-            boolean hasOne = hasValue[1];
-            boolean hasTwo = hasValue[2];
-            boolean hasThree = hasValue[3];
-            boolean hasFour = hasValue[4];
-            boolean hasFive = hasValue[5];
-            boolean hasSix = hasValue[6];
-            
-            boolean has2345 = hasTwo && hasThree && hasFour && hasFive; // Need 1 or 6
-            boolean has1234 = hasOne && hasTwo && hasThree && hasFour; // Need 5
-            boolean has3456 = hasThree && hasFour && hasFive && hasSix; // Need 2
-            
-            potentialForLargeStraight = has2345 || has1234 || has3456;
+            // Recheck for patterns that are close to Large Straight: 2,3,4,5 or 1,2,3,4 or 3,4,5,6
+            potentialForLargeStraight = DiceHand.isSmallStraight(hand);
             
             // Only score Small Straight if:
             // 1. Large Straight is not available, OR
             // 2. We don't have a potential for Large Straight, OR
             // 3. It's the final roll (rollCount == 3)
             if (!availableCategories.contains("Large Straight") || !potentialForLargeStraight || rollCount == 3) {
-                System.out.println("HIGH VALUE FIX: Selecting Small Straight with " + rawScores.get("Small Straight") + " points");
+                if (DebugLog.DEBUG) {
+                    DebugLog.debug("HIGH VALUE FIX: Selecting Small Straight with " + rawScores.get("Small Straight") + " points");
+                }
                 lastCategory = "Small Straight";
                 lastScore = rawScores.get("Small Straight");
                 super.fillCategory("Small Straight", lastScore);
                 return "Small Straight";
             } else {
-                System.out.println("STRATEGIC FIX: Avoiding Small Straight scoring to pursue Large Straight potential");
+                if (DebugLog.DEBUG) {
+                    DebugLog.debug("STRATEGIC FIX: Avoiding Small Straight scoring to pursue Large Straight potential");
+                }
                 return null; // Signal to roll again
             }
         }
         
         if (rawScores.containsKey("Full House") && rawScores.get("Full House") == 25) {
-            System.out.println("HIGH VALUE FIX: Selecting Full House with 25 points");
+            if (DebugLog.DEBUG) {
+                DebugLog.debug("HIGH VALUE FIX: Selecting Full House with 25 points");
+            }
             lastCategory = "Full House";
             lastScore = 25;
             super.fillCategory("Full House", 25);
@@ -1302,13 +1174,17 @@ public class ComputerPlayer extends Player {
             
             // Force prioritize Four of a Kind if it's available and has a score > 0
             if (rawScores.containsKey("Four of a Kind") && rawScores.get("Four of a Kind") > 0) {
-                System.out.println("PRIORITY: Choosing Four of a Kind with score " + rawScores.get("Four of a Kind"));
+                if (DebugLog.DEBUG) {
+                    DebugLog.debug("PRIORITY: Choosing Four of a Kind with score " + rawScores.get("Four of a Kind"));
+                }
                 bestCategory = "Four of a Kind";
                 bestScore = rawScores.get("Four of a Kind");
             } 
             // Avoid Aces with low score if we have better options
             else if (hasAces && acesIsLow && rawScores.size() > 1) {
-                System.out.println("AVOIDING low Aces score: " + acesScore);
+                if (DebugLog.DEBUG) {
+                    DebugLog.debug("AVOIDING low Aces score: " + acesScore);
+                }
                 // Find the best score other than Aces
                 for (Map.Entry<String, Integer> entry : rawScores.entrySet()) {
                     if (!entry.getKey().equals("Aces") && entry.getValue() > bestScore) {
@@ -1326,17 +1202,23 @@ public class ComputerPlayer extends Player {
             else {
                 // Simply pick the category with the highest point value
                 for (Map.Entry<String, Integer> entry : rawScores.entrySet()) {
-                    System.out.println("Considering category: " + entry.getKey() + " with score: " + entry.getValue());
+                    if (DebugLog.DEBUG) {
+                        DebugLog.debug("Considering category: " + entry.getKey() + " with score: " + entry.getValue());
+                    }
                     if (entry.getValue() > bestScore) {
                         bestScore = entry.getValue();
                         bestCategory = entry.getKey();
-                        System.out.println("  New best: " + bestCategory + " with score: " + bestScore);
+                        if (DebugLog.DEBUG) {
+                            DebugLog.debug("  New best: " + bestCategory + " with score: " + bestScore);
+                        }
                     }
                 }
             }
             
             if (bestCategory != null) {
-                System.out.println("FINAL SELECTION: " + bestCategory + " with score: " + bestScore);
+                if (DebugLog.DEBUG) {
+                    DebugLog.debug("FINAL SELECTION: " + bestCategory + " with score: " + bestScore);
+                }
                 lastCategory = bestCategory;
                 lastScore = bestScore;
                 super.fillCategory(bestCategory, bestScore);
@@ -1349,11 +1231,7 @@ public class ComputerPlayer extends Player {
         if (!scores.isEmpty() && rollCount < 3) {
             // If we could potentially improve our score and still have rolls left, consider rolling again
             if (rollCount < 3) {
-                int[] counts = getCounts(diceValues);
-                int maxCount = 0;
-                for (int i = 1; i <= 6; i++) {
-                    maxCount = Math.max(maxCount, counts[i]);
-                }
+                int maxCount = DiceHand.maxOfAKind(hand);
                 
                 // If we have Three of a Kind, always try for better unless it's the last roll
                 if (maxCount >= 3 && availableCategories.contains("Yahtzee")) {
@@ -1394,7 +1272,9 @@ public class ComputerPlayer extends Player {
             // Try to find a category other than Aces
             for (String category : availableCategories) {
                 if (!category.equals("Aces")) {
-                    System.out.println("FINAL ROLL: Avoiding Aces with low score, using " + category + " instead");
+                    if (DebugLog.DEBUG) {
+                        DebugLog.debug("FINAL ROLL: Avoiding Aces with low score, using " + category + " instead");
+                    }
                     lastCategory = category;
                     lastScore = rawScores.getOrDefault(category, 0);
                     super.fillCategory(category, lastScore);
@@ -1410,9 +1290,18 @@ public class ComputerPlayer extends Player {
         return firstCategory;
     }
 
-    private int getCategoryIndex(String category) {
-        // Convert category name to index
-        return Arrays.asList(Constants.CATEGORIES).indexOf(category);
+    private String selectOptimalCategory(int hand) {
+        int rollsLeft = Constants.MAX_ROLLS - rollCount;
+        if (rollsLeft > 0 && getOptimalTurn().bestKeep(hand, rollsLeft) != hand) {
+            return null; // Rolling again is worth more than any category
+        }
+        int category = SolitaireSolver.getDefault().bestCategory(board.getFilledMask(), getUpperSectionScore(), hand);
+        if (category < 0) {
+            return null;
+        }
+        int score = ScoreTable.score(DiceHand.index(hand), category);
+        super.fillCategory(category, score);
+        return Constants.CATEGORIES[category];
     }
 
     // Use parent class implementations for these methods
@@ -1431,14 +1320,6 @@ public class ComputerPlayer extends Player {
         return super.getTotalScore();
     }
 
-    public String getLastCategory() {
-        return lastCategory;
-    }
-
-    public int getLastScore() {
-        return lastScore;
-    }
-
     public void setRollCount(int count) {
         this.rollCount = count;
     }
@@ -1447,17 +1328,12 @@ public class ComputerPlayer extends Player {
         return rollCount;
     }
 
-    // Helper method to check if we have a Yahtzee
-    private boolean isYahtzee(int[] diceValues) {
-        if (diceValues == null || diceValues.length < 5) {
-            return false;
-        }
-        int firstValue = diceValues[0];
-        for (int value : diceValues) {
-            if (value != firstValue) {
-                return false;
-            }
-        }
-        return true;
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+        lastAnalysis = null;
     }
 }
\ No newline at end of file
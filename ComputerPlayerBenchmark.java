@@ -0,0 +1,100 @@
+package com.example.ccjava;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The computer player's per-roll decisions, with every category still open.
+ * selectCategory fills a category, so the board is cleared after each call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ComputerPlayerBenchmark {
+    @Param({"HEURISTIC", "OPTIMAL"})
+    public ComputerPlayer.Mode mode;
+
+    @Param({"1", "3"})
+    public int rollCount;
+
+    private int[][] rolls;
+    private int[] hands;
+    private List<Map<String, Integer>> potentialScores;
+    private CategoryBoard board;
+    private ComputerPlayer player;
+    private int next;
+    private PrintStream console;
+
+    @Setup
+    public void setUp() {
+        console = BenchmarkHands.silenceConsole();
+        rolls = BenchmarkHands.rolls();
+        hands = new int[rolls.length];
+        potentialScores = new ArrayList<>(rolls.length);
+        for (int i = 0; i < rolls.length; i++) {
+            hands[i] = DiceHand.of(rolls[i]);
+            Map<String, Integer> scores = new HashMap<>();
+            for (String category : Constants.CATEGORIES) {
+                scores.put(category, Helper.calculateScore(category, hands[i]));
+            }
+            potentialScores.add(scores);
+        }
+        board = new CategoryBoard();
+        player = new ComputerPlayer("Computer", board);
+        player.setMode(mode);
+        player.setRollCount(rollCount);
+        // Solve the optimal tables outside the measurement
+        player.analyzeRoll(rolls[0]);
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(console);
+    }
+
+    @Benchmark
+    public String analyzeRoll() {
+        return player.analyzeRoll(rolls[next++ & BenchmarkHands.MASK]);
+    }
+
+    @Benchmark
+    public boolean[] determineStrategy() {
+        int i = next++ & BenchmarkHands.MASK;
+        player.determineStrategy(rolls[i], potentialScores.get(i));
+        return player.getSelectedDice();
+    }
+
+    @Benchmark
+    public boolean shouldRollAgain() {
+        int i = next++ & BenchmarkHands.MASK;
+        player.determineStrategy(rolls[i], potentialScores.get(i));
+        return player.shouldRollAgain();
+    }
+
+    @Benchmark
+    public String selectCategory() {
+        String category = player.selectCategory(hands[next++ & BenchmarkHands.MASK]);
+        board.reset();
+        return category;
+    }
+}
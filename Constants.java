@@ -28,6 +28,9 @@ public class Constants {
     public static final int MAX_ROLLS = 3;
     public static final int DIE_MIN_VALUE = 1;
     public static final int DIE_MAX_VALUE = 6;
+    // This ruleset pays no upper-section bonus; the solver still takes one as a parameter
+    public static final int UPPER_BONUS_THRESHOLD = 63;
+    public static final int UPPER_BONUS_SCORE = 0;
 
     // Optimal scores for each category (used for AI and help system)
     public static final int[] OPTIMAL_SCORES = {
@@ -0,0 +1,37 @@
+package com.example.ccjava;
+
+/**
+ * Debug tracing for the scoring and strategy code.
+ *
+ * LEVEL is a compile-time constant, and so are the flags derived from it, so
+ * every call site is written behind its flag:
+ *
+ *     if (DebugLog.DEBUG) {
+ *         DebugLog.debug("Keeping " + value + " at position " + i);
+ *     }
+ *
+ * With the level below DEBUG, javac drops the whole block: the message is never
+ * built, nothing is concatenated and no Arrays.toString runs. Raise LEVEL and
+ * rebuild to get the trace back on the console.
+ */
+public final class DebugLog {
+    public static final int LEVEL_OFF = 0;
+    public static final int LEVEL_INFO = 1;
+    public static final int LEVEL_DEBUG = 2;
+
+    public static final int LEVEL = LEVEL_OFF;
+
+    public static final boolean INFO = LEVEL >= LEVEL_INFO;
+    public static final boolean DEBUG = LEVEL >= LEVEL_DEBUG;
+
+    private DebugLog() {
+    }
+
+    public static void info(String message) {
+        System.out.println(message);
+    }
+
+    public static void debug(String message) {
+        System.out.println(message);
+    }
+}
@@ -0,0 +1,246 @@
+package com.example.ccjava;
+
+import java.util.Locale;
+
+/**
+ * Fixed-size binary record of a computer player's decisions.
+ *
+ * Every keep and every category choice is packed into two longs and written
+ * into a preallocated ring, overwriting the oldest event once it is full, so
+ * recording allocates nothing and builds no strings. Text is produced only
+ * when render() is asked for it.
+ *
+ * Word 0 of an event:
+ *   bits  0-14  the five dice, 3 bits each in the order they lie (sorted for category events)
+ *   bits 15-19  keep mask, bit i set when die i is kept
+ *   bits 20-31  mask of the categories that were open
+ *   bits 32-34  fix that overrode the strategy, one of the FIX_ constants
+ *   bits 35-38  chosen category index, or NO_CATEGORY to roll again
+ *   bit  39     KEEP or CATEGORY event
+ *   bits 40-41  roll number, 1 to 3
+ *   bit  42     set when the player was in OPTIMAL mode
+ * Word 1:
+ *   bits  0-43  score of the hand in every category (see packScores)
+ *   bits 44-63  expected points to come in tenths, for optimal keeps
+ */
+public final class DecisionTrace {
+    public static final int KEEP = 0;
+    public static final int CATEGORY = 1;
+
+    public static final int FIX_NONE = 0;
+    public static final int FIX_THREE_OF_A_KIND = 1;
+    public static final int FIX_FOUR_OF_A_KIND = 2;
+    public static final int FIX_DIRECT = 3;
+    public static final int FIX_FOUR_OVER_THREE = 4;
+
+    public static final int NO_CATEGORY = 15;
+
+    private static final String[] FIX_NAMES = {
+            null, "Three of a Kind over number", "Four of a Kind rule", "Four of a Kind over number",
+            "Four of a Kind over Three of a Kind"
+    };
+
+    private static final int DIE_BITS = 3;
+    private static final long EXPECTED_LIMIT = (1L << 20) - 1;
+
+    private final long[] events;
+    private final int capacity;
+    // Events recorded since the last clear; the newest is at (count - 1) % capacity
+    private long count;
+
+    public DecisionTrace(int capacity) {
+        this.capacity = capacity;
+        this.events = new long[2 * capacity];
+    }
+
+    /**
+     * Records the dice kept after a roll.
+     */
+    public void recordKeep(int[] dice, int keepMask, int availableMask, int roll, boolean optimal,
+                           double expectedValue) {
+        int packed = 0;
+        for (int d = 0; d < Constants.DICE_COUNT; d++) {
+            packed |= dice[d] << (d * DIE_BITS);
+        }
+        record(KEEP, packed, DiceHand.of(dice), keepMask, availableMask, FIX_NONE, NO_CATEGORY, roll, optimal,
+                expectedValue);
+    }
+
+    /**
+     * Records a category choice, or a decision to roll again when category is negative.
+     */
+    public void recordCategory(int hand, int availableMask, int roll, boolean optimal, int fix, int category) {
+        // A packed hand has no dice order, so lay the dice out sorted
+        int packed = 0;
+        int d = 0;
+        for (int face = 1; face <= Constants.DIE_MAX_VALUE; face++) {
+            for (int n = DiceHand.count(hand, face); n > 0; n--) {
+                packed |= face << (d++ * DIE_BITS);
+            }
+        }
+        record(CATEGORY, packed, hand, 0, availableMask, fix, category < 0 ? NO_CATEGORY : category, roll, optimal,
+                0);
+    }
+
+    private void record(int type, int dice, int hand, int keepMask, int availableMask, int fix, int category,
+                        int roll, boolean optimal, double expectedValue) {
+        int slot = (int) (count % capacity) * 2;
+        events[slot] = dice
+                | (long) keepMask << 15
+                | (long) (availableMask & Category.ALL_MASK) << 20
+                | (long) fix << 32
+                | (long) category << 35
+                | (long) type << 39
+                | (long) roll << 40
+                | (optimal ? 1L << 42 : 0);
+        long expected = Math.min(EXPECTED_LIMIT, Math.max(0, Math.round(expectedValue * 10)));
+        events[slot + 1] = packScores(hand) | expected << 44;
+        count++;
+    }
+
+    public int size() {
+        return (int) Math.min(count, capacity);
+    }
+
+    public void clear() {
+        count = 0;
+    }
+
+    // i counts back from the newest event, 0 being the newest
+    private int slot(int i) {
+        return (int) ((count - 1 - i) % capacity) * 2;
+    }
+
+    /**
+     * Face of one die; the keep mask refers to dice in this order.
+     */
+    public int die(int i, int die) {
+        return (int) (events[slot(i)] >>> (die * DIE_BITS)) & 0x7;
+    }
+
+    public int keepMask(int i) {
+        return (int) (events[slot(i)] >>> 15) & 0x1F;
+    }
+
+    public int availableMask(int i) {
+        return (int) (events[slot(i)] >>> 20) & Category.ALL_MASK;
+    }
+
+    public int fix(int i) {
+        return (int) (events[slot(i)] >>> 32) & 0x7;
+    }
+
+    public int category(int i) {
+        int category = (int) (events[slot(i)] >>> 35) & 0xF;
+        return category == NO_CATEGORY ? -1 : category;
+    }
+
+    public int type(int i) {
+        return (int) (events[slot(i)] >>> 39) & 0x1;
+    }
+
+    public int roll(int i) {
+        return (int) (events[slot(i)] >>> 40) & 0x3;
+    }
+
+    public boolean optimal(int i) {
+        return (events[slot(i)] & (1L << 42)) != 0;
+    }
+
+    public int score(int i, int category) {
+        return unpackScore(events[slot(i) + 1], category);
+    }
+
+    public double expectedValue(int i) {
+        return (events[slot(i) + 1] >>> 44) / 10.0;
+    }
+
+    /**
+     * Text for the newest events, oldest first.
+     */
+    public String render(int maxEvents) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = Math.min(maxEvents, size()) - 1; i >= 0; i--) {
+            renderEvent(sb, i);
+        }
+        return sb.toString();
+    }
+
+    private void renderEvent(StringBuilder sb, int i) {
+        sb.append("Roll ").append(roll(i)).append(optimal(i) ? " [optimal] [" : " [");
+        for (int d = 0; d < Constants.DICE_COUNT; d++) {
+            sb.append(d > 0 ? "," : "").append(die(i, d));
+        }
+        sb.append(']');
+        if (type(i) == KEEP) {
+            sb.append(" keep");
+            int keepMask = keepMask(i);
+            for (int d = 0; d < Constants.DICE_COUNT; d++) {
+                if ((keepMask & (1 << d)) != 0) {
+                    sb.append(' ').append(die(i, d));
+                }
+            }
+            if (keepMask == 0) {
+                sb.append(" nothing");
+            }
+            if (optimal(i)) {
+                sb.append(String.format(Locale.US, " (%.1f points to come)", expectedValue(i)));
+            }
+        } else {
+            int category = category(i);
+            if (category < 0) {
+                sb.append(" roll again");
+            } else {
+                sb.append(" -> ").append(Constants.CATEGORIES[category])
+                        .append(" for ").append(score(i, category));
+            }
+            if (fix(i) != FIX_NONE) {
+                sb.append(" (").append(FIX_NAMES[fix(i)]).append(')');
+            }
+        }
+        sb.append("\n  open:");
+        for (int m = availableMask(i); m != 0; m &= m - 1) {
+            int c = Integer.numberOfTrailingZeros(m);
+            sb.append(' ').append(Constants.CATEGORIES[c]).append('=').append(score(i, c));
+        }
+        sb.append('\n');
+    }
+
+    /**
+     * Scores of the hand in all 12 categories in 44 bits: 5 bits for each upper category
+     * and for Three and Four of a Kind (none can exceed 30), then one bit each for the
+     * fixed-score Full House, Small Straight, Large Straight and Yahtzee.
+     */
+    static long packScores(int hand) {
+        int handIndex = DiceHand.index(hand);
+        long packed = 0;
+        for (int c = 0; c < 8; c++) {
+            packed |= (long) ScoreTable.score(handIndex, c) << (5 * c);
+        }
+        for (int c = 8; c < Category.COUNT; c++) {
+            if (ScoreTable.score(handIndex, c) > 0) {
+                packed |= 1L << (40 + c - 8);
+            }
+        }
+        return packed;
+    }
+
+    static int unpackScore(long packed, int category) {
+        if (category < 8) {
+            return (int) (packed >>> (5 * category)) & 0x1F;
+        }
+        if ((packed & (1L << (40 + category - 8))) == 0) {
+            return 0;
+        }
+        switch (category) {
+            case 8:
+                return Constants.FULL_HOUSE_SCORE;
+            case 9:
+                return Constants.SMALL_STRAIGHT_SCORE;
+            case 10:
+                return Constants.LARGE_STRAIGHT_SCORE;
+            default:
+                return Constants.YAHTZEE_SCORE;
+        }
+    }
+}
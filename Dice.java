@@ -3,16 +3,32 @@ package com.example.ccjava;
 import java.util.Random;
 
 public class Dice {
+    // 6^5: the base-6 digits of one uniform value below this are five independent faces
+    private static final int FACE_COMBINATIONS = 7776;
+    // Smallest slice of a 64-bit draw that covers FACE_COMBINATIONS
+    private static final int SLICE_BITS = 13;
+    private static final int SLICES_PER_DRAW = 64 / SLICE_BITS;
+
     private int[] values;
     private boolean[] held;
-    private Random random;
+    private RandomSource random;
     private boolean manualMode;
+    // Packed face counts of the current values, kept in step with every change (see DiceHand)
+    private int hand;
 
     public Dice() {
+        this(new Random());
+    }
+
+    public Dice(Random random) {
+        this(RandomSource.of(random));
+    }
+
+    public Dice(RandomSource random) {
         // Initialize with 5 dice
         values = new int[Constants.DICE_COUNT];
         held = new boolean[Constants.DICE_COUNT];
-        random = new Random();
+        this.random = random;
         manualMode = false;
 
         // Initialize all dice to value 1
@@ -20,6 +36,7 @@ public class Dice {
             values[i] = 1;
             held[i] = false;
         }
+        hand = DiceHand.of(values);
     }
 
     public int rollSingleDie() {
@@ -28,10 +45,13 @@ public class Dice {
 
     public void rollAll() {
         // Always roll all 5 dice
+        int faces = drawFaces();
         for (int i = 0; i < Constants.DICE_COUNT; i++) {
-            values[i] = random.nextInt(6) + 1;
+            values[i] = faces % Constants.DIE_MAX_VALUE + 1;
+            faces /= Constants.DIE_MAX_VALUE;
             held[i] = false;
         }
+        hand = DiceHand.of(values);
     }
     
     public void roll(boolean[] diceToKeep) {
@@ -43,13 +63,31 @@ public class Dice {
         
         // Roll dice that are NOT selected (not held)
         // In the game, selectedDice represents dice to KEEP (not reroll)
+        int faces = drawFaces();
         for (int i = 0; i < Constants.DICE_COUNT; i++) {
             if (!diceToKeep[i]) {  // If dice is NOT selected to keep, then roll it
-                values[i] = random.nextInt(Constants.DIE_MAX_VALUE) + 1;
+                values[i] = faces % Constants.DIE_MAX_VALUE + 1;
+                faces /= Constants.DIE_MAX_VALUE;
             }
             // Update held state to match selection
             held[i] = diceToKeep[i];
         }
+        hand = DiceHand.of(values);
+    }
+
+    /**
+     * Uniform value below 6^5 for a whole roll. Each 64-bit draw holds four
+     * 13-bit slices; a slice of 7776 or more is rejected and the next one tried,
+     * so a draw is wasted only about once in 150,000 rolls.
+     */
+    private int drawFaces() {
+        while (true) {
+            long bits = random.nextLong();
+            for (int slice = 0; slice < SLICES_PER_DRAW; slice++, bits >>>= SLICE_BITS) {
+                int r = (int) bits & ((1 << SLICE_BITS) - 1);
+                if (r < FACE_COMBINATIONS) return r;
+            }
+        }
     }
 
     public boolean setManualValues(int[] newValues) {
@@ -68,6 +106,7 @@ public class Dice {
         for (int i = 0; i < Constants.DICE_COUNT; i++) {
             values[i] = newValues[i];
         }
+        hand = DiceHand.of(values);
         manualMode = true;
         return true;
     }
@@ -76,6 +115,17 @@ public class Dice {
         return values.clone();
     }
 
+    public int getValue(int index) {
+        return values[index];
+    }
+
+    /**
+     * Current values as a packed DiceHand, without copying.
+     */
+    public int getHand() {
+        return hand;
+    }
+
     public boolean[] getHeld() {
         return held.clone();
     }
@@ -107,23 +157,19 @@ public class Dice {
             values[i] = 1;
             held[i] = false;
         }
+        hand = DiceHand.of(values);
         manualMode = false;
     }
 
     public int countValue(int value) {
-        int count = 0;
-        for (int v : values) {
-            if (v == value) count++;
+        if (value < Constants.DIE_MIN_VALUE || value > Constants.DIE_MAX_VALUE) {
+            return 0;
         }
-        return count;
+        return DiceHand.count(hand, value);
     }
 
     public int sum() {
-        int total = 0;
-        for (int value : values) {
-            total += value;
-        }
-        return total;
+        return DiceHand.sum(hand);
     }
 
     @Override
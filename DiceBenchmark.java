@@ -0,0 +1,53 @@
+package com.example.ccjava;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Rolling dice: the first roll of all five and rerolls around mixed hold patterns,
+ * with each kind of RandomSource.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DiceBenchmark {
+    @Param({"JAVA", "SPLITTABLE", "XOROSHIRO"})
+    public RandomSource.Kind source;
+
+    private Dice dice;
+    private boolean[][] holds;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        dice = new Dice(source.create(1));
+        holds = BenchmarkHands.holds();
+        dice.rollAll();
+    }
+
+    @Benchmark
+    public int rollAll() {
+        dice.rollAll();
+        return dice.getHand();
+    }
+
+    @Benchmark
+    public int roll() {
+        dice.roll(holds[next++ & BenchmarkHands.MASK]);
+        return dice.getHand();
+    }
+}
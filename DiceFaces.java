@@ -0,0 +1,103 @@
+package com.example.ccjava;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.drawable.Drawable;
+import android.widget.ImageView;
+
+/**
+ * Draws the dice into their ImageViews from face drawables that are looked
+ * up and decoded once.
+ *
+ * Each view gets its own Drawable for every face, made from the face's
+ * shared ConstantState, so the bitmaps are decoded once and no two views
+ * share a Drawable's bounds or callback. update() remembers what each view
+ * shows and only touches a view whose face or held state changed, so redrawing
+ * the dice after a roll or a toggle allocates nothing.
+ */
+public final class DiceFaces {
+    private static final int[] FACE_IDS = {
+            R.drawable.dice_1, R.drawable.dice_2, R.drawable.dice_3,
+            R.drawable.dice_4, R.drawable.dice_5, R.drawable.dice_6
+    };
+    private static final float HELD_ALPHA = 0.5f;
+    // What a view shows before its first update
+    private static final int UNKNOWN = -1;
+
+    private final Resources resources;
+    private final Resources.Theme theme;
+    private final ImageView[] views;
+    // Each face as first decoded, whose state the other drawables share
+    private final Drawable[] decoded = new Drawable[FACE_IDS.length];
+    // Per view, its drawable for each face, at view * FACE_IDS.length + value - 1
+    private final Drawable[] viewFaces;
+    private final int[] shownValues;
+    private final int[] shownHeld;
+
+    public DiceFaces(Context context, ImageView[] views) {
+        this.resources = context.getResources();
+        this.theme = context.getTheme();
+        this.views = views;
+        this.viewFaces = new Drawable[views.length * FACE_IDS.length];
+        for (int face = 0; face < FACE_IDS.length; face++) {
+            decoded[face] = resources.getDrawable(FACE_IDS[face], theme);
+            for (int view = 0; view < views.length; view++) {
+                viewFaces[view * FACE_IDS.length + face] = newFace(face + 1);
+            }
+        }
+        this.shownValues = new int[views.length];
+        this.shownHeld = new int[views.length];
+        forget();
+    }
+
+    /**
+     * Shows the dice, changing only the views whose face or held state differ from last time.
+     */
+    public void update(Dice dice, boolean[] held) {
+        for (int i = 0; i < views.length; i++) {
+            int value = dice.getValue(i);
+            if (value != shownValues[i]) {
+                views[i].setImageDrawable(value >= 1 && value <= FACE_IDS.length
+                        ? viewFaces[i * FACE_IDS.length + value - 1] : null);
+                shownValues[i] = value;
+            }
+            updateHeld(i, held[i]);
+        }
+    }
+
+    /**
+     * Shows only which dice are held; the faces are left as they are.
+     */
+    public void updateHeld(boolean[] held) {
+        for (int i = 0; i < views.length; i++) {
+            updateHeld(i, held[i]);
+        }
+    }
+
+    private void updateHeld(int i, boolean isHeld) {
+        int state = isHeld ? 1 : 0;
+        if (state != shownHeld[i]) {
+            views[i].setAlpha(isHeld ? HELD_ALPHA : 1.0f);
+            shownHeld[i] = state;
+        }
+    }
+
+    /**
+     * Makes the next update() redraw every view, after something else has drawn into them.
+     */
+    public void forget() {
+        for (int i = 0; i < views.length; i++) {
+            shownValues[i] = UNKNOWN;
+            shownHeld[i] = UNKNOWN;
+        }
+    }
+
+    /**
+     * Face for a die value 1 to 6 in a view outside the dice row, such as the
+     * first-player toss. Each call makes a new Drawable from the decoded face.
+     */
+    public Drawable newFace(int value) {
+        Drawable.ConstantState state = decoded[value - 1].getConstantState();
+        return state != null ? state.newDrawable(resources) : resources.getDrawable(FACE_IDS[value - 1], theme);
+    }
+}
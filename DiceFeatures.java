@@ -0,0 +1,81 @@
+package com.example.ccjava;
+
+/**
+ * What the strategy and hint code ask about a five-dice hand, worked out once.
+ *
+ * There are only 252 distinct hands, so every one is built when the class
+ * loads and of() just hands out the shared, immutable instance. Rules and
+ * analyzers read these fields instead of recounting the dice.
+ */
+public final class DiceFeatures {
+    private static final DiceFeatures[] FEATURES = new DiceFeatures[ScoreTable.HAND_COUNT];
+
+    static {
+        for (int i = 0; i < ScoreTable.HAND_COUNT; i++) {
+            FEATURES[i] = new DiceFeatures(i, ScoreTable.countsOf(i));
+        }
+    }
+
+    public final int hand;
+    public final int index;
+    public final int sum;
+    // Bit face-1 set for every face showing
+    public final int faceMask;
+    public final int maxOfAKind;
+    // Face with the most dice, the higher face on a tie
+    public final int mostCommonFace;
+    // Faces showing exactly twice
+    public final int pairs;
+    // Lowest face showing at least three and at least four times, 0 if none
+    public final int threeValue;
+    public final int fourValue;
+    // Longest run of consecutive faces and its lowest face (the lower run on a tie)
+    public final int longestRun;
+    public final int runStart;
+    // Faces worth keeping while chasing a straight, see StraightTable
+    public final int chaseMask;
+    private final int[] scores = new int[Category.COUNT];
+
+    private DiceFeatures(int index, int hand) {
+        this.hand = hand;
+        this.index = index;
+        this.sum = DiceHand.sum(hand);
+        this.faceMask = DiceHand.presentMask(hand);
+        this.maxOfAKind = DiceHand.maxOfAKind(hand);
+        this.mostCommonFace = DiceHand.mostCommonFace(hand);
+        this.pairs = Integer.bitCount(DiceHand.atLeastMask(hand, 2) & ~DiceHand.atLeastMask(hand, 3));
+        int threeMask = DiceHand.atLeastMask(hand, 3);
+        int fourMask = DiceHand.atLeastMask(hand, 4);
+        this.threeValue = threeMask == 0 ? 0 : Integer.numberOfTrailingZeros(threeMask) + 1;
+        this.fourValue = fourMask == 0 ? 0 : Integer.numberOfTrailingZeros(fourMask) + 1;
+        this.longestRun = StraightTable.longestRun(faceMask);
+        this.runStart = StraightTable.runStart(faceMask);
+        this.chaseMask = StraightTable.chaseMask(faceMask);
+        for (int c = 0; c < Category.COUNT; c++) {
+            scores[c] = ScoreTable.score(index, c);
+        }
+    }
+
+    public static DiceFeatures of(int hand) {
+        return FEATURES[DiceHand.index(hand)];
+    }
+
+    public static DiceFeatures of(int[] dice) {
+        return of(DiceHand.of(dice));
+    }
+
+    public int count(int face) {
+        return DiceHand.count(hand, face);
+    }
+
+    /**
+     * Whether every face in the 6-bit face set shows at least once.
+     */
+    public boolean hasFaces(int faces) {
+        return StraightTable.contains(faceMask, faces);
+    }
+
+    public int score(int category) {
+        return scores[category];
+    }
+}
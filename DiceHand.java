@@ -0,0 +1,174 @@
+package com.example.ccjava;
+
+/**
+ * Packed dice hand: the count of each face stored in one int, 3 bits per face,
+ * face 1 in the lowest bits. A full roll of five dice fits in 18 bits.
+ *
+ * Hands are plain ints so analyzers can pass them around and query them
+ * without allocating. The same packing is used by ScoreTable, so a hand maps
+ * straight to its score-table index with {@link #index(int)}.
+ */
+public final class DiceHand {
+    public static final int EMPTY = 0;
+
+    static final int BITS = 3;
+    private static final int FIELD = 7;
+    // Lowest bit of every face field, and the same shifted to the top bit of each field
+    private static final int LOW_BITS = 0b001001001001001001;
+    private static final int HIGH_BITS = LOW_BITS << 2;
+
+    private DiceHand() {
+    }
+
+    public static int of(int[] dice) {
+        int hand = EMPTY;
+        for (int value : dice) {
+            hand += 1 << ((value - 1) * BITS);
+        }
+        return hand;
+    }
+
+    /**
+     * Packs the dice at the positions flagged in keep.
+     */
+    public static int of(int[] dice, boolean[] keep) {
+        int hand = EMPTY;
+        for (int i = 0; i < dice.length; i++) {
+            if (keep[i]) {
+                hand += 1 << ((dice[i] - 1) * BITS);
+            }
+        }
+        return hand;
+    }
+
+    public static int withDie(int hand, int face) {
+        return hand + (1 << ((face - 1) * BITS));
+    }
+
+    public static int withoutDie(int hand, int face) {
+        return hand - (1 << ((face - 1) * BITS));
+    }
+
+    public static int count(int hand, int face) {
+        return (hand >>> ((face - 1) * BITS)) & FIELD;
+    }
+
+    /**
+     * Number of dice in the hand.
+     */
+    public static int size(int hand) {
+        int pairs = (hand & 0b000111000111000111) + ((hand >>> BITS) & 0b000111000111000111);
+        return (pairs & 0x3F) + ((pairs >>> 6) & 0x3F) + ((pairs >>> 12) & 0x3F);
+    }
+
+    public static int sum(int hand) {
+        return (hand & FIELD)
+                + 2 * ((hand >>> 3) & FIELD)
+                + 3 * ((hand >>> 6) & FIELD)
+                + 4 * ((hand >>> 9) & FIELD)
+                + 5 * ((hand >>> 12) & FIELD)
+                + 6 * ((hand >>> 15) & FIELD);
+    }
+
+    /**
+     * Bit (f - 1) is set when face f appears at least once.
+     */
+    public static int presentMask(int hand) {
+        return compress((hand | (hand >>> 1) | (hand >>> 2)) & LOW_BITS);
+    }
+
+    /**
+     * Bit (f - 1) is set when face f appears at least {@code n} times (n in 1-5).
+     */
+    public static int atLeastMask(int hand, int n) {
+        int fields;
+        switch (n) {
+            case 1: fields = hand | (hand >>> 1) | (hand >>> 2); break;
+            case 2: fields = (hand >>> 1) | (hand >>> 2); break;
+            case 3: fields = ((hand >>> 1) & hand) | (hand >>> 2); break;
+            case 4: fields = hand >>> 2; break;
+            case 5: fields = (hand >>> 2) & hand; break;
+            default: return n <= 0 ? 0x3F : 0;
+        }
+        return compress(fields & LOW_BITS);
+    }
+
+    /**
+     * Largest number of dice showing the same face.
+     */
+    public static int maxOfAKind(int hand) {
+        if ((hand & HIGH_BITS) != 0) {
+            return ((hand >>> 2) & hand & LOW_BITS) != 0 ? 5 : 4;
+        }
+        if (((hand >>> 1) & hand & LOW_BITS) != 0) return 3;
+        if (((hand >>> 1) & LOW_BITS) != 0) return 2;
+        return hand != 0 ? 1 : 0;
+    }
+
+    /**
+     * Face with the most dice; ties go to the higher face. Returns 0 for an empty hand.
+     */
+    public static int mostCommonFace(int hand) {
+        int max = maxOfAKind(hand);
+        if (max == 0) return 0;
+        return 32 - Integer.numberOfLeadingZeros(atLeastMask(hand, max));
+    }
+
+    /**
+     * Faces of the longest run of consecutive present faces, as a 6-bit mask
+     * (the lowest run wins ties). Returns 0 for an empty hand.
+     */
+    public static int straightRunMask(int hand) {
+        return StraightTable.runMask(presentMask(hand));
+    }
+
+    public static int longestRun(int hand) {
+        return StraightTable.longestRun(presentMask(hand));
+    }
+
+    public static boolean isSmallStraight(int hand) {
+        return StraightTable.isSmallStraight(presentMask(hand));
+    }
+
+    public static boolean isLargeStraight(int hand) {
+        return StraightTable.isLargeStraight(presentMask(hand));
+    }
+
+    public static boolean isFullHouse(int hand) {
+        // Exactly one face with three dice and one with two: a set high bit means 4+
+        int exactThree = compress((hand >>> 1) & hand & ~(hand >>> 2) & LOW_BITS);
+        int exactTwo = compress((hand >>> 1) & ~hand & ~(hand >>> 2) & LOW_BITS);
+        return exactThree != 0 && exactTwo != 0;
+    }
+
+    /**
+     * Score-table index of a five-dice hand.
+     */
+    public static int index(int hand) {
+        return ScoreTable.indexOfCounts(hand);
+    }
+
+    /**
+     * Dice values in ascending order.
+     */
+    public static int[] toValues(int hand) {
+        int[] values = new int[size(hand)];
+        int i = 0;
+        for (int face = 1; face <= Constants.DIE_MAX_VALUE; face++) {
+            for (int c = count(hand, face); c > 0; c--) {
+                values[i++] = face;
+            }
+        }
+        return values;
+    }
+
+    // Gathers bits 0, 3, 6, 9, 12 and 15 into bits 0-5
+    private static int compress(int spread) {
+        return (spread & 1)
+                | ((spread >>> 2) & 2)
+                | ((spread >>> 4) & 4)
+                | ((spread >>> 6) & 8)
+                | ((spread >>> 8) & 16)
+                | ((spread >>> 10) & 32);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.ccjava;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Final-roll category rules, with every category open as at the start of a game:
+ * the table lookup against running the rules each time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FixerBenchmark {
+    private int[] hands;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        int[][] rolls = BenchmarkHands.rolls();
+        hands = new int[rolls.length];
+        for (int i = 0; i < rolls.length; i++) {
+            hands[i] = DiceHand.of(rolls[i]);
+        }
+    }
+
+    @Benchmark
+    public int selectFromTable() {
+        return CategoryRules.select(hands[next++ & BenchmarkHands.MASK], Category.ALL_MASK, Constants.MAX_ROLLS);
+    }
+
+    @Benchmark
+    public int evaluateRules() {
+        return CategoryRules.evaluate(DiceFeatures.of(hands[next++ & BenchmarkHands.MASK]), Category.ALL_MASK, true);
+    }
+}
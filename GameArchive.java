@@ -0,0 +1,351 @@
+package com.example.ccjava;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Locale;
+
+/**
+ * Append-only archive of finished games, one fixed 48-byte record per game,
+ * queried through memory-mapped views of the file so that millions of games
+ * can be summarised without holding them on the heap.
+ *
+ * File: int MAGIC "YARC", short version, short RECORD_SIZE, 8 reserved bytes,
+ * then records of
+ *   3 byte per category: owner seat (-1 while open), score, round filled
+ *   5 byte final dice
+ *   byte   seat that went first
+ *   short  per seat: total score
+ *   byte   rounds played
+ *   byte   RECORD_MARK
+ * A record cut short at the end of the file is not counted, and the next
+ * append writes over it. scan() hands each record to a Visitor through one
+ * reused Record view, so a query allocates nothing per game.
+ *
+ * Appends are buffered and reach the file on flush() or close(). The archive
+ * may be appended to from several threads, as the simulator does; records
+ * are then stored in the order the games finish.
+ */
+public final class GameArchive implements Closeable {
+    public static final String FILE_NAME = "games.archive";
+    public static final int RECORD_SIZE = 48;
+
+    private static final int MAGIC = 0x59415243;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int DICE_OFFSET = 3 * Category.COUNT;
+    private static final int FIRST_SEAT_OFFSET = DICE_OFFSET + Constants.DICE_COUNT;
+    private static final int TOTALS_OFFSET = FIRST_SEAT_OFFSET + 1;
+    private static final int ROUNDS_OFFSET = TOTALS_OFFSET + 4;
+    private static final int MARK_OFFSET = ROUNDS_OFFSET + 1;
+    private static final byte RECORD_MARK = 0x47;
+    // Records buffered before an append goes to the file
+    private static final int BUFFERED_RECORDS = 1024;
+    // Records per mapped view; each view stays well under the 2 GB a buffer can address
+    private static final int RECORDS_PER_VIEW = (1 << 30) / RECORD_SIZE;
+
+    /**
+     * One archived game, read straight from the mapped file.
+     */
+    public static final class Record {
+        private ByteBuffer buffer;
+        private int base;
+
+        /**
+         * View of a record made by encode().
+         */
+        public static Record wrap(byte[] record) {
+            Record view = new Record();
+            view.buffer = ByteBuffer.wrap(record);
+            return view;
+        }
+
+        /**
+         * Seat that filled the category, or -1 if it was left open.
+         */
+        public int getOwner(int category) {
+            return buffer.get(base + 3 * category);
+        }
+
+        public int getScore(int category) {
+            return buffer.get(base + 3 * category + 1) & 0xFF;
+        }
+
+        public int getCategoryRound(int category) {
+            return buffer.get(base + 3 * category + 2) & 0xFF;
+        }
+
+        /**
+         * Value of die i when the game ended.
+         */
+        public int getDie(int i) {
+            return buffer.get(base + DICE_OFFSET + i);
+        }
+
+        public int getFirstSeat() {
+            return buffer.get(base + FIRST_SEAT_OFFSET);
+        }
+
+        public int getTotal(int seat) {
+            return buffer.getShort(base + TOTALS_OFFSET + 2 * seat);
+        }
+
+        public int getRounds() {
+            return buffer.get(base + ROUNDS_OFFSET) & 0xFF;
+        }
+
+        /**
+         * Seat with the higher total, or -1 for a tie.
+         */
+        public int getWinner() {
+            int first = getTotal(0);
+            int second = getTotal(1);
+            return first > second ? 0 : second > first ? 1 : -1;
+        }
+    }
+
+    /**
+     * Receives each record of a scan. The Record is reused, so it must not be kept.
+     */
+    public interface Visitor {
+        void visit(Record record);
+    }
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final ByteBuffer pending = ByteBuffer.allocate(BUFFERED_RECORDS * RECORD_SIZE);
+    // Records in the file, not counting those still pending
+    private long stored;
+
+    /**
+     * Opens the archive, creating it if the file does not exist yet.
+     */
+    public GameArchive(File path) throws IOException {
+        file = new RandomAccessFile(path, "rw");
+        channel = file.getChannel();
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            if (channel.size() < HEADER_SIZE) {
+                header.putInt(MAGIC).putShort((short) VERSION).putShort((short) RECORD_SIZE).flip();
+                channel.truncate(0);
+                channel.write(header, 0);
+            } else {
+                while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+                    // Keep reading
+                }
+                header.flip();
+                if (header.getInt() != MAGIC) {
+                    throw new IOException(path.getName() + " is not a game archive");
+                }
+                int version = header.getShort();
+                if (version != VERSION || header.getShort() != RECORD_SIZE) {
+                    throw new IOException("Unsupported game archive version " + version);
+                }
+            }
+            stored = (channel.size() - HEADER_SIZE) / RECORD_SIZE;
+        } catch (IOException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Adds a finished game.
+     */
+    public synchronized void append(GameEngine engine) throws IOException {
+        if (!pending.hasRemaining()) {
+            flush();
+        }
+        encode(engine, pending);
+    }
+
+    /**
+     * Adds a game already encoded by encode(), such as one taken on another thread.
+     */
+    public synchronized void append(byte[] record) throws IOException {
+        if (record.length != RECORD_SIZE || record[MARK_OFFSET] != RECORD_MARK) {
+            throw new IllegalArgumentException("Not an archive record");
+        }
+        if (!pending.hasRemaining()) {
+            flush();
+        }
+        pending.put(record);
+    }
+
+    /**
+     * The game as one archive record.
+     */
+    public static byte[] encode(GameEngine engine) {
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+        encode(engine, record);
+        return record.array();
+    }
+
+    private static void encode(GameEngine engine, ByteBuffer out) {
+        for (int c = 0; c < Category.COUNT; c++) {
+            Player owner = engine.getCategoryOwner(c);
+            if (owner == null) {
+                out.put((byte) -1).put((byte) 0).put((byte) 0);
+            } else {
+                out.put((byte) engine.seatOf(owner)).put((byte) owner.getScore(Category.of(c)))
+                        .put((byte) engine.getCategoryRound(c));
+            }
+        }
+        for (int i = 0; i < Constants.DICE_COUNT; i++) {
+            out.put((byte) engine.getDice().getValue(i));
+        }
+        out.put((byte) engine.seatOf(engine.getFirstPlayer()));
+        out.putShort((short) engine.getPlayer(0).getTotalScore())
+                .putShort((short) engine.getPlayer(1).getTotalScore());
+        out.put((byte) engine.getRoundNumber()).put(RECORD_MARK);
+    }
+
+    /**
+     * Writes the games appended so far to the file.
+     */
+    public synchronized void flush() throws IOException {
+        pending.flip();
+        long position = HEADER_SIZE + stored * RECORD_SIZE;
+        while (pending.hasRemaining()) {
+            position += channel.write(pending, position);
+        }
+        stored += pending.limit() / RECORD_SIZE;
+        pending.clear();
+    }
+
+    /**
+     * Number of games archived, including any not yet flushed.
+     */
+    public synchronized long size() {
+        return stored + pending.position() / RECORD_SIZE;
+    }
+
+    /**
+     * Flushes, then hands every archived game to the visitor in file order. Records
+     * that fail their check are skipped; returns how many were visited.
+     */
+    public long scan(Visitor visitor) throws IOException {
+        long count;
+        synchronized (this) {
+            flush();
+            count = stored;
+        }
+        Record record = new Record();
+        long visited = 0;
+        for (long first = 0; first < count; first += RECORDS_PER_VIEW) {
+            int records = (int) Math.min(RECORDS_PER_VIEW, count - first);
+            MappedByteBuffer view = channel.map(FileChannel.MapMode.READ_ONLY,
+                    HEADER_SIZE + first * RECORD_SIZE, (long) records * RECORD_SIZE);
+            record.buffer = view;
+            for (int base = 0; base < records * RECORD_SIZE; base += RECORD_SIZE) {
+                if (view.get(base + MARK_OFFSET) != RECORD_MARK) {
+                    continue;
+                }
+                record.base = base;
+                visitor.visit(record);
+                visited++;
+            }
+        }
+        return visited;
+    }
+
+    // ----- Queries -----
+
+    /**
+     * Mean score of each category over the games in which it was filled.
+     */
+    public double[] averageScores() throws IOException {
+        long[] sums = new long[Category.COUNT];
+        long[] fills = new long[Category.COUNT];
+        scan(record -> {
+            for (int c = 0; c < Category.COUNT; c++) {
+                if (record.getOwner(c) >= 0) {
+                    sums[c] += record.getScore(c);
+                    fills[c]++;
+                }
+            }
+        });
+        double[] averages = new double[Category.COUNT];
+        for (int c = 0; c < Category.COUNT; c++) {
+            averages[c] = fills[c] == 0 ? 0 : sums[c] / (double) fills[c];
+        }
+        return averages;
+    }
+
+    /**
+     * Share of games in which Yahtzee was scored rather than zeroed or left open.
+     */
+    public double yahtzeeRate() throws IOException {
+        int yahtzee = Category.YAHTZEE.ordinal();
+        long[] counts = new long[2];
+        scan(record -> {
+            counts[0]++;
+            if (record.getOwner(yahtzee) >= 0 && record.getScore(yahtzee) > 0) {
+                counts[1]++;
+            }
+        });
+        return counts[0] == 0 ? 0 : counts[1] / (double) counts[0];
+    }
+
+    /**
+     * For each seat, the share of the games it went first in that it went on to win.
+     */
+    public double[] winRateByFirstSeat() throws IOException {
+        long[] started = new long[2];
+        long[] won = new long[2];
+        scan(record -> {
+            int first = record.getFirstSeat();
+            if (first >= 0) {
+                started[first]++;
+                if (record.getWinner() == first) {
+                    won[first]++;
+                }
+            }
+        });
+        return new double[] {
+                started[0] == 0 ? 0 : won[0] / (double) started[0],
+                started[1] == 0 ? 0 : won[1] / (double) started[1]
+        };
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            file.close();
+        }
+    }
+
+    /**
+     * Prints the queries for an archive file.
+     *
+     * Usage: GameArchive games.archive
+     */
+    public static void main(String[] args) throws IOException {
+        GameArchive archive = new GameArchive(new File(args.length > 0 ? args[0] : FILE_NAME));
+        try {
+            long start = System.nanoTime();
+            double[] averages = archive.averageScores();
+            double yahtzee = archive.yahtzeeRate();
+            double[] winRates = archive.winRateByFirstSeat();
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format(Locale.US, "%d games, 3 scans in %.2f s%n", archive.size(), seconds));
+            for (int c = 0; c < Category.COUNT; c++) {
+                sb.append(String.format(Locale.US, "  %-16s %6.2f%n", Category.of(c).displayName(), averages[c]));
+            }
+            sb.append(String.format(Locale.US, "Yahtzee scored in %.2f%% of games%n", 100 * yahtzee));
+            sb.append(String.format(Locale.US, "Going first, seat 1 wins %.2f%%, seat 2 wins %.2f%%%n",
+                    100 * winRates[0], 100 * winRates[1]));
+            System.out.print(sb);
+        } finally {
+            archive.close();
+        }
+    }
+}
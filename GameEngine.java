@@ -0,0 +1,609 @@
+package com.example.ccjava;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Turn flow of one two-player game, with no Android dependencies.
+ *
+ * The engine owns the dice, both players, round counting and the game log, and
+ * tracks where the current turn is with a TurnState. MainActivity drives it one
+ * step at a time from its dialogs and buttons; a game between two computer
+ * players can also be played straight through with playGame().
+ *
+ * A recorded engine keeps every call that changes the game in an InputLog;
+ * with the seed that drives its dice, that is enough to replay the game
+ * exactly. Public calls that are made up of other calls record only
+ * themselves, so each is replayed once.
+ */
+public class GameEngine {
+    // Log entries kept in memory, more than a game makes: 24 turns and 12 restored categories
+    private static final int LOG_CAPACITY = 64;
+
+    private final Player[] players;
+    private final CategoryBoard board;
+    private final RandomSource random;
+    private final Dice dice;
+
+    private Player currentPlayer;
+    private Player firstPlayer;
+    private TurnState state = TurnState.INITIAL_TOSS;
+    private int rollCount;
+    private int roundNumber = 1;
+    private final boolean[] selectedDice = new boolean[Constants.DICE_COUNT];
+    private int[] lastScoringDice;
+    private boolean scoredThisTurn;
+    private final TurnLog turnLog;
+    // Inputs of a recorded game, null when not recording
+    private InputLog inputLog;
+    // Autosave of completed turns, null when not journaling
+    private TurnJournal journal;
+
+    // Who filled each category and in which round, by category index
+    private final Player[] categoryOwner = new Player[Category.COUNT];
+    private final int[] categoryRound = new int[Category.COUNT];
+
+    public GameEngine(Player first, Player second, Random random) {
+        this(first, second, RandomSource.of(random));
+    }
+
+    public GameEngine(Player first, Player second, RandomSource random) {
+        if (first.getBoard() != second.getBoard()) {
+            throw new IllegalArgumentException("Players must share one category board");
+        }
+        this.players = new Player[] {first, second};
+        this.board = first.getBoard();
+        this.random = random;
+        this.dice = new Dice(random);
+        this.turnLog = new TurnLog(first.getName(), second.getName(), LOG_CAPACITY);
+    }
+
+    /**
+     * Game between two computer players on a fresh board.
+     */
+    public static GameEngine selfPlay(RandomSource random, ComputerPlayer.Mode first, ComputerPlayer.Mode second) {
+        CategoryBoard board = new CategoryBoard();
+        ComputerPlayer one = new ComputerPlayer("Computer 1", board);
+        ComputerPlayer two = new ComputerPlayer("Computer 2", board);
+        one.setMode(first);
+        two.setMode(second);
+        return new GameEngine(one, two, random);
+    }
+
+    /**
+     * Game whose dice are drawn from the seed and whose every input is kept, so it can be
+     * replayed with InputLog.replay().
+     */
+    public static GameEngine recorded(Player first, Player second, long seed) {
+        InputLog log = new InputLog(seed, RandomSource.Kind.XOROSHIRO, first, second);
+        GameEngine engine = new GameEngine(first, second, log.newRandom());
+        engine.inputLog = log;
+        return engine;
+    }
+
+    /**
+     * Records the inputs from here on; the engine must still be at the first-player toss
+     * and its dice must come from the log's seed.
+     */
+    public void setInputLog(InputLog log) {
+        this.inputLog = log;
+    }
+
+    /**
+     * Inputs of a recorded game, or null.
+     */
+    public InputLog getInputLog() {
+        return inputLog;
+    }
+
+    /**
+     * Appends every completed turn to the journal from here on.
+     */
+    public void setTurnJournal(TurnJournal journal) {
+        this.journal = journal;
+    }
+
+    public Player getPlayer(int seat) {
+        return players[seat];
+    }
+
+    public Player getCurrentPlayer() {
+        return currentPlayer;
+    }
+
+    public boolean isComputerTurn() {
+        return currentPlayer instanceof ComputerPlayer;
+    }
+
+    public Dice getDice() {
+        return dice;
+    }
+
+    public TurnState getState() {
+        return state;
+    }
+
+    public int getRollCount() {
+        return rollCount;
+    }
+
+    public int getRoundNumber() {
+        return roundNumber;
+    }
+
+    public String getGameLog() {
+        return turnLog.toString();
+    }
+
+    /**
+     * Structured log of the turns played and categories restored, for paging through.
+     */
+    public TurnLog getTurnLog() {
+        return turnLog;
+    }
+
+    /**
+     * Dice set aside by the current player: the human's selection, or the computer's
+     * choice from its last analysis.
+     */
+    public boolean[] getHeldDice() {
+        if (isComputerTurn() && rollCount > 0) {
+            return ((ComputerPlayer) currentPlayer).getSelectedDice();
+        }
+        return selectedDice;
+    }
+
+    // ----- First player -----
+
+    /**
+     * Settles who goes first from one die each. Returns false on a tie, which must be rolled again.
+     */
+    public boolean resolveFirstPlayer(int firstRoll, int secondRoll) {
+        if (inputLog != null) {
+            inputLog.addToss(firstRoll, secondRoll);
+        }
+        return settleFirstPlayer(firstRoll, secondRoll);
+    }
+
+    private boolean settleFirstPlayer(int firstRoll, int secondRoll) {
+        if (firstRoll == secondRoll) {
+            state = TurnState.INITIAL_TOSS;
+            return false;
+        }
+        begin(firstRoll > secondRoll ? players[0] : players[1]);
+        return true;
+    }
+
+    /**
+     * Rolls one die for each player until one is higher.
+     */
+    public void tossForFirstPlayer() {
+        if (inputLog != null) {
+            inputLog.add(InputLog.RANDOM_TOSS);
+        }
+        while (!settleFirstPlayer(random.nextInt(Constants.DIE_MAX_VALUE) + 1,
+                random.nextInt(Constants.DIE_MAX_VALUE) + 1)) {
+            // Tie, roll again
+        }
+    }
+
+    private void begin(Player first) {
+        firstPlayer = first;
+        currentPlayer = first;
+        startTurn();
+    }
+
+    // ----- Turn flow -----
+
+    private void startTurn() {
+        rollCount = 0;
+        scoredThisTurn = false;
+        lastScoringDice = null;
+        clearHeld();
+        if (isComputerTurn()) {
+            ((ComputerPlayer) currentPlayer).resetDiceSelections();
+        }
+        state = TurnState.FIRST_ROLL;
+    }
+
+    /**
+     * Rolls for the current player, all dice on the first roll and the dice not held
+     * afterwards. Returns the computer's analysis of the roll, or null on a human turn.
+     */
+    public RollAnalysis roll() {
+        if (inputLog != null) {
+            inputLog.add(InputLog.ROLL);
+        }
+        return rollDice();
+    }
+
+    private RollAnalysis rollDice() {
+        checkCanRoll();
+        if (rollCount == 0) {
+            dice.rollAll();
+        } else {
+            dice.roll(getHeldDice());
+        }
+        return afterRoll();
+    }
+
+    /**
+     * Counts dice values entered by hand as the current player's next roll.
+     */
+    public RollAnalysis setDice(int[] values) {
+        checkCanRoll();
+        if (inputLog != null) {
+            inputLog.addDice(values);
+        }
+        dice.setManualValues(values);
+        return afterRoll();
+    }
+
+    private void checkCanRoll() {
+        if (currentPlayer == null || rollCount >= Constants.MAX_ROLLS || state == TurnState.TURN_END) {
+            throw new IllegalStateException("No roll left in state " + state);
+        }
+    }
+
+    private RollAnalysis afterRoll() {
+        rollCount++;
+        if (rollCount == 1) {
+            clearHeld();
+            state = TurnState.SELECT_DICE_FIRST;
+        } else if (rollCount == 2) {
+            state = TurnState.SELECT_DICE_SECOND;
+        } else {
+            state = TurnState.SELECT_CATEGORY;
+        }
+        if (!isComputerTurn()) {
+            return null;
+        }
+        ComputerPlayer computer = (ComputerPlayer) currentPlayer;
+        computer.setRollCount(rollCount);
+        return computer.analyze(dice.getValues());
+    }
+
+    /**
+     * Sets a die aside or returns it to the pool. Only the human holds dice by hand,
+     * and only between rolls.
+     */
+    public boolean toggleHeld(int die) {
+        if (isComputerTurn() || rollCount == 0 || rollCount >= Constants.MAX_ROLLS) {
+            return false;
+        }
+        if (inputLog != null) {
+            inputLog.addToggle(die);
+        }
+        selectedDice[die] = !selectedDice[die];
+        return true;
+    }
+
+    public void clearSelections() {
+        if (inputLog != null) {
+            inputLog.add(InputLog.CLEAR);
+        }
+        clearHeld();
+    }
+
+    private void clearHeld() {
+        for (int i = 0; i < selectedDice.length; i++) {
+            selectedDice[i] = false;
+        }
+    }
+
+    /**
+     * Stops rolling; the turn moves on to choosing a category.
+     */
+    public void stand() {
+        if (rollCount == 0) {
+            throw new IllegalStateException("Roll before standing");
+        }
+        if (inputLog != null) {
+            inputLog.add(InputLog.STAND);
+        }
+        lastScoringDice = dice.getValues();
+        state = TurnState.SELECT_CATEGORY;
+    }
+
+    /**
+     * Open categories in which the current dice score points.
+     */
+    public List<String> getScoringCategories() {
+        int handIndex = DiceHand.index(dice.getHand());
+        List<String> scoring = new ArrayList<>();
+        for (String category : currentPlayer.getAvailableCategories()) {
+            if (ScoreTable.score(handIndex, Constants.getCategoryIndex(category)) > 0) {
+                scoring.add(category);
+            }
+        }
+        return scoring;
+    }
+
+    /**
+     * Fills the category for the current player with the current dice and returns the score.
+     */
+    public int scoreCategory(String category) {
+        if (inputLog != null) {
+            inputLog.addScore(Constants.getCategoryIndex(category));
+        }
+        return fillCurrent(category);
+    }
+
+    private int fillCurrent(String category) {
+        int score = ScoreTable.score(DiceHand.index(dice.getHand()), Constants.getCategoryIndex(category));
+        fill(currentPlayer, category, score);
+        // The computer may already have filled it itself, possibly with a scratch
+        return currentPlayer.getScore(category);
+    }
+
+    /**
+     * Ends the turn without filling a category, when nothing scores.
+     */
+    public void passTurn() {
+        if (inputLog != null) {
+            inputLog.add(InputLog.PASS);
+        }
+        pass();
+    }
+
+    private void pass() {
+        lastScoringDice = dice.getValues();
+        state = TurnState.TURN_END;
+    }
+
+    private void fill(Player player, String category, int score) {
+        player.fillCategory(category, score);
+        int index = Constants.getCategoryIndex(category);
+        categoryOwner[index] = player;
+        categoryRound[index] = roundNumber;
+        lastScoringDice = dice.getValues();
+        scoredThisTurn = true;
+        state = TurnState.TURN_END;
+    }
+
+    // ----- Computer turns -----
+
+    /**
+     * Whether the computer plays another roll before choosing a category.
+     */
+    public boolean computerWantsToRoll() {
+        return rollCount == 0
+                || (rollCount < Constants.MAX_ROLLS && ((ComputerPlayer) currentPlayer).shouldRollAgain());
+    }
+
+    /**
+     * Lets the computer choose a category for the current dice. Returns a message for
+     * the player, or null if the computer would rather roll again.
+     */
+    public String computerSelectCategory() {
+        if (inputLog != null) {
+            inputLog.add(InputLog.COMPUTER_CATEGORY);
+        }
+        return selectForComputer();
+    }
+
+    private String selectForComputer() {
+        ComputerPlayer computer = (ComputerPlayer) currentPlayer;
+        int hand = dice.getHand();
+        String name = computer.getName();
+
+        String category = computer.selectCategory(hand);
+
+        // If category is null, computer wants to roll again
+        if (category == null) {
+            if (rollCount < Constants.MAX_ROLLS) {
+                return null;
+            }
+            // On the last roll with no choice made, take the first category that scores
+            List<String> scoring = getScoringCategories();
+            if (scoring.isEmpty()) {
+                pass();
+                return name + " has no valid scoring categories. Turn passes to next player.";
+            }
+            category = scoring.get(0);
+        }
+
+        int score = fillCurrent(category);
+        String fix = computer.getLastFix() == DecisionTrace.FIX_THREE_OF_A_KIND ? " (Three of a Kind Fix)" : "";
+        return name + " selects " + category + " for " + score + " points" + fix;
+    }
+
+    /**
+     * Plays the current computer player's whole turn and ends it.
+     */
+    public void playComputerTurn() {
+        if (inputLog != null) {
+            inputLog.add(InputLog.COMPUTER_TURN);
+        }
+        while (true) {
+            rollDice();
+            if (rollCount < Constants.MAX_ROLLS && computerWantsToRoll()) {
+                continue;
+            }
+            if (selectForComputer() != null) {
+                break;
+            }
+        }
+        finishTurn();
+    }
+
+    /**
+     * Plays a whole game between two computer players from the first-player toss.
+     */
+    public void playGame() {
+        if (!(players[0] instanceof ComputerPlayer) || !(players[1] instanceof ComputerPlayer)) {
+            throw new IllegalStateException("Only a game between computer players can play itself");
+        }
+        tossForFirstPlayer();
+        while (!isGameOver()) {
+            playComputerTurn();
+        }
+    }
+
+    // ----- Turn end -----
+
+    /**
+     * Logs the finished turn and, unless the game is over, hands the dice to the other player.
+     */
+    public void endTurn() {
+        if (inputLog != null) {
+            inputLog.add(InputLog.END_TURN);
+        }
+        finishTurn();
+    }
+
+    private void finishTurn() {
+        int seat = seatOf(currentPlayer);
+        int round = roundNumber;
+        int category = scoredThisTurn ? Constants.getCategoryIndex(currentPlayer.getLastCategory()) : -1;
+        int score = scoredThisTurn ? currentPlayer.getLastScore() : 0;
+        turnLog.addTurn(round, seat, lastScoringDice, category, score);
+        int[] turnDice = lastScoringDice != null ? lastScoringDice : dice.getValues();
+        if (isGameOver()) {
+            state = TurnState.TURN_END;
+        } else {
+            switchPlayers();
+            startTurn();
+        }
+        if (journal != null) {
+            journal.append(this, seat, category, score, round, turnDice);
+        }
+    }
+
+    private void switchPlayers() {
+        currentPlayer = currentPlayer == players[0] ? players[1] : players[0];
+        // A new round starts each time play comes back to whoever went first
+        if (currentPlayer == firstPlayer) {
+            roundNumber++;
+        }
+    }
+
+    public boolean isGameOver() {
+        return board.isFull();
+    }
+
+    /**
+     * Player with the higher total, or null for a tie.
+     */
+    public Player getWinner() {
+        int first = players[0].getTotalScore();
+        int second = players[1].getTotalScore();
+        return first > second ? players[0] : second > first ? players[1] : null;
+    }
+
+    // ----- Saved games -----
+
+    /**
+     * Player who filled the category, or null if it is still open.
+     */
+    public Player getCategoryOwner(int category) {
+        return categoryOwner[category];
+    }
+
+    public int getCategoryRound(int category) {
+        return categoryRound[category];
+    }
+
+    /**
+     * Puts back a category filled in a saved game.
+     */
+    public void restoreCategory(String category, int seat, int score, int round) {
+        int index = Constants.getCategoryIndex(category);
+        if (inputLog != null) {
+            inputLog.addRestore(index, seat, score, round);
+        }
+        Player player = players[seat];
+        player.fillCategory(category, score);
+        categoryOwner[index] = player;
+        categoryRound[index] = round;
+        turnLog.addRestored(round, seat, index, score);
+    }
+
+    /**
+     * Resumes a saved game in the given round. The player behind on points goes first;
+     * on a tie this returns null and the first player is settled by a toss.
+     */
+    public Player resume(int round) {
+        if (inputLog != null) {
+            inputLog.addResume(round);
+        }
+        roundNumber = round;
+        int first = players[0].getTotalScore();
+        int second = players[1].getTotalScore();
+        if (first == second) {
+            state = TurnState.INITIAL_TOSS;
+            return null;
+        }
+        begin(first < second ? players[0] : players[1]);
+        return currentPlayer;
+    }
+
+    /**
+     * Puts back a turn saved part way through: the round, who went first and whose turn
+     * it is (seats, or -1 before the first-player toss), the dice, the dice held and the
+     * roll count. A computer player works out its held dice again from the dice.
+     */
+    public void restoreTurn(int round, int firstSeat, int currentSeat, int[] values, int heldMask, int rollCount,
+                            TurnState turnState) {
+        if (inputLog != null) {
+            inputLog.addRestoreTurn(round, firstSeat, currentSeat, values, heldMask, rollCount, turnState);
+        }
+        roundNumber = round;
+        if (firstSeat < 0 || currentSeat < 0) {
+            state = TurnState.INITIAL_TOSS;
+            return;
+        }
+        firstPlayer = players[firstSeat];
+        currentPlayer = players[currentSeat];
+        startTurn();
+        dice.setManualValues(values);
+        if (rollCount == 0) {
+            return;
+        }
+        this.rollCount = rollCount;
+        state = turnState;
+        if (turnState == TurnState.SELECT_CATEGORY || turnState == TurnState.TURN_END) {
+            lastScoringDice = dice.getValues();
+        }
+        if (isComputerTurn()) {
+            ComputerPlayer computer = (ComputerPlayer) currentPlayer;
+            computer.setRollCount(rollCount);
+            computer.analyze(dice.getValues());
+        } else {
+            for (int i = 0; i < selectedDice.length; i++) {
+                selectedDice[i] = (heldMask & (1 << i)) != 0;
+            }
+        }
+    }
+
+    /**
+     * Seat of the player, or -1 for null.
+     */
+    public int seatOf(Player player) {
+        return player == null ? -1 : player == players[0] ? 0 : 1;
+    }
+
+    public Player getFirstPlayer() {
+        return firstPlayer;
+    }
+
+    /**
+     * Hash of everything a game leaves behind: the dice, each category's score, owner
+     * and round, where the turn stands and the game log. Two runs of the same game
+     * agree on it exactly.
+     */
+    public long fingerprint() {
+        long h = 0xCBF29CE484222325L;
+        for (int c = 0; c < Category.COUNT; c++) {
+            Player owner = categoryOwner[c];
+            int entry = owner == null ? 0
+                    : (owner == players[0] ? 1 : 2) | owner.getScore(Category.of(c)) << 2 | categoryRound[c] << 12;
+            h = (h ^ entry) * 0x100000001B3L;
+        }
+        h = (h ^ dice.getHand()) * 0x100000001B3L;
+        h = (h ^ (rollCount | roundNumber << 4 | state.ordinal() << 12
+                | (currentPlayer == players[1] ? 1 << 20 : 0))) * 0x100000001B3L;
+        return (h ^ turnLog.hash()) * 0x100000001B3L;
+    }
+}
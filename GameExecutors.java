@@ -0,0 +1,121 @@
+package com.example.ccjava;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Background threads for the activity, so file I/O and computer decisions
+ * never hold up a frame.
+ *
+ * Game I/O runs on one thread, so saves, loads and autosave writes happen in
+ * the order they were asked for. Computer planning and help advice run on
+ * another single thread, working only from copies of the game state; the
+ * engine itself is changed on the main thread alone. Results are posted back
+ * to the main looper. After shutdown(),
+ * when the activity is destroyed, queued computer work is dropped and no result
+ * is delivered; I/O already queued still finishes so no save is left half
+ * written.
+ */
+public final class GameExecutors {
+    /**
+     * Receives a result on the main thread.
+     */
+    public interface Callback<T> {
+        void onResult(T result);
+    }
+
+    private final ExecutorService io = Executors.newSingleThreadExecutor(named("game-io"));
+    private final ExecutorService compute = Executors.newSingleThreadExecutor(named("game-compute"));
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private volatile boolean shutDown;
+
+    /**
+     * Executor for I/O whose outcome nobody waits for, such as autosave writes.
+     */
+    public Executor ioExecutor() {
+        return io;
+    }
+
+    /**
+     * Runs file work on the I/O thread; onResult or onError is called on the main thread.
+     */
+    public <T> void io(Callable<T> task, Callback<T> onResult, Callback<Exception> onError) {
+        submit(io, task, onResult, onError);
+    }
+
+    /**
+     * Runs planning or advice on the compute thread; onResult is called on the main thread.
+     * A task that throws is a bug, so it is rethrown on the main thread.
+     */
+    public <T> void compute(Callable<T> task, Callback<T> onResult) {
+        submit(compute, task, onResult, null);
+    }
+
+    /**
+     * Runs on the main thread after the delay, unless shut down by then.
+     */
+    public void postDelayed(Runnable action, long delayMillis) {
+        mainHandler.postDelayed(() -> {
+            if (!shutDown) {
+                action.run();
+            }
+        }, delayMillis);
+    }
+
+    private <T> void submit(ExecutorService executor, Callable<T> task, Callback<T> onResult,
+                            Callback<Exception> onError) {
+        if (shutDown) {
+            return;
+        }
+        executor.execute(() -> {
+            if (shutDown && executor == compute) {
+                return;
+            }
+            T result;
+            try {
+                result = task.call();
+            } catch (Exception e) {
+                deliver(() -> {
+                    if (onError == null) {
+                        throw new IllegalStateException("Background task failed", e);
+                    }
+                    onError.onResult(e);
+                });
+                return;
+            }
+            deliver(() -> onResult.onResult(result));
+        });
+    }
+
+    private void deliver(Runnable action) {
+        mainHandler.post(() -> {
+            if (!shutDown) {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Stops delivering results and drops queued computer work; queued I/O still runs.
+     */
+    public void shutdown() {
+        shutDown = true;
+        mainHandler.removeCallbacksAndMessages(null);
+        compute.shutdownNow();
+        io.shutdown();
+    }
+
+    private static ThreadFactory named(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -10,106 +10,237 @@ import java.util.Comparator;
 
 public class Helper {
 
+    // Advice for the latest request, handed back if the same position is asked about again
+    private static Advice lastAdvice;
+
     public static String getAdvice(int[] diceValues, boolean[] selectedDice, int rollCount, 
                                   List<String> availableCategories, Map<String, Integer> scores) {
-        StringBuilder advice = new StringBuilder();
-        
-        // Calculate potential scores
-        Map<String, Integer> potentialScores = new HashMap<>();
-        for (String category : availableCategories) {
-            int score = calculateScore(category, diceValues);
-            potentialScores.put(category, score);
+        return advise(diceValues, selectedDice, rollCount, availableCategories).getText();
+    }
+
+    /**
+     * Works out what the player should do with this roll. The text is only built when
+     * asked for, and asking again about the same position returns the earlier advice.
+     */
+    public static synchronized Advice advise(int[] diceValues, boolean[] selectedDice, int rollCount,
+                                             List<String> availableCategories) {
+        int heldMask = 0;
+        for (int i = 0; i < diceValues.length; i++) {
+            if (selectedDice[i]) heldMask |= 1 << i;
         }
+        if (lastAdvice == null || !lastAdvice.matches(diceValues, heldMask, rollCount, availableCategories)) {
+            lastAdvice = new Advice(diceValues, heldMask, rollCount, availableCategories);
+        }
+        return lastAdvice;
+    }
 
-        advice.append("AVAILABLE CATEGORIES:\n");
-        for (String category : availableCategories) {
-            int score = potentialScores.get(category);
-            advice.append("- ").append(category).append(": ")
-                  .append("Current Score: ").append(score);
-            if (rollCount < 3) {
-                int maxPossible = getOptimalScore(category);
-                advice.append(", Potential: ").append(score).append("-").append(maxPossible);
+    /**
+     * The help offered for one roll: what each open category would score, the category
+     * to score on the final roll, or the strategy and dice to keep before it.
+     */
+    public static final class Advice {
+        private final int[] dice;
+        private final int heldMask;
+        private final int rollCount;
+        private final List<String> categories;
+        private final int[] scores;
+        // Final roll: the category to score, and the four-of-a-kind face when that overrides it
+        private String recommendedCategory;
+        private int recommendedScore;
+        private int fourValue;
+        private int numberCategoryScore;
+        // Earlier rolls: the strategy to pursue, the dice it keeps and the best-odds keep
+        private String bestStrategy;
+        private boolean[] diceToKeep;
+        private KeepOptimizer.Choice bestOdds;
+        private List<String> strategies;
+        private String text;
+
+        private Advice(int[] diceValues, int heldMask, int rollCount, List<String> availableCategories) {
+            this.dice = diceValues.clone();
+            this.heldMask = heldMask;
+            this.rollCount = rollCount;
+            this.categories = new ArrayList<>(availableCategories);
+
+            // Calculate potential scores
+            scores = new int[categories.size()];
+            Map<String, Integer> potentialScores = new HashMap<>();
+            for (int i = 0; i < scores.length; i++) {
+                scores[i] = calculateScore(categories.get(i), dice);
+                potentialScores.put(categories.get(i), scores[i]);
             }
-            advice.append("\n");
-        }
-        advice.append("\n");
 
-        // Current roll info
-        advice.append("Roll #").append(rollCount).append(" of 3\n");
-        advice.append("Current Dice: ");
-        for (int i = 0; i < diceValues.length; i++) {
-            if (selectedDice[i]) {
-                advice.append("[").append(diceValues[i]).append("] ");
+            if (rollCount == 3) {
+                // Check for Four of a Kind first
+                DiceFeatures features = DiceFeatures.of(dice);
+                int value = features.fourValue;
+
+                // Direct override for the Four of a Kind bug
+                if (value > 0 && categories.contains("Four of a Kind") &&
+                    categories.contains(getNumberCategory(value))) {
+                    int fourOfAKindScore = features.sum;
+                    int numberScore = value * features.count(value);
+
+                    // Force Four of a Kind if it scores higher
+                    if (fourOfAKindScore > numberScore) {
+                        fourValue = value;
+                        numberCategoryScore = numberScore;
+                        recommendedCategory = "Four of a Kind";
+                        recommendedScore = fourOfAKindScore;
+                        return;
+                    }
+                }
+
+                // Original logic - recommend best scoring option
+                recommendedCategory = findBestCategory(potentialScores);
+                if (recommendedCategory != null) {
+                    recommendedScore = potentialScores.get(recommendedCategory);
+                }
             } else {
-                advice.append(diceValues[i]).append(" ");
+                // For rolls 1 and 2, give clear dice-keeping advice
+                bestStrategy = determineBestStrategy(dice, categories, rollCount);
+                diceToKeep = recommendDiceToKeep(dice, bestStrategy);
+
+                // Exact keep for the best score this turn, over every subset of the dice
+                int availableMask = 0;
+                for (String category : categories) {
+                    int index = Constants.getCategoryIndex(category);
+                    if (index >= 0) availableMask |= 1 << index;
+                }
+                bestOdds = new KeepOptimizer(KeepOptimizer.bestScore(availableMask))
+                        .choose(dice, Constants.MAX_ROLLS - rollCount);
             }
         }
-        advice.append("\n\n");
 
-        // Strategy recommendation
-        advice.append("RECOMMENDED STRATEGIES:\n");
-        List<String> strategies = determineStrategyOptions(diceValues, availableCategories, rollCount);
-        for (String strategy : strategies) {
-            advice.append("- ").append(strategy).append("\n");
+        private boolean matches(int[] diceValues, int heldMask, int rollCount, List<String> availableCategories) {
+            return this.heldMask == heldMask && this.rollCount == rollCount
+                    && Arrays.equals(dice, diceValues) && categories.equals(availableCategories);
         }
-        advice.append("\n");
 
-        // Final recommendation
-        advice.append("RECOMMENDATION: ");
-        if (rollCount == 3) {
-            // Check for Four of a Kind first
-            boolean hasFourOfKind = false;
-            int fourValue = 0;
-            int[] counts = getCounts(diceValues);
-            
-            for (int i = 1; i <= 6; i++) {
-                if (counts[i] >= 4) {
-                    hasFourOfKind = true;
-                    fourValue = i;
-                    break;
+        public int getRollCount() {
+            return rollCount;
+        }
+
+        /**
+         * What the dice would score in the category, 0 when it is not open.
+         */
+        public int getScore(String category) {
+            int i = categories.indexOf(category);
+            return i < 0 ? 0 : scores[i];
+        }
+
+        /**
+         * Category to score on the final roll, or null before it.
+         */
+        public String getRecommendedCategory() {
+            return recommendedCategory;
+        }
+
+        public int getRecommendedScore() {
+            return recommendedScore;
+        }
+
+        /**
+         * Strategy to pursue with the rolls left, or null on the final roll.
+         */
+        public String getBestStrategy() {
+            return bestStrategy;
+        }
+
+        /**
+         * Whether the die should be kept for the next roll.
+         */
+        public boolean isKept(int die) {
+            return diceToKeep != null && diceToKeep[die];
+        }
+
+        /**
+         * Keep with the highest expected score this turn, or null on the final roll.
+         */
+        public KeepOptimizer.Choice getBestOdds() {
+            return bestOdds;
+        }
+
+        public List<String> getStrategies() {
+            if (strategies == null) {
+                strategies = determineStrategyOptions(dice, categories, rollCount);
+            }
+            return strategies;
+        }
+
+        public String getText() {
+            if (text == null) {
+                text = render();
+            }
+            return text;
+        }
+
+        @Override
+        public String toString() {
+            return getText();
+        }
+
+        private String render() {
+            StringBuilder advice = new StringBuilder();
+
+            advice.append("AVAILABLE CATEGORIES:\n");
+            for (int i = 0; i < scores.length; i++) {
+                String category = categories.get(i);
+                advice.append("- ").append(category).append(": ")
+                      .append("Current Score: ").append(scores[i]);
+                if (rollCount < 3) {
+                    int maxPossible = getOptimalScore(category);
+                    advice.append(", Potential: ").append(scores[i]).append("-").append(maxPossible);
                 }
+                advice.append("\n");
             }
-            
-            // Direct override for the Four of a Kind bug
-            if (hasFourOfKind && availableCategories.contains("Four of a Kind") && 
-                availableCategories.contains(getNumberCategory(fourValue))) {
-                
-                int fourOfAKindScore = sum(diceValues);
-                int numberCategoryScore = fourValue * counts[fourValue];
-                
-                // Force Four of a Kind if it scores higher
-                if (fourOfAKindScore > numberCategoryScore) {
-                    advice.append("Score Four of a Kind for ").append(fourOfAKindScore)
+            advice.append("\n");
+
+            // Current roll info
+            advice.append("Roll #").append(rollCount).append(" of 3\n");
+            advice.append("Current Dice: ");
+            for (int i = 0; i < dice.length; i++) {
+                if ((heldMask & (1 << i)) != 0) {
+                    advice.append("[").append(dice[i]).append("] ");
+                } else {
+                    advice.append(dice[i]).append(" ");
+                }
+            }
+            advice.append("\n\n");
+
+            // Strategy recommendation
+            advice.append("RECOMMENDED STRATEGIES:\n");
+            for (String strategy : getStrategies()) {
+                advice.append("- ").append(strategy).append("\n");
+            }
+            advice.append("\n");
+
+            // Final recommendation
+            advice.append("RECOMMENDATION: ");
+            if (rollCount == 3) {
+                if (fourValue > 0) {
+                    advice.append("Score Four of a Kind for ").append(recommendedScore)
                           .append(" points\n");
                     advice.append("WHY: You have four ").append(fourValue)
-                          .append("s which gives you ").append(fourOfAKindScore)
+                          .append("s which gives you ").append(recommendedScore)
                           .append(" points, higher than scoring in ").append(getNumberCategory(fourValue))
                           .append(" (").append(numberCategoryScore).append(" points).");
-                    return advice.toString();
+                } else if (recommendedCategory != null) {
+                    advice.append("Score ").append(recommendedCategory)
+                          .append(" for ").append(recommendedScore)
+                          .append(" points\n");
+                    advice.append("WHY: This gives you the highest possible score with your current dice.");
                 }
+                return advice.toString();
             }
-            
-            // Original logic - recommend best scoring option
-            String bestCategory = findBestCategory(potentialScores);
-            if (bestCategory != null) {
-                advice.append("Score ").append(bestCategory)
-                      .append(" for ").append(potentialScores.get(bestCategory))
-                      .append(" points\n");
-                advice.append("WHY: This gives you the highest possible score with your current dice.");
-            }
-        } else {
-            // For rolls 1 and 2, give clear dice-keeping advice
-            String bestStrategy = determineBestStrategy(diceValues, availableCategories, rollCount);
+
             advice.append("Pursue ").append(bestStrategy).append("\n");
-            
-            // Initialize diceToKeep array
-            boolean[] diceToKeep = recommendDiceToKeep(diceValues, bestStrategy);
-            
+
             advice.append("KEEP THESE DICE: ");
             boolean anyKept = false;
-            for (int i = 0; i < diceValues.length; i++) {
+            for (int i = 0; i < dice.length; i++) {
                 if (diceToKeep[i]) {
-                    advice.append(diceValues[i]).append(" ");
+                    advice.append(dice[i]).append(" ");
                     anyKept = true;
                 }
             }
@@ -117,12 +248,12 @@ public class Helper {
                 advice.append("none");
             }
             advice.append("\n");
-            
+
             advice.append("REROLL THESE DICE: ");
             boolean anyReroll = false;
-            for (int i = 0; i < diceValues.length; i++) {
+            for (int i = 0; i < dice.length; i++) {
                 if (!diceToKeep[i]) {
-                    advice.append(diceValues[i]).append(" ");
+                    advice.append(dice[i]).append(" ");
                     anyReroll = true;
                 }
             }
@@ -130,32 +261,31 @@ public class Helper {
                 advice.append("none");
             }
             advice.append("\n");
-            
+
+            advice.append("BEST ODDS KEEP: ");
+            if (bestOdds.keepMask == 0) {
+                advice.append("none ");
+            }
+            for (int i = 0; i < dice.length; i++) {
+                if ((bestOdds.keepMask & (1 << i)) != 0) {
+                    advice.append(dice[i]).append(" ");
+                }
+            }
+            advice.append(String.format("(averages %.1f points this turn)", bestOdds.expectedValue)).append("\n");
+
             // Simple explanation
-            advice.append("\nWHY: ").append(explainStrategy(bestStrategy, diceValues, diceToKeep, rollCount));
+            advice.append("\nWHY: ").append(explainStrategy(bestStrategy, dice, diceToKeep, rollCount));
+            return advice.toString();
         }
-
-        return advice.toString();
     }
 
     private static List<String> determineStrategyOptions(int[] dice, List<String> availableCategories, int rollCount) {
         List<String> strategies = new ArrayList<>();
+        DiceFeatures features = DiceFeatures.of(dice);
+        int hand = features.hand;
 
         // IMPROVED STRATEGY: Check for potential Large Straight with 1,3,4,5 pattern
-        boolean has1 = false, has3 = false, has4 = false, has5 = false;
-        int oneCount = 0;
-        
-        for (int d : dice) {
-            if (d == 1) {
-                has1 = true;
-                oneCount++;
-            }
-            if (d == 3) has3 = true;
-            if (d == 4) has4 = true;
-            if (d == 5) has5 = true;
-        }
-        
-        boolean has1345Pattern = has1 && has3 && has4 && has5;
+        boolean has1345Pattern = features.hasFaces(StraightTable.FACES_1345);
         
         // Add Large Straight strategy at the top of the list if we have 1,3,4,5 pattern
         if (has1345Pattern && availableCategories.contains("Large Straight")) {
@@ -164,34 +294,26 @@ public class Helper {
 
         // Check for Yahtzee potential
         if (availableCategories.contains("Yahtzee")) {
-            int[] counts = getCounts(dice);
             for (int i = 1; i <= 6; i++) {
-                if (counts[i] >= 3) {
+                if (DiceHand.count(hand, i) >= 3) {
                     strategies.add("Build Yahtzee with " + i + "s (50 points)");
                 }
             }
         }
 
         // Check for Large Straight potential
-        if (availableCategories.contains("Large Straight") && hasSequenceOfLength(dice, 4)) {
+        if (availableCategories.contains("Large Straight") && features.longestRun >= 4) {
             strategies.add("Complete Large Straight (40 points)");
         }
 
         // Check for Small Straight potential
-        if (availableCategories.contains("Small Straight") && hasSequenceOfLength(dice, 3)) {
+        if (availableCategories.contains("Small Straight") && features.longestRun >= 3) {
             strategies.add("Complete Small Straight (30 points)");
         }
 
         // Check for Full House potential
         if (availableCategories.contains("Full House")) {
-            int[] counts = getCounts(dice);
-            boolean hasThree = false;
-            boolean hasTwo = false;
-            for (int count : counts) {
-                if (count >= 3) hasThree = true;
-                else if (count >= 2) hasTwo = true;
-            }
-            if (hasThree || hasTwo) {
+            if (DiceHand.maxOfAKind(hand) >= 2) {
                 strategies.add("Complete Full House (25 points)");
             }
         }
@@ -200,7 +322,7 @@ public class Helper {
         for (String category : Arrays.asList("Sixes", "Fives", "Fours")) {
             if (availableCategories.contains(category)) {
                 int value = getCategoryNumber(category);
-                int count = getCounts(dice)[value];
+                int count = DiceHand.count(hand, value);
                 if (count >= 2) {
                     strategies.add("Collect " + category + " (" + (count * value) + " points)");
                 }
@@ -211,7 +333,7 @@ public class Helper {
         for (String category : Arrays.asList("Threes", "Twos", "Aces")) {
             if (availableCategories.contains(category)) {
                 int value = getCategoryNumber(category);
-                int count = getCounts(dice)[value];
+                int count = DiceHand.count(hand, value);
                 
                 // Only recommend low-value categories if:
                 // 1. We have a lot of those numbers (≥ 3 for 1s/2s, ≥ 4 for 3s)
@@ -229,12 +351,11 @@ public class Helper {
 
         // Default to highest frequency
         if (strategies.isEmpty()) {
-            int[] counts = getCounts(dice);
             int maxCount = 0;
             int bestValue = 6; // Prefer higher numbers if equal frequency
             for (int i = 6; i >= 1; i--) {
-                if (counts[i] > maxCount) {
-                    maxCount = counts[i];
+                if (DiceHand.count(hand, i) > maxCount) {
+                    maxCount = DiceHand.count(hand, i);
                     bestValue = i;
                 }
             }
@@ -246,345 +367,29 @@ public class Helper {
 
     private static double calculateExpectedValue(String category, int[] dice, int rollCount) {
         int currentScore = calculateScore(category, dice);
-        if (rollCount == 3) return currentScore;
+        int categoryIndex = Constants.getCategoryIndex(category);
+        if (rollCount == 3 || categoryIndex < 0) return currentScore;
 
-        int remainingRolls = 3 - rollCount;
-        int[] counts = getCounts(dice);
-        
-        switch (category) {
-            case "Yahtzee":
-                // Find the most common value
-                int maxCount = 0;
-                int maxValue = 0;
-                for (int i = 1; i <= 6; i++) {
-                    if (counts[i] > maxCount) {
-                        maxCount = counts[i];
-                        maxValue = i;
-                    }
-                }
-                
-                if (maxCount == 5) return 50; // Already have Yahtzee
-                if (maxCount == 0) return 0.01; // No dice yet, very unlikely
-                
-                // Calculate probability based on remaining dice needed and rolls
-                int neededDice = 5 - maxCount;
-                
-                // For each roll, we need to get the right value on all remaining dice
-                // Probability of getting the right value on one die is 1/6
-                // Formula: (1/6)^neededDice for a single roll
-                // For multiple rolls, we use a simplified approach
-                double singleRollProb = Math.pow(1.0/6.0, neededDice);
-                double probability = 0;
-                
-                // For 1 remaining roll
-                if (remainingRolls == 1) {
-                    probability = singleRollProb;
-                } 
-                // For 2 remaining rolls, we have multiple chances - simplified approximation
-                else {
-                    // We're not doing a full probability calculation here, but a reasonable approximation
-                    if (neededDice == 1) probability = 0.30; // ~30% for 1 die in 2 rolls
-                    else if (neededDice == 2) probability = 0.08; // ~8% for 2 dice in 2 rolls
-                    else probability = 0.01; // Very low for 3+ dice in 2 rolls
-                }
-                
-                return probability * 50; // Yahtzee score
-
-            case "Large Straight":
-                // Check how close we are to a Large Straight
-                if (isLargeStraight(dice)) return 40; // Already have it
-                
-                // Count how many unique values we have in the 1-5 and 2-6 ranges
-                int uniqueIn1to5 = 0;
-                int uniqueIn2to6 = 0;
-                
-                for (int i = 1; i <= 5; i++) {
-                    if (counts[i] > 0) uniqueIn1to5++;
-                }
-                for (int i = 2; i <= 6; i++) {
-                    if (counts[i] > 0) uniqueIn2to6++;
-                }
-                
-                int bestUniqueCount = Math.max(uniqueIn1to5, uniqueIn2to6);
-                
-                // Calculate probability based on missing values and remaining rolls
-                int missingValues = 5 - bestUniqueCount;
-                if (missingValues == 0) return 40; // Should already be caught above, but just in case
-                
-                // Similar approach to Yahtzee but for straight combinations
-                if (missingValues == 1) {
-                    if (remainingRolls == 1) probability = 0.167; // 1/6 for the specific number
-                    else probability = 0.30; // ~30% chance with 2 rolls
-                } else if (missingValues == 2) {
-                    if (remainingRolls == 1) probability = 0.028; // (1/6)^2
-                    else probability = 0.08; // ~8% with 2 rolls
-                } else {
-                    probability = 0.01; // Very unlikely with 3+ missing
-                }
-                
-                return probability * 40;
-
-            case "Small Straight":
-                if (isSmallStraight(dice)) return 30; // Already have it
-                
-                // Similar to Large Straight but easier to complete
-                // Check for 3-value sequences (1-2-3, 2-3-4, 3-4-5, 4-5-6)
-                boolean has123 = counts[1] > 0 && counts[2] > 0 && counts[3] > 0;
-                boolean has234 = counts[2] > 0 && counts[3] > 0 && counts[4] > 0;
-                boolean has345 = counts[3] > 0 && counts[4] > 0 && counts[5] > 0;
-                boolean has456 = counts[4] > 0 && counts[5] > 0 && counts[6] > 0;
-                
-                // If we have a 3-value sequence, we only need 1 more specific value
-                if (has123 || has234 || has345 || has456) {
-                    if (remainingRolls == 1) probability = 0.167; // 1/6 for the specific number
-                    else probability = 0.30; // ~30% with 2 rolls
-                } 
-                // If we have a 2-value sequence in the right position, we need 2 specific values
-                else if ((counts[1] > 0 && counts[2] > 0) || 
-                         (counts[2] > 0 && counts[3] > 0) || 
-                         (counts[3] > 0 && counts[4] > 0) || 
-                         (counts[4] > 0 && counts[5] > 0) || 
-                         (counts[5] > 0 && counts[6] > 0)) {
-                    if (remainingRolls == 1) probability = 0.028; // (1/6)^2
-                    else probability = 0.08; // ~8% with 2 rolls
-                } else {
-                    probability = 0.01; // Very unlikely to complete from scratch
-                }
-                
-                return probability * 30;
-
-            case "Full House":
-                if (isFullHouse(dice)) return 25; // Already have it
-                
-                // Check if we have a Three of a Kind
-                boolean hasThreeOfKind = false;
-                int threeOfKindValue = 0;
-                
-                // Check if we have a Pair
-                boolean hasPair = false;
-                int pairValue = 0;
-                
-                for (int i = 1; i <= 6; i++) {
-                    if (counts[i] >= 3) {
-                        hasThreeOfKind = true;
-                        threeOfKindValue = i;
-                    } else if (counts[i] >= 2) {
-                        hasPair = true;
-                        pairValue = i;
-                    }
-                }
-                
-                // Calculate probability based on what we have and what we need
-                if (hasThreeOfKind && hasPair) {
-                    return 25; // Already have Full House
-                } else if (hasThreeOfKind) {
-                    // Need a pair of any other value
-                    if (remainingRolls == 1) probability = 0.15; // ~15% chance to get a pair in 1 roll
-                    else probability = 0.40; // ~40% with 2 rolls
-                } else if (hasPair) {
-                    // Need another pair or to convert the pair to three of a kind
-                    if (remainingRolls == 1) probability = 0.10; // ~10% chance
-                    else probability = 0.25; // ~25% with 2 rolls
-                } else {
-                    // Starting from scratch - need both a three of a kind and a pair
-                    probability = 0.05; // Very low probability
-                }
-                
-                return probability * 25;
-
-            case "Four of a Kind":
-                if (hasCount(dice, 4)) return sum(dice); // Already have it
-                
-                // Find the highest count and that value
-                maxCount = 0;
-                maxValue = 0;
-                for (int i = 1; i <= 6; i++) {
-                    if (counts[i] > maxCount) {
-                        maxCount = counts[i];
-                        maxValue = i;
-                    }
-                }
-                
-                int expectedScore = 0;
-                
-                // Calculate probability based on current count
-                if (maxCount == 3) {
-                    // Need just one more die to match
-                    if (remainingRolls == 1) probability = 0.167; // 1/6 for a specific value
-                    else probability = 0.30; // ~30% with 2 rolls
-                    expectedScore = maxValue * 4 + (5 - 4) * 3; // Approximation of total score
-                } else if (maxCount == 2) {
-                    // Need 2 more dice to match
-                    if (remainingRolls == 1) probability = 0.028; // (1/6)^2
-                    else probability = 0.08; // ~8% with 2 rolls
-                    expectedScore = maxValue * 4 + (5 - 4) * 3; // Approximation of total score
-                } else {
-                    // Very unlikely to get Four of a Kind from scratch
-                    probability = 0.01;
-                    expectedScore = 6 * 4 + 2; // Approximation using sixes (highest value)
-                }
-                
-                return probability * expectedScore;
-
-            case "Three of a Kind":
-                if (hasCount(dice, 3)) return sum(dice); // Already have it
-                
-                // Similar logic to Four of a Kind
-                maxCount = 0;
-                maxValue = 0;
-                for (int i = 1; i <= 6; i++) {
-                    if (counts[i] > maxCount) {
-                        maxCount = counts[i];
-                        maxValue = i;
-                    }
-                }
-                
-                expectedScore = 0;
-                
-                if (maxCount == 2) {
-                    // Need just one more die to match
-                    if (remainingRolls == 1) probability = 0.167; // 1/6 for a specific value
-                    else probability = 0.30; // ~30% with 2 rolls
-                    expectedScore = maxValue * 3 + (5 - 3) * 3; // Approximation of total score
-                } else if (maxCount == 1) {
-                    // Need 2 more dice to match
-                    if (remainingRolls == 1) probability = 0.028; // (1/6)^2
-                    else probability = 0.08; // ~8% with 2 rolls
-                    expectedScore = maxValue * 3 + (5 - 3) * 3; // Approximation of total score
-                } else {
-                    // Starting from scratch
-                    probability = 0.05;
-                    expectedScore = 6 * 3 + 4; // Approximation using sixes (highest value)
-                }
-                
-                return probability * expectedScore;
-
-            default: 
-                // Upper section categories (Aces through Sixes)
-                int targetNumber = getCategoryNumber(category);
-                if (targetNumber > 0) {
-                    int currentCount = counts[targetNumber];
-                    double expectedAdditional = 0;
-                    
-                    // Calculate expected additional dice of this value
-                    // Probability of rolling the target number is 1/6 per die
-                    double probPerDie = 1.0/6.0;
-                    
-                    // On each roll, we have (5 - currentCount) dice that could potentially be the target number
-                    // Each has a 1/6 chance
-                    int remainingDice = 5 - currentCount;
-                    
-                    if (remainingRolls == 1) {
-                        expectedAdditional = remainingDice * probPerDie;
-                    } else {
-                        // For 2 rolls, we use a simplified model
-                        // First roll expected value
-                        double firstRollExpected = remainingDice * probPerDie;
-                        // After first roll, we'd have approximately (remainingDice - firstRollExpected) dice left
-                        double secondRollRemaining = remainingDice - firstRollExpected;
-                        double secondRollExpected = secondRollRemaining * probPerDie;
-                        expectedAdditional = firstRollExpected + secondRollExpected;
-                    }
-                    
-                    // Calculate expected score
-                    return (currentCount + expectedAdditional) * targetNumber;
-                }
-        }
-        
-        return currentScore;
+        // Exact best expected score when every remaining reroll chases this category
+        return RerollOdds.expectedScore(DiceHand.of(dice), categoryIndex, 3 - rollCount);
     }
 
-    private static int getLongestSequence(int[] dice) {
-        // First mark which values are present
-        boolean[] present = new boolean[7];
-        for (int value : dice) present[value] = true;
-        
-        // Check for specific sequences (1-5 and 2-6 for large straights)
-        if ((present[1] && present[2] && present[3] && present[4] && present[5]) ||
-            (present[2] && present[3] && present[4] && present[5] && present[6])) {
-            return 5;
-        }
-        
-        // Check for small straight patterns
-        if ((present[1] && present[2] && present[3] && present[4]) ||
-            (present[2] && present[3] && present[4] && present[5]) ||
-            (present[3] && present[4] && present[5] && present[6])) {
-            return 4;
-        }
-        
-        // Check for 3-value sequences
-        if ((present[1] && present[2] && present[3]) ||
-            (present[2] && present[3] && present[4]) ||
-            (present[3] && present[4] && present[5]) ||
-            (present[4] && present[5] && present[6])) {
-            return 3;
-        }
-        
-        // Check for 2-value sequences
-        if ((present[1] && present[2]) ||
-            (present[2] && present[3]) ||
-            (present[3] && present[4]) ||
-            (present[4] && present[5]) ||
-            (present[5] && present[6])) {
-            return 2;
-        }
-        
-        // If we don't find any sequences, return the length of the longest consecutive run
-        int maxSequence = 0;
-        int currentSequence = 0;
-        for (int i = 1; i <= 6; i++) {
-            if (present[i]) {
-                currentSequence++;
-                maxSequence = Math.max(maxSequence, currentSequence);
-            } else {
-                currentSequence = 0;
-            }
-        }
-        return maxSequence;
-    }
-
-    private static int calculateImprovementProbability(int currentCount, int rollCount) {
-        int remainingRolls = 3 - rollCount;
-        if (remainingRolls == 0) return 0;
-
-        // Simplified probability calculation
-        return (int)((5 - currentCount) * 20 * remainingRolls);
-    }
-
-    private static int calculateStraightCompletionProbability(int[] dice, int targetLength, int rollCount) {
-        int remainingRolls = 3 - rollCount;
-        if (remainingRolls == 0) return 0;
-
-        // Simplified probability calculation
-        int missingNumbers = targetLength - countConsecutive(dice);
-        return (int)((6 - missingNumbers) * 15 * remainingRolls);
-    }
-
-    private static int countConsecutive(int[] dice) {
-        boolean[] present = new boolean[7];
-        for (int value : dice) present[value] = true;
-
-        int maxConsecutive = 0;
-        int currentConsecutive = 0;
-        for (int i = 1; i <= 6; i++) {
-            if (present[i]) {
-                currentConsecutive++;
-                maxConsecutive = Math.max(maxConsecutive, currentConsecutive);
-            } else {
-                currentConsecutive = 0;
-            }
-        }
-        return maxConsecutive;
+    // Exact chance, in percent, of finishing the turn with a score in the category
+    private static double calculateCompletionProbability(int[] dice, String category, int rollCount) {
+        int categoryIndex = Constants.getCategoryIndex(category);
+        if (categoryIndex < 0) return 0;
+        return RerollOdds.categoryProbability(DiceHand.of(dice), categoryIndex, 3 - rollCount) * 100;
     }
 
     private static String assessRisk(int[] dice, String strategy, int rollCount) {
-        int[] counts = getCounts(dice);
+        DiceFeatures features = DiceFeatures.of(dice);
+        int hand = features.hand;
         int remainingRolls = 3 - rollCount;
         StringBuilder assessment = new StringBuilder();
 
         if (strategy.startsWith("Build Yahtzee")) {
             int value = Integer.parseInt(strategy.split(" ")[3].replace("s", ""));
-            int currentCount = counts[value];
+            int currentCount = DiceHand.count(hand, value);
             int needed = 5 - currentCount;
             
             if (needed <= remainingRolls) {
@@ -592,7 +397,7 @@ public class Helper {
                          .append(" more ").append(value).append("s in ")
                          .append(remainingRolls).append(" rolls. ");
                 assessment.append("Success chance: ").append(String.format("%.1f%%", 
-                    remainingRolls * (1.0/6.0) * 100)).append(" per die. ");
+                    calculateCompletionProbability(dice, "Yahtzee", rollCount))).append(". ");
                 assessment.append("High reward (50 points) justifies the risk.");
             } else {
                 assessment.append("Very High risk: Need ").append(needed)
@@ -602,23 +407,23 @@ public class Helper {
             }
         } 
         else if (strategy.contains("Large Straight")) {
-            int sequenceLength = getLongestSequence(dice);
+            int sequenceLength = features.longestRun;
             int needed = 5 - sequenceLength;
-            double probability = remainingRolls * (needed <= 1 ? 0.167 : 0.033);
+            double probability = calculateCompletionProbability(dice, "Large Straight", rollCount);
             
             assessment.append(needed <= 1 ? "Medium risk: " : "High risk: ");
             assessment.append("Need ").append(needed).append(" more numbers for Large Straight. ");
-            assessment.append("Success chance: ").append(String.format("%.1f%%", probability * 100)).append(". ");
+            assessment.append("Success chance: ").append(String.format("%.1f%%", probability)).append(". ");
             assessment.append("Worth pursuing for 40 points if no safer high-scoring options exist.");
         }
         else if (strategy.contains("Small Straight")) {
-            int sequenceLength = getLongestSequence(dice);
+            int sequenceLength = features.longestRun;
             int needed = 4 - sequenceLength;
-            double probability = remainingRolls * (needed <= 1 ? 0.33 : 0.167);
+            double probability = calculateCompletionProbability(dice, "Small Straight", rollCount);
             
             assessment.append(needed <= 1 ? "Low-Medium risk: " : "Medium risk: ");
             assessment.append("Need ").append(needed).append(" more numbers for Small Straight. ");
-            assessment.append("Success chance: ").append(String.format("%.1f%%", probability * 100)).append(". ");
+            assessment.append("Success chance: ").append(String.format("%.1f%%", probability)).append(". ");
             assessment.append("Good balance of risk vs. reward for 30 points.");
         }
         else if (strategy.contains("Full House")) {
@@ -628,10 +433,10 @@ public class Helper {
             int pairValue = -1;
             
             for (int i = 1; i <= 6; i++) {
-                if (counts[i] >= 3) {
+                if (DiceHand.count(hand, i) >= 3) {
                     hasThree = true;
                     threeValue = i;
-                } else if (counts[i] >= 2) {
+                } else if (DiceHand.count(hand, i) >= 2) {
                     hasTwo = true;
                     pairValue = i;
                 }
@@ -643,12 +448,12 @@ public class Helper {
                 assessment.append("Medium risk: Have three ").append(threeValue)
                          .append("s, need a pair in ").append(remainingRolls)
                          .append(" rolls. Success chance: ")
-                         .append(String.format("%.1f%%", remainingRolls * 0.33 * 100)).append(".");
+                         .append(String.format("%.1f%%", calculateCompletionProbability(dice, "Full House", rollCount))).append(".");
             } else if (hasTwo) {
                 assessment.append("Medium-High risk: Have pair of ").append(pairValue)
                          .append("s, need three of a kind in ").append(remainingRolls)
                          .append(" rolls. Success chance: ")
-                         .append(String.format("%.1f%%", remainingRolls * 0.167 * 100)).append(".");
+                         .append(String.format("%.1f%%", calculateCompletionProbability(dice, "Full House", rollCount))).append(".");
             } else {
                 assessment.append("High risk: Need both three of a kind and pair. ");
                 assessment.append("Consider alternative strategies.");
@@ -661,9 +466,9 @@ public class Helper {
                 String numberStr = parts[1].replace("s", "");
                 try {
                     int targetNumber = Integer.parseInt(numberStr);
-                    int currentCount = counts[targetNumber];
-                    double expectedAdditional = remainingRolls * (5 - currentCount) * (1.0/6.0);
-                    int expectedTotal = currentCount + (int)Math.round(expectedAdditional);
+                    int currentCount = DiceHand.count(hand, targetNumber);
+                    double expectedScore = calculateExpectedValue(getNumberCategory(targetNumber), dice, rollCount);
+                    int expectedTotal = (int) Math.round(expectedScore / targetNumber);
                     
                     assessment.append("Low risk: Currently have ").append(currentCount)
                              .append(" ").append(targetNumber).append("s. ");
@@ -680,38 +485,28 @@ public class Helper {
     }
 
     private static String determineBestStrategy(int[] dice, List<String> availableCategories, int rollCount) {
+        DiceFeatures features = DiceFeatures.of(dice);
+
         // Check for 1,3,4,5 pattern and prioritize Large Straight
-        boolean has1 = false, has3 = false, has4 = false, has5 = false;
-        int oneCount = 0;
-        
-        for (int d : dice) {
-            if (d == 1) {
-                has1 = true;
-                oneCount++;
-            }
-            if (d == 3) has3 = true;
-            if (d == 4) has4 = true;
-            if (d == 5) has5 = true;
-        }
-        
-        boolean has1345 = has1 && has3 && has4 && has5;
-        
-        if (has1345 && availableCategories.contains("Large Straight")) {
+        if (features.hasFaces(StraightTable.FACES_1345) && availableCategories.contains("Large Straight")) {
             return "Complete Large Straight";
         }
         
         // First, check if we have 4 of a kind - this should take precedence over most other strategies
-        int[] counts = getCounts(dice);
-        for (int i = 1; i <= 6; i++) {
-            if (counts[i] >= 4) {
-                // Only recommend Yahtzee if the category is still available
-                if (availableCategories.contains("Yahtzee")) {
-                    System.out.println("STRATEGY: Found 4 " + i + "s - recommending Yahtzee attempt");
-                    return "Build Yahtzee with " + i + "s";
-                } else {
-                    System.out.println("STRATEGY: Found 4 " + i + "s but Yahtzee category is filled - finding alternative");
-                    // Continue to other strategies instead of immediately recommending Yahtzee
+        int hand = features.hand;
+        int fourValue = features.fourValue;
+        if (fourValue > 0) {
+            // Only recommend Yahtzee if the category is still available
+            if (availableCategories.contains("Yahtzee")) {
+                if (DebugLog.DEBUG) {
+                    DebugLog.debug("STRATEGY: Found 4 " + fourValue + "s - recommending Yahtzee attempt");
                 }
+                return "Build Yahtzee with " + fourValue + "s";
+            } else {
+                if (DebugLog.DEBUG) {
+                    DebugLog.debug("STRATEGY: Found 4 " + fourValue + "s but Yahtzee category is filled - finding alternative");
+                }
+                // Continue to other strategies instead of immediately recommending Yahtzee
             }
         }
         
@@ -722,15 +517,8 @@ public class Helper {
         }
         
         // SPECIAL CASE: Check for 5 of a kind and prioritize number category if it's higher scoring
-        boolean hasFiveOfAKind = false;
-        int fiveOfAKindValue = 0;
-        for (int i = 1; i <= 6; i++) {
-            if (counts[i] == 5) {
-                hasFiveOfAKind = true;
-                fiveOfAKindValue = i;
-                break;
-            }
-        }
+        boolean hasFiveOfAKind = features.maxOfAKind == 5;
+        int fiveOfAKindValue = hasFiveOfAKind ? fourValue : 0;
         
         if (hasFiveOfAKind) {
             String numberCategory = getNumberCategory(fiveOfAKindValue);
@@ -749,16 +537,16 @@ public class Helper {
         }
         
         // Check for guaranteed high scores first
-        if (isYahtzee(dice) && availableCategories.contains("Yahtzee")) {
+        if (hasFiveOfAKind && availableCategories.contains("Yahtzee")) {
             return "Build Yahtzee";
         }
-        if (isLargeStraight(dice) && availableCategories.contains("Large Straight")) {
+        if (features.longestRun == 5 && availableCategories.contains("Large Straight")) {
             return "Complete Large Straight";
         }
-        if (isSmallStraight(dice) && availableCategories.contains("Small Straight")) {
+        if (features.longestRun >= 4 && availableCategories.contains("Small Straight")) {
             return "Complete Small Straight";
         }
-        if (isFullHouse(dice) && availableCategories.contains("Full House")) {
+        if (DiceHand.isFullHouse(hand) && availableCategories.contains("Full House")) {
             return "Complete Full House";
         }
         
@@ -767,7 +555,7 @@ public class Helper {
         // Near Yahtzee (3 of a kind)
         if (availableCategories.contains("Yahtzee")) {
             for (int i = 1; i <= 6; i++) {
-                if (counts[i] >= 3) {
+                if (DiceHand.count(hand, i) >= 3) {
                     return "Build Yahtzee with " + i + "s";
                 }
             }
@@ -781,9 +569,9 @@ public class Helper {
             int pairValue2 = 0;
             
             for (int i = 1; i <= 6; i++) {
-                if (counts[i] >= 3) {
+                if (DiceHand.count(hand, i) >= 3) {
                     hasThreeOfKind = true;
-                } else if (counts[i] >= 2) {
+                } else if (DiceHand.count(hand, i) >= 2) {
                     if (pairValue1 == 0) {
                         pairValue1 = i;
                     } else {
@@ -800,14 +588,14 @@ public class Helper {
         }
         
         // Near Large Straight (4 sequential)
-        if (availableCategories.contains("Large Straight") && hasSequenceOfLength(dice, 4)) {
+        if (availableCategories.contains("Large Straight") && features.longestRun >= 4) {
             if (expectedValues.get("Large Straight") >= 20) { // Only if decent probability
                 return "Complete Large Straight";
             }
         }
         
         // Near Small Straight (3 sequential)
-        if (availableCategories.contains("Small Straight") && hasSequenceOfLength(dice, 3)) {
+        if (availableCategories.contains("Small Straight") && features.longestRun >= 3) {
             if (expectedValues.get("Small Straight") >= 15) { // Only if decent probability
                 return "Complete Small Straight";
             }
@@ -839,7 +627,7 @@ public class Helper {
             if (availableCategories.contains(category)) {
                 double expected = expectedValues.get(category);
                 int value = getCategoryNumber(category);
-                int count = counts[value];
+                int count = DiceHand.count(hand, value);
                 
                 // Apply a penalty to low-value categories unless we have many of them
                 // or few categories are left (implying late in the game)
@@ -883,8 +671,8 @@ public class Helper {
         int maxCount = 0;
         int bestValue = 6; // Prefer higher numbers if equal frequency
         for (int i = 6; i >= 1; i--) {
-            if (counts[i] > maxCount) {
-                maxCount = counts[i];
+            if (DiceHand.count(hand, i) > maxCount) {
+                maxCount = DiceHand.count(hand, i);
                 bestValue = i;
             }
         }
@@ -902,9 +690,9 @@ public class Helper {
         StringBuilder explanation = new StringBuilder();
         
         // Add special explanation for 4 of a kind
-        int[] counts = getCounts(dice);
+        int hand = DiceHand.of(dice);
         for (int i = 1; i <= 6; i++) {
-            if (counts[i] >= 4) {
+            if (DiceHand.count(hand, i) >= 4) {
                 explanation.append("You have FOUR ").append(i).append("s! ")
                           .append("Even though ").append(i).append("s are ");
                 
@@ -1029,13 +817,17 @@ public class Helper {
                         
                         // If the conflict category scores higher, print debug info
                         if (conflictScore > upperScore) {
-                            System.out.println("PRIORITY CHECK: " + conflictCategory + " (" + conflictScore + 
+                            if (DebugLog.DEBUG) {
+                                DebugLog.debug("PRIORITY CHECK: " + conflictCategory + " (" + conflictScore + 
                                               ") scores higher than " + upperCategory + " (" + upperScore + ")");
+                            }
                             
                             // Return the conflict category immediately if it scores significantly higher
                             if (conflictScore >= upperScore * 1.5) {
-                                System.out.println("PRIORITY RULE: Choosing " + conflictCategory + 
+                                if (DebugLog.DEBUG) {
+                                    DebugLog.debug("PRIORITY RULE: Choosing " + conflictCategory + 
                                                  " as it scores significantly higher");
+                                }
                                 return conflictCategory;
                             }
                         }
@@ -1061,7 +853,9 @@ public class Helper {
         }
         
         if (categoriesWithMaxScore.size() > 1) {
-            System.out.println("Multiple categories with the same score " + maxScore + ": " + categoriesWithMaxScore);
+            if (DebugLog.DEBUG) {
+                DebugLog.debug("Multiple categories with the same score " + maxScore + ": " + categoriesWithMaxScore);
+            }
             
             // Define difficulty order (hardest to easiest)
             List<String> difficultyOrder = Arrays.asList(
@@ -1083,8 +877,10 @@ public class Helper {
             }
             
             if (hardestCategory != null) {
-                System.out.println("STRATEGY: Prioritizing " + hardestCategory + 
+                if (DebugLog.DEBUG) {
+                    DebugLog.debug("STRATEGY: Prioritizing " + hardestCategory + 
                                   " as it's harder to score in future rounds");
+                }
                 return hardestCategory;
             }
         }
@@ -1103,9 +899,29 @@ public class Helper {
         return bestCategory;
     }
 
+    /**
+     * Scores a packed DiceHand (see DiceHand) in the named category.
+     */
+    public static int calculateScore(String category, int hand) {
+        int categoryIndex = Constants.getCategoryIndex(category);
+        return categoryIndex < 0 ? 0 : ScoreTable.score(DiceHand.index(hand), categoryIndex);
+    }
+
     public static int calculateScore(String category, int[] dice) {
-        System.out.println("Calculating score for " + category + " with dice: " + Arrays.toString(dice));
-        
+        if (DebugLog.DEBUG) {
+            DebugLog.debug("Calculating score for " + category + " with dice: " + Arrays.toString(dice));
+        }
+
+        // Table lookup for every real hand; the scan below only handles malformed dice arrays
+        int categoryIndex = Constants.getCategoryIndex(category);
+        int handIndex = ScoreTable.indexOf(dice);
+        if (categoryIndex >= 0 && handIndex >= 0) {
+            return ScoreTable.score(handIndex, categoryIndex);
+        }
+        return scanScore(category, dice);
+    }
+
+    private static int scanScore(String category, int[] dice) {
         switch (category) {
             case "Aces": return sumOfNumber(dice, 1);
             case "Twos": return sumOfNumber(dice, 2);
@@ -1131,10 +947,12 @@ public class Helper {
         boolean[] keep = new boolean[5];
         
         // SPECIAL CASE: If we have 4 of any kind, prioritize keeping them all for Yahtzee potential
-        int[] counts = getCounts(dice);
+        int hand = DiceHand.of(dice);
         for (int i = 1; i <= 6; i++) {
-            if (counts[i] >= 4) {
-                System.out.println("DICE STRATEGY: Found 4 " + i + "s - keeping all for Yahtzee potential");
+            if (DiceHand.count(hand, i) >= 4) {
+                if (DebugLog.DEBUG) {
+                    DebugLog.debug("DICE STRATEGY: Found 4 " + i + "s - keeping all for Yahtzee potential");
+                }
                 // Keep all dice of this value
                 for (int j = 0; j < dice.length; j++) {
                     keep[j] = (dice[j] == i);
@@ -1149,94 +967,36 @@ public class Helper {
                 keep[i] = (dice[i] == value);
             }
         } else if (strategy.contains("Straight")) {
-            // Check if we're going for a Large or Small Straight
-            boolean isLargeStraight = strategy.contains("Large");
-            
-            // Track which values we've already decided to keep (to handle duplicates)
-            boolean[] valueKept = new boolean[7];
-            
-            // First identify which values are part of a potential straight
-            boolean[] isPartOfStraight = new boolean[7];
-            for (int i = 1; i <= 6; i++) {
-                if (isLargeStraight) {
-                    // Check if i could be part of a Large Straight (either 1-5 or 2-6)
-                    isPartOfStraight[i] = ((i >= 1 && i <= 5) || (i >= 2 && i <= 6));
-                } else {
-                    // Check if i could be part of a Small Straight (1-4, 2-5, or 3-6)
-                    isPartOfStraight[i] = ((i >= 1 && i <= 4) || (i >= 2 && i <= 5) || (i >= 3 && i <= 6));
+            int present = DiceHand.presentMask(hand);
+            // Faces to keep, one die each: 1,3,4,5 or 2,3,4,5 toward a Large Straight,
+            // otherwise the longest run of three or more, or else the high faces
+            int faces = 0;
+            if (strategy.contains("Large")) {
+                if (StraightTable.contains(present, StraightTable.FACES_1345)) {
+                    faces |= StraightTable.FACES_1345;
                 }
-            }
-            
-            // IMPROVED LOGIC FOR SPECIAL PATTERNS
-            // Check for 1,3,4,5 pattern for Large Straight
-            boolean has1 = false, has3 = false, has4 = false, has5 = false;
-            
-            for (int d : dice) {
-                if (d == 1) has1 = true;
-                if (d == 3) has3 = true;
-                if (d == 4) has4 = true;
-                if (d == 5) has5 = true;
-            }
-            
-            boolean has1345 = has1 && has3 && has4 && has5;
-            
-            // Check for 2,3,4,5 pattern
-            boolean has2 = false;
-            for (int d : dice) {
-                if (d == 2) has2 = true;
-            }
-            
-            boolean has2345 = has2 && has3 && has4 && has5;
-            
-            // Handle special patterns
-            if (isLargeStraight && (has1345 || has2345)) {
-                for (int i = 0; i < dice.length; i++) {
-                    int val = dice[i];
-                    
-                    if (has1345 && (val == 3 || val == 4 || val == 5)) {
-                        // Always keep 3,4,5
-                        keep[i] = true;
-                    } else if (has1345 && val == 1 && !valueKept[1]) {
-                        // Keep only one 1
-                        keep[i] = true;
-                        valueKept[1] = true;
-                    } else if (has2345 && (val == 3 || val == 4 || val == 5)) {
-                        // Always keep 3,4,5
-                        keep[i] = true;
-                    } else if (has2345 && val == 2 && !valueKept[2]) {
-                        // Keep only one 2
-                        keep[i] = true;
-                        valueKept[2] = true;
-                    } else {
-                        keep[i] = false;
-                    }
+                if (StraightTable.contains(present, StraightTable.FACES_2345)) {
+                    faces |= StraightTable.FACES_2345;
                 }
-                return keep;
             }
-            
-            // General case for straights - keep unique values that could form a straight
+            if (faces == 0) {
+                faces = StraightTable.chaseMask(present);
+            }
             for (int i = 0; i < dice.length; i++) {
-                int val = dice[i];
-                // Only keep this die if the value is part of a potential straight
-                // and we haven't already kept a die with this value
-                if (isPartOfStraight[val] && !valueKept[val]) {
-                    keep[i] = true;
-                    valueKept[val] = true;
-                } else {
-                    keep[i] = false;
-                }
+                int bit = 1 << (dice[i] - 1);
+                keep[i] = (faces & bit) != 0;
+                faces &= ~bit;
             }
         } else if (strategy.contains("Full House")) {
-            counts = getCounts(dice); // We already computed this at the top, but if we reach here, recalculate
             int threeValue = -1;
             int pairValue1 = -1;
             int pairValue2 = -1;
             
             // Find the values with counts of 3 or 2
             for (int i = 1; i <= 6; i++) {
-                if (counts[i] >= 3) {
+                if (DiceHand.count(hand, i) >= 3) {
                     threeValue = i;
-                } else if (counts[i] >= 2) {
+                } else if (DiceHand.count(hand, i) >= 2) {
                     if (pairValue1 == -1) {
                         pairValue1 = i;
                     } else {
@@ -1259,13 +1019,13 @@ public class Helper {
                     
                     // MODIFIED LOGIC for low-value dice
                     // Always keep 3 or more of any number
-                    if (getCounts(dice)[targetNumber] >= 3) {
+                    if (DiceHand.count(hand, targetNumber) >= 3) {
                         for (int i = 0; i < dice.length; i++) {
                             keep[i] = (dice[i] == targetNumber);
                         }
                     }
                     // Be more strategic with low-value dice (1s and 2s) only when we have very few
-                    else if ((targetNumber == 1 || targetNumber == 2) && getCounts(dice)[targetNumber] < 2) {
+                    else if ((targetNumber == 1 || targetNumber == 2) && DiceHand.count(hand, targetNumber) < 2) {
                         // If we only have 1 of the low-value dice, don't keep any - recommend rerolling all
                         for (int i = 0; i < dice.length; i++) {
                             keep[i] = false;
@@ -1331,51 +1091,33 @@ public class Helper {
         if (dice == null || dice.length == 0) return false;
         
         // Print debug info
-        System.out.println("Checking for " + count + " of a kind in dice: " + Arrays.toString(dice));
-        
-        int[] counts = getCounts(dice);
-        System.out.println("Counts array: " + Arrays.toString(counts));
+        if (DebugLog.DEBUG) {
+            DebugLog.debug("Checking for " + count + " of a kind in dice: " + Arrays.toString(dice));
+        }
         
-        for (int i = 1; i <= 6; i++) {  // Start from 1 since dice values are 1-6
-            if (counts[i] >= count) {
-                System.out.println("Found " + count + " of a kind with " + i + "s");
-                return true;
+        int hand = DiceHand.of(dice);
+        if (DiceHand.maxOfAKind(hand) >= count) {
+            if (DebugLog.DEBUG) {
+                DebugLog.debug("Found " + count + " of a kind with " + DiceHand.mostCommonFace(hand) + "s");
             }
+            return true;
+        }
+        if (DebugLog.DEBUG) {
+            DebugLog.debug("Did NOT find " + count + " of a kind");
         }
-        System.out.println("Did NOT find " + count + " of a kind");
         return false;
     }
 
     private static boolean isFullHouse(int[] dice) {
-        int[] counts = getCounts(dice);
-        boolean hasThree = false;
-        boolean hasTwo = false;
-        for (int count : counts) {
-            if (count == 3) hasThree = true;
-            if (count == 2) hasTwo = true;
-        }
-        return hasThree && hasTwo;
+        return DiceHand.isFullHouse(DiceHand.of(dice));
     }
 
     private static boolean isSmallStraight(int[] dice) {
-        // First mark which values are present
-        boolean[] present = new boolean[7];
-        for (int value : dice) present[value] = true;
-        
-        // Check for the three possible small straight patterns
-        return (present[1] && present[2] && present[3] && present[4]) ||  // 1-2-3-4
-               (present[2] && present[3] && present[4] && present[5]) ||  // 2-3-4-5
-               (present[3] && present[4] && present[5] && present[6]);    // 3-4-5-6
+        return DiceHand.isSmallStraight(DiceHand.of(dice));
     }
 
     private static boolean isLargeStraight(int[] dice) {
-        // First mark which values are present
-        boolean[] present = new boolean[7];
-        for (int value : dice) present[value] = true;
-        
-        // Check for the two possible large straight patterns
-        return (present[1] && present[2] && present[3] && present[4] && present[5]) ||  // 1-2-3-4-5
-               (present[2] && present[3] && present[4] && present[5] && present[6]);    // 2-3-4-5-6
+        return DiceHand.isLargeStraight(DiceHand.of(dice));
     }
 
     private static boolean isYahtzee(int[] dice) {
@@ -1386,140 +1128,6 @@ public class Helper {
         return true;
     }
 
-    private static int[] getCounts(int[] dice) {
-        if (dice == null) {
-            System.out.println("WARNING: Null dice array passed to getCounts");
-            return new int[7]; // Return empty counts
-        }
-        
-        System.out.println("Counting dice: " + Arrays.toString(dice));
-        int[] counts = new int[7];  // 0-6, ignore 0
-        for (int value : dice) {
-            if (value >= 1 && value <= 6) {
-                counts[value]++;
-            } else {
-                System.out.println("WARNING: Invalid die value: " + value);
-            }
-        }
-        System.out.println("Counts array: " + Arrays.toString(counts));
-        return counts;
-    }
-
-    private static boolean hasSequenceOfLength(int[] dice, int length) {
-        boolean[] present = new boolean[7];
-        for (int value : dice) present[value] = true;
-
-        // For Small Straight (length=4), we check if we have either 1,2,3,4 or 2,3,4,5 or 3,4,5,6
-        if (length == 4) {
-            return (present[1] && present[2] && present[3] && present[4]) ||
-                   (present[2] && present[3] && present[4] && present[5]) ||
-                   (present[3] && present[4] && present[5] && present[6]);
-        }
-        // For Large Straight (length=5), we check if we have either 1,2,3,4,5 or 2,3,4,5,6
-        else if (length == 5) {
-            return (present[1] && present[2] && present[3] && present[4] && present[5]) ||
-                   (present[2] && present[3] && present[4] && present[5] && present[6]);
-        }
-        
-        // For other lengths, use the original consecutive counting approach
-        int consecutive = 0;
-        for (int i = 1; i <= 6; i++) {
-            if (present[i]) {
-                consecutive++;
-                if (consecutive >= length) return true;
-            } else {
-                consecutive = 0;
-            }
-        }
-        return false;
-    }
-
-    private static int findMostCommonValue(int[] dice) {
-        int[] counts = getCounts(dice);
-        int maxCount = 0;
-        int mostCommon = 1;
-
-        for (int i = 1; i <= 6; i++) {
-            if (counts[i] > maxCount) {
-                maxCount = counts[i];
-                mostCommon = i;
-            }
-        }
-        return mostCommon;
-    }
-
-    private static boolean isPartOfLongestSequence(int[] dice, int value) {
-        boolean[] present = new boolean[7];
-        for (int v : dice) present[v] = true;
-
-        // Check if this value is part of a potential Small Straight (1-4, 2-5, 3-6)
-        if ((value >= 1 && value <= 4 && present[1] && present[2] && present[3] && present[4]) ||
-            (value >= 2 && value <= 5 && present[2] && present[3] && present[4] && present[5]) ||
-            (value >= 3 && value <= 6 && present[3] && present[4] && present[5] && present[6])) {
-            return true;
-        }
-        
-        // Check if this value is part of a potential Large Straight (1-5 or 2-6)
-        if ((value >= 1 && value <= 5 && present[1] && present[2] && present[3] && present[4] && present[5]) ||
-            (value >= 2 && value <= 6 && present[2] && present[3] && present[4] && present[5] && present[6])) {
-            return true;
-        }
-        
-        // Check if it's part of the longest potential sequence
-        // First find all possible sequences containing this value
-        for (int startVal = Math.max(1, value - 3); startVal <= Math.min(value, 3); startVal++) {
-            int endVal = startVal + 3; // Looking for 4 consecutive values for Small Straight
-            if (endVal <= 6) {
-                int count = 0;
-                for (int i = startVal; i <= endVal; i++) {
-                    if (present[i]) count++;
-                }
-                // If we have at least 3 values of a possible 4-value sequence that includes our value
-                if (count >= 3 && present[value]) return true;
-            }
-        }
-        
-        for (int startVal = Math.max(1, value - 4); startVal <= Math.min(value, 2); startVal++) {
-            int endVal = startVal + 4; // Looking for 5 consecutive values for Large Straight
-            if (endVal <= 6) {
-                int count = 0;
-                for (int i = startVal; i <= endVal; i++) {
-                    if (present[i]) count++;
-                }
-                // If we have at least 4 values of a possible 5-value sequence that includes our value
-                if (count >= 4 && present[value]) return true;
-            }
-        }
-        
-        return false;
-    }
-
-    private static boolean isPartOfSequence(int[] dice, int value, int targetLength) {
-        boolean[] present = new boolean[7];
-        for (int v : dice) present[v] = true;
-        
-        // Check if this value is part of any sequence that could form a sequence of targetLength
-        // For each position in a potential sequence, check if this value could be part
-        for (int start = Math.max(1, value - (targetLength - 1)); start <= Math.min(7 - targetLength, value); start++) {
-            boolean possible = true;
-            int numbersPresent = 0;
-            
-            // Check if we have enough numbers in this potential sequence
-            for (int i = 0; i < targetLength; i++) {
-                if (present[start + i]) {
-                    numbersPresent++;
-                }
-            }
-            
-            // If we have value in this range and enough present numbers to form targetLength with remaining rolls
-            if (present[value] && numbersPresent >= targetLength - 2) {
-                return true;
-            }
-        }
-        
-        return false;
-    }
-
     private static int getCategoryNumber(String category) {
         switch (category) {
             case "Aces": return 1;
@@ -0,0 +1,403 @@
+package com.example.ccjava;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Everything needed to play a game again exactly: the seed of its dice, who
+ * sat in each seat and every input the engine was given, in order.
+ *
+ * The computer's own decisions are not stored; replaying its calls makes
+ * it decide again, so a log recorded before a strategy change shows what
+ * the new code does with the same dice. Each input is one int, the type in
+ * bits 0-3 and its arguments above, except RESTORE_TURN, which takes two:
+ *   TOSS         bits 4-6 first seat's die, bits 7-9 second seat's die
+ *   SET_DICE     bits 4-18 the five dice, 3 bits each
+ *   TOGGLE       bits 4-6 die
+ *   SCORE        bits 4-7 category index
+ *   RESTORE      bits 4-7 category index, bit 8 seat, bits 9-16 score, bits 17-24 round
+ *   RESUME       bits 4-11 round
+ *   RESTORE_TURN bits 4-11 round, bits 12-13 first seat + 1, bits 14-15 current seat + 1,
+ *                bits 16-17 roll count, bits 18-20 turn state, bits 21-25 held dice,
+ *                followed by a second int with the five dice in bits 0-14
+ * In write() they are stored as variable-length integers of one to four bytes.
+ */
+public final class InputLog {
+    public static final int TOSS = 0;
+    public static final int RANDOM_TOSS = 1;
+    public static final int ROLL = 2;
+    public static final int SET_DICE = 3;
+    public static final int TOGGLE = 4;
+    public static final int CLEAR = 5;
+    public static final int STAND = 6;
+    public static final int SCORE = 7;
+    public static final int PASS = 8;
+    public static final int COMPUTER_CATEGORY = 9;
+    public static final int COMPUTER_TURN = 10;
+    public static final int END_TURN = 11;
+    public static final int RESTORE = 12;
+    public static final int RESUME = 13;
+    public static final int RESTORE_TURN = 14;
+
+    // Seat mode of a human player; computer seats store their ComputerPlayer.Mode ordinal
+    public static final int HUMAN = -1;
+
+    private static final String[] TYPE_NAMES = {
+            "toss", "random toss", "roll", "set dice", "toggle", "clear", "stand", "score", "pass",
+            "computer category", "computer turn", "end turn", "restore", "resume", "restore turn"
+    };
+    private static final int MAGIC = 0x59524550; // "YREP"
+    private static final int VERSION = 1;
+    private static final int DIE_BITS = 3;
+
+    private final long seed;
+    private final RandomSource.Kind randomKind;
+    private final String[] names;
+    private final int[] modes;
+    private int[] events = new int[64];
+    private int size;
+    private long outcome;
+    private boolean hasOutcome;
+
+    public InputLog(long seed, RandomSource.Kind randomKind, Player first, Player second) {
+        this(seed, randomKind, new String[] {first.getName(), second.getName()},
+                new int[] {modeOf(first), modeOf(second)});
+    }
+
+    private InputLog(long seed, RandomSource.Kind randomKind, String[] names, int[] modes) {
+        this.seed = seed;
+        this.randomKind = randomKind;
+        this.names = names;
+        this.modes = modes;
+    }
+
+    private static int modeOf(Player player) {
+        return player instanceof ComputerPlayer ? ((ComputerPlayer) player).getMode().ordinal() : HUMAN;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public RandomSource.Kind getRandomKind() {
+        return randomKind;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Type of input i.
+     */
+    public int type(int i) {
+        return events[i] & 0xF;
+    }
+
+    /**
+     * Dice source for a game played from this log.
+     */
+    public RandomSource newRandom() {
+        return randomKind.create(seed);
+    }
+
+    // ----- Recording -----
+
+    public void add(int type) {
+        append(type);
+    }
+
+    public void addToss(int firstRoll, int secondRoll) {
+        append(TOSS | firstRoll << 4 | secondRoll << 7);
+    }
+
+    public void addDice(int[] values) {
+        append(SET_DICE | packDice(values) << 4);
+    }
+
+    public void addToggle(int die) {
+        append(TOGGLE | die << 4);
+    }
+
+    public void addScore(int category) {
+        append(SCORE | category << 4);
+    }
+
+    public void addRestore(int category, int seat, int score, int round) {
+        append(RESTORE | category << 4 | seat << 8 | score << 9 | round << 17);
+    }
+
+    public void addResume(int round) {
+        append(RESUME | round << 4);
+    }
+
+    public void addRestoreTurn(int round, int firstSeat, int currentSeat, int[] values, int heldMask, int rollCount,
+                               TurnState state) {
+        append(RESTORE_TURN | round << 4 | (firstSeat + 1) << 12 | (currentSeat + 1) << 14 | rollCount << 16
+                | state.ordinal() << 18 | heldMask << 21);
+        append(packDice(values));
+    }
+
+    private static int packDice(int[] values) {
+        int packed = 0;
+        for (int d = 0; d < Constants.DICE_COUNT; d++) {
+            packed |= values[d] << (d * DIE_BITS);
+        }
+        return packed;
+    }
+
+    private void append(int event) {
+        if (size == events.length) {
+            int[] grown = new int[size * 2];
+            System.arraycopy(events, 0, grown, 0, size);
+            events = grown;
+        }
+        events[size++] = event;
+    }
+
+    /**
+     * Stores the fingerprint the game ended with, for replays to be checked against.
+     */
+    public void setOutcome(long fingerprint) {
+        outcome = fingerprint;
+        hasOutcome = true;
+    }
+
+    public boolean hasOutcome() {
+        return hasOutcome;
+    }
+
+    public long getOutcome() {
+        return outcome;
+    }
+
+    // ----- Replay -----
+
+    /**
+     * Fresh engine with the recorded seats and dice, before any input.
+     */
+    public GameEngine newEngine() {
+        CategoryBoard board = new CategoryBoard();
+        Player first = newPlayer(0, board);
+        Player second = newPlayer(1, board);
+        return new GameEngine(first, second, newRandom());
+    }
+
+    private Player newPlayer(int seat, CategoryBoard board) {
+        if (modes[seat] == HUMAN) {
+            return new Player(names[seat], board);
+        }
+        ComputerPlayer computer = new ComputerPlayer(names[seat], board);
+        computer.setMode(ComputerPlayer.Mode.values()[modes[seat]]);
+        return computer;
+    }
+
+    /**
+     * Plays the whole log on a fresh engine. Throws IllegalStateException naming the
+     * input that could not be applied when the game no longer goes the recorded way.
+     */
+    public GameEngine replay() {
+        GameEngine engine = newEngine();
+        for (int i = 0; i < size; i++) {
+            try {
+                if (type(i) == RESTORE_TURN) {
+                    int event = events[i];
+                    engine.restoreTurn((event >>> 4) & 0xFF, ((event >>> 12) & 0x3) - 1, ((event >>> 14) & 0x3) - 1,
+                            unpackDice(events[i + 1]), (event >>> 21) & 0x1F, (event >>> 16) & 0x3,
+                            TurnState.values()[(event >>> 18) & 0x7]);
+                    i++;
+                    continue;
+                }
+                apply(engine, events[i]);
+            } catch (RuntimeException e) {
+                throw new IllegalStateException("Replay diverged at input " + i + ": " + describe(i), e);
+            }
+        }
+        return engine;
+    }
+
+    private static void apply(GameEngine engine, int event) {
+        switch (event & 0xF) {
+            case TOSS:
+                engine.resolveFirstPlayer((event >>> 4) & 0x7, (event >>> 7) & 0x7);
+                break;
+            case RANDOM_TOSS:
+                engine.tossForFirstPlayer();
+                break;
+            case ROLL:
+                engine.roll();
+                break;
+            case SET_DICE:
+                engine.setDice(unpackDice(event >>> 4));
+                break;
+            case TOGGLE:
+                engine.toggleHeld((event >>> 4) & 0x7);
+                break;
+            case CLEAR:
+                engine.clearSelections();
+                break;
+            case STAND:
+                engine.stand();
+                break;
+            case SCORE:
+                engine.scoreCategory(Constants.CATEGORIES[(event >>> 4) & 0xF]);
+                break;
+            case PASS:
+                engine.passTurn();
+                break;
+            case COMPUTER_CATEGORY:
+                engine.computerSelectCategory();
+                break;
+            case COMPUTER_TURN:
+                engine.playComputerTurn();
+                break;
+            case END_TURN:
+                engine.endTurn();
+                break;
+            case RESTORE:
+                engine.restoreCategory(Constants.CATEGORIES[(event >>> 4) & 0xF], (event >>> 8) & 0x1,
+                        (event >>> 9) & 0xFF, (event >>> 17) & 0xFF);
+                break;
+            case RESUME:
+                engine.resume((event >>> 4) & 0xFF);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown input type " + (event & 0xF));
+        }
+    }
+
+    private static int[] unpackDice(int packed) {
+        int[] values = new int[Constants.DICE_COUNT];
+        for (int d = 0; d < Constants.DICE_COUNT; d++) {
+            values[d] = (packed >>> (d * DIE_BITS)) & 0x7;
+        }
+        return values;
+    }
+
+    /**
+     * Input i as text, e.g. "set dice [2, 2, 3, 4, 5]".
+     */
+    public String describe(int i) {
+        int event = events[i];
+        int type = event & 0xF;
+        String name = type < TYPE_NAMES.length ? TYPE_NAMES[type] : "input " + type;
+        switch (type) {
+            case TOSS:
+                return name + " " + ((event >>> 4) & 0x7) + " vs " + ((event >>> 7) & 0x7);
+            case SET_DICE:
+                return name + " " + Arrays.toString(unpackDice(event >>> 4));
+            case TOGGLE:
+                return name + " die " + ((event >>> 4) & 0x7);
+            case SCORE:
+            case RESTORE:
+                return name + " " + Constants.CATEGORIES[(event >>> 4) & 0xF];
+            case RESUME:
+            case RESTORE_TURN:
+                return name + " round " + ((event >>> 4) & 0xFF);
+            default:
+                return name;
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Seed ").append(seed).append(' ').append(randomKind).append(", ")
+                .append(names[0]).append(" vs ").append(names[1]).append('\n');
+        for (int i = 0; i < size; i++) {
+            sb.append(i).append(": ").append(describe(i)).append('\n');
+            if (type(i) == RESTORE_TURN) {
+                i++;
+            }
+        }
+        return sb.toString();
+    }
+
+    // ----- Storage -----
+
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeLong(seed);
+        out.writeByte(randomKind.ordinal());
+        for (int seat = 0; seat < 2; seat++) {
+            out.writeUTF(names[seat]);
+            out.writeByte(modes[seat]);
+        }
+        out.writeBoolean(hasOutcome);
+        out.writeLong(outcome);
+        writeVarInt(out, size);
+        for (int i = 0; i < size; i++) {
+            writeVarInt(out, events[i]);
+        }
+    }
+
+    /**
+     * The log as write() stores it, so it can be handed to another thread to save.
+     */
+    public byte[] toByteArray() {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(128);
+        try {
+            write(new DataOutputStream(buffer));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    public static InputLog read(DataInput in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not an input log");
+        }
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported input log version " + version);
+        }
+        long seed = in.readLong();
+        int kind = in.readUnsignedByte();
+        if (kind >= RandomSource.Kind.values().length) {
+            throw new IOException("Unknown random source " + kind);
+        }
+        String[] names = new String[2];
+        int[] modes = new int[2];
+        for (int seat = 0; seat < 2; seat++) {
+            names[seat] = in.readUTF();
+            modes[seat] = in.readByte();
+            if (modes[seat] < HUMAN || modes[seat] >= ComputerPlayer.Mode.values().length) {
+                throw new IOException("Unknown player mode " + modes[seat]);
+            }
+        }
+        InputLog log = new InputLog(seed, RandomSource.Kind.values()[kind], names, modes);
+        log.hasOutcome = in.readBoolean();
+        log.outcome = in.readLong();
+        int size = readVarInt(in);
+        for (int i = 0; i < size; i++) {
+            log.append(readVarInt(in));
+        }
+        return log;
+    }
+
+    private static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed input log");
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.ccjava;
+
+/**
+ * Exact keep decisions for one turn.
+ *
+ * A roll offers 32 ways to choose which dice to keep, but dice order does not
+ * matter, so every choice is one of the 462 kept multisets in RerollTable.
+ * Given the value of finishing the turn with each hand, the optimizer works
+ * backwards through the rerolls using the exact outcome distribution of every
+ * keep. That costs a few tens of microseconds once per turn; each roll's
+ * decision afterwards is at most 32 array reads.
+ *
+ * Hands are packed DiceHands and rollsLeft is the number of rerolls still
+ * allowed after the current roll.
+ */
+public final class KeepOptimizer {
+    /**
+     * Value of ending the turn holding a hand, given by its score-table index.
+     */
+    public interface HandValue {
+        double value(int handIndex);
+    }
+
+    /**
+     * Dice to keep for a roll: bit i of keepMask is set when die i is kept.
+     */
+    public static final class Choice {
+        public final int keepMask;
+        public final double expectedValue;
+
+        Choice(int keepMask, double expectedValue) {
+            this.keepMask = keepMask;
+            this.expectedValue = expectedValue;
+        }
+    }
+
+    private static final int REROLLS = Constants.MAX_ROLLS - 1;
+    private static final int ALL_DICE = (1 << Constants.DICE_COUNT) - 1;
+
+    // handValues[r][handIndex]: value of holding the hand with r rerolls left
+    private final double[][] handValues = new double[REROLLS + 1][];
+    // keepValues[r][keep]: value of rerolling around the keep with r rerolls left afterwards
+    private final double[][] keepValues = new double[REROLLS + 1][];
+
+    public KeepOptimizer(HandValue endOfTurn) {
+        double[] finalValues = new double[ScoreTable.HAND_COUNT];
+        for (int handIndex = 0; handIndex < ScoreTable.HAND_COUNT; handIndex++) {
+            finalValues[handIndex] = endOfTurn.value(handIndex);
+        }
+        handValues[0] = finalValues;
+        for (int r = 0; r <= REROLLS; r++) {
+            keepValues[r] = expectKeeps(handValues[r]);
+            if (r < REROLLS) {
+                handValues[r + 1] = bestKeeps(keepValues[r]);
+            }
+        }
+    }
+
+    /**
+     * End-of-turn value that is simply the best score among the open categories.
+     */
+    public static HandValue bestScore(final int availableMask) {
+        return handIndex -> {
+            int best = 0;
+            for (int m = availableMask & Category.ALL_MASK; m != 0; m &= m - 1) {
+                best = Math.max(best, ScoreTable.score(handIndex, Integer.numberOfTrailingZeros(m)));
+            }
+            return best;
+        };
+    }
+
+    /**
+     * Expected value of the turn before its first roll.
+     */
+    public double startValue() {
+        return keepValues[REROLLS][0];
+    }
+
+    /**
+     * Expected value of holding the hand with rollsLeft rerolls still available.
+     */
+    public double value(int hand, int rollsLeft) {
+        return handValues[rollsLeft][DiceHand.index(hand)];
+    }
+
+    /**
+     * Expected value of keeping the given dice (a packed hand of 0-5 dice) and rerolling
+     * the rest, when rollsLeft rerolls were available before this one.
+     */
+    public double keepValue(int keep, int rollsLeft) {
+        return keepValues[rollsLeft - 1][RerollTable.keepIndex(keep)];
+    }
+
+    /**
+     * Dice to keep, as a packed sub-hand of the given hand. Keeping the whole hand
+     * means ending the turn now is at least as good as rolling again.
+     */
+    public int bestKeep(int hand, int rollsLeft) {
+        if (rollsLeft <= 0) {
+            return hand;
+        }
+        double[] keeps = keepValues[rollsLeft - 1];
+        int best = -1;
+        for (int keep : RerollTable.subKeeps(DiceHand.index(hand))) {
+            if (best < 0 || keeps[keep] > keeps[best]) {
+                best = keep;
+            }
+        }
+        return RerollTable.keepHand(best);
+    }
+
+    /**
+     * Scores all 32 keep masks of the roll and returns the best one. Masks that keep
+     * the same multiset share one precomputed entry, and ties go to keeping more dice.
+     */
+    public Choice choose(int[] dice, int rollsLeft) {
+        if (rollsLeft <= 0) {
+            return new Choice(ALL_DICE, value(DiceHand.of(dice), 0));
+        }
+        double[] keeps = keepValues[rollsLeft - 1];
+        int bestMask = -1;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (int mask = ALL_DICE; mask >= 0; mask--) {
+            int keep = DiceHand.EMPTY;
+            for (int m = mask; m != 0; m &= m - 1) {
+                keep = DiceHand.withDie(keep, dice[Integer.numberOfTrailingZeros(m)]);
+            }
+            double value = keeps[RerollTable.keepIndex(keep)];
+            if (value > bestValue || (value == bestValue && Integer.bitCount(mask) > Integer.bitCount(bestMask))) {
+                bestValue = value;
+                bestMask = mask;
+            }
+        }
+        return new Choice(bestMask, bestValue);
+    }
+
+    private static double[] expectKeeps(double[] handValues) {
+        double[] keeps = new double[RerollTable.KEEP_COUNT];
+        for (int keep = 0; keep < RerollTable.KEEP_COUNT; keep++) {
+            int[] hands = RerollTable.outcomeHands(keep);
+            double[] probs = RerollTable.outcomeProbs(keep);
+            double sum = 0;
+            for (int i = 0; i < hands.length; i++) {
+                sum += probs[i] * handValues[hands[i]];
+            }
+            keeps[keep] = sum;
+        }
+        return keeps;
+    }
+
+    private static double[] bestKeeps(double[] keepValues) {
+        double[] hands = new double[ScoreTable.HAND_COUNT];
+        for (int handIndex = 0; handIndex < ScoreTable.HAND_COUNT; handIndex++) {
+            double best = Double.NEGATIVE_INFINITY;
+            for (int keep : RerollTable.subKeeps(handIndex)) {
+                best = Math.max(best, keepValues[keep]);
+            }
+            hands[handIndex] = best;
+        }
+        return hands;
+    }
+}
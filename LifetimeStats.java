@@ -0,0 +1,361 @@
+package com.example.ccjava;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Locale;
+import java.util.zip.CRC32;
+
+/**
+ * Running statistics over every game played, per seat and per category,
+ * updated in one pass over the 12 categories as each game finishes.
+ *
+ * Each category keeps the count, mean and sum of squared deviations of its
+ * scores by Welford's method, how often it was zeroed, a histogram of its
+ * scores and one of the rounds it was filled in. Two sets of statistics merge
+ * by Chan's pairwise update, so simulator shards can be combined, and a set
+ * can be stored and added to later without the games themselves. Counts
+ * merge exactly; means and variances agree to rounding whatever the order.
+ *
+ * File: int MAGIC "YLST", byte version, then as variable-length integers the
+ * games and each seat's wins, losses and ties, then per seat and category the
+ * fill count and zeros, the mean and M2 as doubles, and the non-zero score and
+ * round buckets as (bucket, count) pairs ended by the number of buckets, and
+ * an int CRC32 of everything before it.
+ */
+public final class LifetimeStats {
+    public static final String FILE_NAME = "lifetime.stats";
+    // No single category scores more than a Yahtzee
+    public static final int MAX_SCORE = Constants.YAHTZEE_SCORE;
+    // Rounds past the last bucket are counted in it
+    public static final int ROUND_BUCKETS = 16;
+
+    private static final int MAGIC = 0x594C5354;
+    private static final int VERSION = 1;
+    private static final int CELLS = 2 * Category.COUNT;
+
+    private long games;
+    private final long[] wins = new long[2];
+    private final long[] losses = new long[2];
+    private final long[] ties = new long[2];
+    // Per seat and category, at seat * Category.COUNT + category
+    private final long[] fills = new long[CELLS];
+    private final long[] zeros = new long[CELLS];
+    private final double[] means = new double[CELLS];
+    private final double[] m2 = new double[CELLS];
+    private final long[] scoreHistogram = new long[CELLS * (MAX_SCORE + 1)];
+    private final long[] roundHistogram = new long[CELLS * ROUND_BUCKETS];
+
+    /**
+     * Adds a finished game.
+     */
+    public void record(GameEngine game) {
+        for (int c = 0; c < Category.COUNT; c++) {
+            Player owner = game.getCategoryOwner(c);
+            if (owner != null) {
+                add(game.seatOf(owner), c, owner.getScore(Category.of(c)), game.getCategoryRound(c));
+            }
+        }
+        addResult(game.getPlayer(0).getTotalScore(), game.getPlayer(1).getTotalScore());
+    }
+
+    /**
+     * Adds a finished game from its archive record.
+     */
+    public void record(GameArchive.Record game) {
+        for (int c = 0; c < Category.COUNT; c++) {
+            int owner = game.getOwner(c);
+            if (owner >= 0) {
+                add(owner, c, game.getScore(c), game.getCategoryRound(c));
+            }
+        }
+        addResult(game.getTotal(0), game.getTotal(1));
+    }
+
+    private void add(int seat, int category, int score, int round) {
+        int cell = seat * Category.COUNT + category;
+        long n = ++fills[cell];
+        double delta = score - means[cell];
+        means[cell] += delta / n;
+        m2[cell] += delta * (score - means[cell]);
+        if (score == 0) {
+            zeros[cell]++;
+        }
+        scoreHistogram[cell * (MAX_SCORE + 1) + Math.min(score, MAX_SCORE)]++;
+        roundHistogram[cell * ROUND_BUCKETS + Math.min(Math.max(round, 1), ROUND_BUCKETS) - 1]++;
+    }
+
+    private void addResult(int first, int second) {
+        games++;
+        if (first == second) {
+            ties[0]++;
+            ties[1]++;
+        } else {
+            int winner = first > second ? 0 : 1;
+            wins[winner]++;
+            losses[1 - winner]++;
+        }
+    }
+
+    /**
+     * Adds another set of statistics to this one.
+     */
+    public void merge(LifetimeStats other) {
+        games += other.games;
+        for (int seat = 0; seat < 2; seat++) {
+            wins[seat] += other.wins[seat];
+            losses[seat] += other.losses[seat];
+            ties[seat] += other.ties[seat];
+        }
+        for (int cell = 0; cell < CELLS; cell++) {
+            long n = fills[cell] + other.fills[cell];
+            if (n > 0) {
+                double delta = other.means[cell] - means[cell];
+                double weight = (double) other.fills[cell] / n;
+                means[cell] += delta * weight;
+                m2[cell] += other.m2[cell] + delta * delta * fills[cell] * weight;
+            }
+            fills[cell] = n;
+            zeros[cell] += other.zeros[cell];
+        }
+        for (int i = 0; i < scoreHistogram.length; i++) {
+            scoreHistogram[i] += other.scoreHistogram[i];
+        }
+        for (int i = 0; i < roundHistogram.length; i++) {
+            roundHistogram[i] += other.roundHistogram[i];
+        }
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public long getWins(int seat) {
+        return wins[seat];
+    }
+
+    public long getLosses(int seat) {
+        return losses[seat];
+    }
+
+    public long getTies(int seat) {
+        return ties[seat];
+    }
+
+    /**
+     * Times the player in the seat filled the category.
+     */
+    public long getFills(int seat, int category) {
+        return fills[seat * Category.COUNT + category];
+    }
+
+    public double mean(int seat, int category) {
+        return means[seat * Category.COUNT + category];
+    }
+
+    /**
+     * Sample variance of the category's scores.
+     */
+    public double variance(int seat, int category) {
+        int cell = seat * Category.COUNT + category;
+        return fills[cell] < 2 ? 0 : m2[cell] / (fills[cell] - 1);
+    }
+
+    /**
+     * Share of the category's fills that scored nothing.
+     */
+    public double zeroRate(int seat, int category) {
+        int cell = seat * Category.COUNT + category;
+        return fills[cell] == 0 ? 0 : (double) zeros[cell] / fills[cell];
+    }
+
+    /**
+     * Times the category was filled with the score, 0 to MAX_SCORE.
+     */
+    public long scoreCount(int seat, int category, int score) {
+        return scoreHistogram[(seat * Category.COUNT + category) * (MAX_SCORE + 1) + score];
+    }
+
+    /**
+     * Times the category was filled in the round, 1 to ROUND_BUCKETS.
+     */
+    public long roundCount(int seat, int category, int round) {
+        return roundHistogram[(seat * Category.COUNT + category) * ROUND_BUCKETS + round - 1];
+    }
+
+    /**
+     * Round the category is most often filled in, or 0 if it never has been.
+     */
+    public int usualRound(int seat, int category) {
+        int base = (seat * Category.COUNT + category) * ROUND_BUCKETS;
+        int best = 0;
+        for (int r = 0; r < ROUND_BUCKETS; r++) {
+            if (roundHistogram[base + r] > (best == 0 ? 0 : roundHistogram[base + best - 1])) {
+                best = r + 1;
+            }
+        }
+        return best;
+    }
+
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.US, "Games: %d%n", games));
+        for (int seat = 0; seat < 2; seat++) {
+            sb.append(String.format(Locale.US, "Seat %d: %d wins, %d losses, %d ties%n",
+                    seat + 1, wins[seat], losses[seat], ties[seat]));
+            sb.append(String.format(Locale.US, "  %-16s %8s %7s %7s %7s %6s%n",
+                    "Category", "Filled", "Mean", "SD", "Zero", "Round"));
+            for (int c = 0; c < Category.COUNT; c++) {
+                sb.append(String.format(Locale.US, "  %-16s %8d %7.2f %7.2f %6.2f%% %6d%n",
+                        Constants.CATEGORIES[c], getFills(seat, c), mean(seat, c), Math.sqrt(variance(seat, c)),
+                        100 * zeroRate(seat, c), usualRound(seat, c)));
+            }
+        }
+        return sb.toString();
+    }
+
+    // ----- Files -----
+
+    /**
+     * Writes the statistics to a temporary file that then replaces the old one.
+     */
+    public void write(File file) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        writeVarLong(out, games);
+        for (int seat = 0; seat < 2; seat++) {
+            writeVarLong(out, wins[seat]);
+            writeVarLong(out, losses[seat]);
+            writeVarLong(out, ties[seat]);
+        }
+        for (int cell = 0; cell < CELLS; cell++) {
+            writeVarLong(out, fills[cell]);
+            writeVarLong(out, zeros[cell]);
+            out.writeDouble(means[cell]);
+            out.writeDouble(m2[cell]);
+            writeBuckets(out, scoreHistogram, cell * (MAX_SCORE + 1), MAX_SCORE + 1);
+            writeBuckets(out, roundHistogram, cell * ROUND_BUCKETS, ROUND_BUCKETS);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        out.writeInt((int) crc.getValue());
+
+        File temp = new File(file.getPath() + ".tmp");
+        FileOutputStream stream = new FileOutputStream(temp);
+        try {
+            stream.write(bytes.toByteArray());
+            stream.getFD().sync();
+        } finally {
+            stream.close();
+        }
+        if (!temp.renameTo(file) && !(file.delete() && temp.renameTo(file))) {
+            throw new IOException("Could not replace " + file.getName());
+        }
+    }
+
+    /**
+     * Reads statistics written by write(); a file that does not exist reads as no games.
+     */
+    public static LifetimeStats read(File file) throws IOException {
+        LifetimeStats stats = new LifetimeStats();
+        if (!file.isFile()) {
+            return stats;
+        }
+        ByteBuffer buffer;
+        FileInputStream in = new FileInputStream(file);
+        try {
+            FileChannel channel = in.getChannel();
+            buffer = ByteBuffer.allocate((int) Math.min(channel.size(), Integer.MAX_VALUE));
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Keep reading
+            }
+            buffer.flip();
+        } finally {
+            in.close();
+        }
+
+        int end = buffer.limit() - 4;
+        if (end < 5 || buffer.getInt() != MAGIC) {
+            throw new IOException(file.getName() + " is not a statistics file");
+        }
+        int version = buffer.get();
+        if (version != VERSION) {
+            throw new IOException("Unsupported statistics version " + version);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, end);
+        if ((int) crc.getValue() != buffer.getInt(end)) {
+            throw new IOException("Statistics are corrupt (checksum mismatch)");
+        }
+        try {
+            stats.games = readVarLong(buffer);
+            for (int seat = 0; seat < 2; seat++) {
+                stats.wins[seat] = readVarLong(buffer);
+                stats.losses[seat] = readVarLong(buffer);
+                stats.ties[seat] = readVarLong(buffer);
+            }
+            for (int cell = 0; cell < CELLS; cell++) {
+                stats.fills[cell] = readVarLong(buffer);
+                stats.zeros[cell] = readVarLong(buffer);
+                stats.means[cell] = buffer.getDouble();
+                stats.m2[cell] = buffer.getDouble();
+                readBuckets(buffer, stats.scoreHistogram, cell * (MAX_SCORE + 1), MAX_SCORE + 1);
+                readBuckets(buffer, stats.roundHistogram, cell * ROUND_BUCKETS, ROUND_BUCKETS);
+            }
+        } catch (RuntimeException e) {
+            throw new IOException("Malformed statistics", e);
+        }
+        if (buffer.position() != end) {
+            throw new IOException("Malformed statistics");
+        }
+        return stats;
+    }
+
+    // Most buckets are empty, so only the others are stored
+    private static void writeBuckets(DataOutputStream out, long[] histogram, int start, int length)
+            throws IOException {
+        for (int i = 0; i < length; i++) {
+            if (histogram[start + i] != 0) {
+                writeVarLong(out, i);
+                writeVarLong(out, histogram[start + i]);
+            }
+        }
+        writeVarLong(out, length);
+    }
+
+    private static void readBuckets(ByteBuffer in, long[] histogram, int start, int length) throws IOException {
+        for (long bucket = readVarLong(in); bucket != length; bucket = readVarLong(in)) {
+            if (bucket < 0 || bucket > length) {
+                throw new IOException("Malformed statistics");
+            }
+            histogram[start + (int) bucket] = readVarLong(in);
+        }
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            int b = in.get() & 0xFF;
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed statistics");
+    }
+}
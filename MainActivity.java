@@ -4,7 +4,6 @@ import android.widget.EditText;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import android.os.Bundle;
-import android.os.Handler;
 import android.view.View;
 import android.widget.Button;
 import android.widget.ImageView;
@@ -21,14 +20,24 @@ import java.util.HashMap;
 import java.util.Map;
 import android.util.Log;
 import java.util.Collections;
+import java.util.Date;
+import java.text.DateFormat;
 import android.widget.NumberPicker;
 
 public class MainActivity extends AppCompatActivity {
     private static final String TAG = "MainActivity";
+    // Decisions from the computer's trace shown under the game log
+    private static final int DECISIONS_SHOWN = 20;
+    // Saves listed per page of the load dialog
+    private static final int SAVES_PER_PAGE = 20;
+    // Game log entries shown per page
+    private static final int LOG_ENTRIES_PER_PAGE = 8;
     // UI Elements
     private TableLayout scorecardTable;
     private Map<String, TableRow> categoryRows;
     private ImageView[] diceViews;
+    // Face drawables for the dice row, decoded once
+    private DiceFaces diceFaces;
     private Button rollButton;
     private Button helpButton;
     private Button standButton;
@@ -40,24 +49,57 @@ public class MainActivity extends AppCompatActivity {
     private TextView scoreTextView;
     private TextView gameFeedbackText;
 
-    // Game State
+    // Game State, owned by the engine; this activity only shows it
+    private GameEngine engine;
     private Player humanPlayer;
     private ComputerPlayer computerPlayer;
-    private Player currentPlayer;
-    private Dice dice;
-    private int rollCount;
-    private StringBuilder gameLog;
-    private int roundNumber;
-    private boolean[] selectedDice;
-    private int[] lastScoringDice;  // Add this field to store dice values when scoring
+    // File I/O and the computer's turn planning run here, off the main thread
+    private GameExecutors executors;
+    // Autosave of every completed turn, written on the I/O thread
+    private TurnJournal journal;
+    // Index of the saves for the load dialog, used only on the I/O thread
+    private SaveCatalog catalog;
+    // Finished games, opened on the I/O thread when the first one is archived
+    private GameArchive archive;
+    // Statistics over every game on the device, read on the I/O thread with the first finished game
+    private LifetimeStats lifetimeStats;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
-        showStartupDialog();
+        executors = new GameExecutors();
+        journal = new TurnJournal(getFilesDir(), executors.ioExecutor());
+        catalog = new SaveCatalog(getFilesDir());
+        File dir = getFilesDir();
+        executors.io(() -> TurnJournal.recover(dir), this::showStartupDialog, e -> {
+            Log.w(TAG, "Could not read the autosave", e);
+            showStartupDialog(null);
+        });
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        journal.sync();
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        journal.close();
+        executors.ioExecutor().execute(() -> {
+            try {
+                if (archive != null) {
+                    archive.close();
+                }
+            } catch (IOException e) {
+                Log.w(TAG, "Could not close the game archive", e);
+            }
+        });
+        executors.shutdown();
     }
 
-    private void showStartupDialog() {
+    private void showStartupDialog(SavedGame autosave) {
         AlertDialog.Builder builder = new AlertDialog.Builder(this);
         builder.setTitle("Welcome to Yahtzee!")
                 .setMessage("Choose an option to begin")
@@ -69,28 +111,39 @@ public class MainActivity extends AppCompatActivity {
                 })
                 .setNegativeButton("Load Game", (dialog, which) -> {
                     setContentView(R.layout.activity_main_grid);
-                    dice = new Dice();  // Initialize dice
-                    diceViews = new ImageView[5];  // Initialize diceViews array
-                    humanPlayer = new Player("Human");
-                    computerPlayer = new ComputerPlayer();
-                    gameLog = new StringBuilder();
-                    selectedDice = new boolean[5];
+                    initializeGame();
                     setupUI();
                     loadGame();
                 })
-                .setCancelable(false)
-                .show();
+                .setCancelable(false);
+        if (autosave != null && !autosave.isGameOver()) {
+            final SavedGame unfinished = autosave;
+            builder.setNeutralButton("Resume", (dialog, which) -> {
+                setContentView(R.layout.activity_main_grid);
+                initializeGame();
+                setupUI();
+                unfinished.restore(engine);
+                startJournal();
+                showRestoredGame(unfinished);
+            });
+        }
+        builder.show();
     }
 
     private void initializeGame() {
-        dice = new Dice();
-        humanPlayer = new Player("Human");
-        computerPlayer = new ComputerPlayer();
-        Player.resetFilledCategories();
-        gameLog = new StringBuilder();
-        selectedDice = new boolean[5];
-        rollCount = 0;
-        roundNumber = 1;
+        CategoryBoard board = new CategoryBoard();
+        humanPlayer = new Player("Human", board);
+        computerPlayer = new ComputerPlayer("Computer", board);
+        // Recorded, so a saved game can be replayed away from the device with ReplayRunner
+        engine = GameEngine.recorded(humanPlayer, computerPlayer, new Random().nextLong());
+        startJournal();
+    }
+
+    /**
+     * Autosaves the engine's game from where it stands, turn by turn.
+     */
+    private void startJournal() {
+        journal.start(engine);
     }
 
     private void setupUI() {
@@ -101,6 +154,7 @@ public class MainActivity extends AppCompatActivity {
         diceViews[2] = findViewById(R.id.dice3);
         diceViews[3] = findViewById(R.id.dice4);
         diceViews[4] = findViewById(R.id.dice5);
+        diceFaces = new DiceFaces(this, diceViews);
 
         // Initialize buttons
         rollButton = findViewById(R.id.rollButton);
@@ -130,8 +184,7 @@ public class MainActivity extends AppCompatActivity {
         for (int i = 0; i < diceViews.length; i++) {
             final int diceIndex = i;
             diceViews[i].setOnClickListener(v -> {
-                if (currentPlayer == humanPlayer && rollCount > 0 && rollCount < 3) {
-                    selectedDice[diceIndex] = !selectedDice[diceIndex];
+                if (engine.getCurrentPlayer() == humanPlayer && engine.toggleHeld(diceIndex)) {
                     updateDiceSelection();
                 }
             });
@@ -149,7 +202,7 @@ public class MainActivity extends AppCompatActivity {
     }
 
     private void handleStandButton() {
-        if (currentPlayer != humanPlayer || rollCount == 0) {
+        if (engine.getCurrentPlayer() != humanPlayer || engine.getRollCount() == 0) {
             return;  // Only handle stand button for human player after at least one roll
         }
 
@@ -194,11 +247,10 @@ public class MainActivity extends AppCompatActivity {
         resultDialog.setTitle("Roll Result")
                 .setMessage(message)
                 .setPositiveButton("OK", (resultDlg, resultWhich) -> {
-                    if (humanRoll == computerRoll) {
-                        determineFirstPlayer();
-                    } else {
-                        currentPlayer = (humanRoll > computerRoll) ? humanPlayer : computerPlayer;
+                    if (engine.resolveFirstPlayer(humanRoll, computerRoll)) {
                         startTurn();
+                    } else {
+                        determineFirstPlayer();
                     }
                 })
                 .show();
@@ -231,31 +283,23 @@ public class MainActivity extends AppCompatActivity {
             // Update dice images when values change
             humanDiceValue.setOnValueChangedListener((picker, oldVal, newVal) -> {
                 if (humanDiceImage != null) {
-                    int resourceId = getResources().getIdentifier(
-                            "dice_" + newVal, "drawable", getPackageName());
-                    humanDiceImage.setImageResource(resourceId);
+                    humanDiceImage.setImageDrawable(diceFaces.newFace(newVal));
                 }
             });
             
             computerDiceValue.setOnValueChangedListener((picker, oldVal, newVal) -> {
                 if (computerDiceImage != null) {
-                    int resourceId = getResources().getIdentifier(
-                            "dice_" + newVal, "drawable", getPackageName());
-                    computerDiceImage.setImageResource(resourceId);
+                    computerDiceImage.setImageDrawable(diceFaces.newFace(newVal));
                 }
             });
             
             // Set initial dice images
             if (humanDiceImage != null) {
-                int resourceId = getResources().getIdentifier(
-                        "dice_" + humanDiceValue.getValue(), "drawable", getPackageName());
-                humanDiceImage.setImageResource(resourceId);
+                humanDiceImage.setImageDrawable(diceFaces.newFace(humanDiceValue.getValue()));
             }
             
             if (computerDiceImage != null) {
-                int resourceId = getResources().getIdentifier(
-                        "dice_" + computerDiceValue.getValue(), "drawable", getPackageName());
-                computerDiceImage.setImageResource(resourceId);
+                computerDiceImage.setImageDrawable(diceFaces.newFace(computerDiceValue.getValue()));
             }
         }
         
@@ -276,9 +320,8 @@ public class MainActivity extends AppCompatActivity {
     }
 
     private void startTurn() {
-        rollCount = 0;
         resetDiceSelections();
-        if (currentPlayer == computerPlayer) {
+        if (engine.isComputerTurn()) {
             handleComputerTurn();
         } else {
             handleHumanTurn();
@@ -294,250 +337,105 @@ public class MainActivity extends AppCompatActivity {
     }
 
     private void handleRollButton() {
-        if (rollCount >= 3) {
+        if (engine.getRollCount() >= Constants.MAX_ROLLS) {
             showMessage("Maximum rolls reached. Please select a category.");
             return;
         }
 
-        if (rollCount == 0) {
-            resetDiceSelections();
-            dice = new Dice();
-            dice.rollAll();
-        } else {
-            dice.roll(selectedDice);
-        }
-
-        rollCount++;
+        engine.roll();
         updateDiceImages();
         showAvailableCategories();
-
-        // Add this line:
         standButton.setEnabled(true);
 
         // Remove automatic category selection after third roll
-        if (rollCount == 3) {
+        if (engine.getRollCount() == Constants.MAX_ROLLS) {
             showMessage("Maximum rolls reached. Click 'Stand' to select a category.");
             rollButton.setEnabled(false);
         }
     }
 
-    private void rollDice() {
-        // Always ensure we have 5 dice before rolling
-        selectedDice = new boolean[Constants.DICE_COUNT];
-
-        if (rollCount == 0) {
-            // First roll - roll all dice
-            dice.rollAll();
-        } else {
-            // Subsequent rolls - respect held dice
-            dice.roll(selectedDice);
-        }
-
-        // Force display update for all dice
-        updateDiceImages();
-        showAvailableCategories();
-    }
-
     private void handleComputerTurn() {
         disableHumanTurnUI();
-        rollCount = 0;
         resetDiceSelections();
         continueButton.setVisibility(View.VISIBLE);
         continueButton.setText("Start Computer Turn");
         showMessage("Click 'Start Computer Turn' to begin Computer's turn");
     }
 
-    private void processComputerNextRoll() {
-        if (rollCount < 3 && computerPlayer.shouldRollAgain()) {
-            selectedDice = computerPlayer.getSelectedDice();  // Get computer's selections
-            AlertDialog.Builder builder = new AlertDialog.Builder(this);
-            builder.setTitle("Computer Reroll")
-                    .setMessage("Choose dice input method for reroll " + (rollCount + 1))
-                    .setPositiveButton("Random", (dialog, which) -> {
-                        dice.roll(selectedDice);
-                        rollCount++;
-                        computerPlayer.setRollCount(rollCount); // Update computer's roll count
-                        updateDiceImages();
-                        String analysis = computerPlayer.analyzeRoll(dice.getValues());
-                        showMessage("Computer's Analysis:\n" + analysis);
-
-                        if (rollCount < 3) {
-                            new Handler().postDelayed(() -> processComputerNextRoll(), 2000);
-                        } else {
-                            new Handler().postDelayed(() -> computerSelectCategory(), 1000);
-                        }
-                    })
-                    .setNegativeButton("Manual", (dialog, which) -> {
-                        // Store computer's selections before manual input
-                        selectedDice = computerPlayer.getSelectedDice();
-                        manualInputButton.setEnabled(true);
-                        showComputerManualDiceInput();  // Use the specialized method for computer
-                    })
-                    .show();
-        } else {
-            computerSelectCategory();
-        }
-    }
-
-    private void computerFirstRoll() {
-        dice.rollAll();
-        rollCount = 1;
-        computerPlayer.setRollCount(rollCount); // Update computer's roll count
-        updateDiceImages();
-
-        String analysis = computerPlayer.analyzeRoll(dice.getValues());
-        showMessage("Computer's Analysis:\n" + analysis);
-
-        new Handler().postDelayed(() -> {
-            if (computerPlayer.shouldRollAgain()) {
-                computerSecondRoll();
-            } else {
-                computerSelectCategory();
+    private void computerSelectCategory() {
+        runComputer(engine::computerSelectCategory, message -> {
+            // A null message means the computer wants to roll again
+            if (message == null) {
+                showComputerInputDialog();
+                return;
             }
-        }, 2000);
-    }
-
-    private void computerSecondRoll() {
-        // Similar to first roll but for second roll
-        dice.roll(computerPlayer.getSelectedDice());
-        rollCount = 2;
-        computerPlayer.setRollCount(rollCount); // Update computer's roll count
-        updateDiceImages();
-
-        String analysis = computerPlayer.analyzeRoll(dice.getValues());
-        showMessage("Computer's Analysis:\n" + analysis);
 
-        new Handler().postDelayed(() -> {
-            if (computerPlayer.shouldRollAgain()) {
-                computerFinalRoll();
-            } else {
-                computerSelectCategory();
-            }
-        }, 2000);
+            updateCategoryDisplays();
+            showMessage(message);
+            executors.postDelayed(this::endTurn, 1500);
+        });
     }
 
-    private void computerFinalRoll() {
-        dice.roll(computerPlayer.getSelectedDice());
-        rollCount = 3;
-        computerPlayer.setRollCount(rollCount); // Update computer's roll count
-        updateDiceImages();
-
-        new Handler().postDelayed(() -> {
-            computerSelectCategory();
-        }, 1000);
+    /**
+     * A step of the computer's turn, which changes the engine and so runs on the main thread.
+     */
+    private interface ComputerStep<T> {
+        T apply();
     }
 
-    private void computerSelectCategory() {
-        // Store the final dice values before computer's selection
-        lastScoringDice = dice.getValues().clone();
-
-        // First try to apply our Three of a Kind fix
-        if (rollCount == 3) { // Only apply on final roll
-            // Calculate scores for all available categories
-            List<String> availableCategories = computerPlayer.getAvailableCategories();
-            Map<String, Integer> rawScores = new HashMap<>();
-            for (String category : availableCategories) {
-                int score = Helper.calculateScore(category, dice.getValues());
-                rawScores.put(category, score);
-            }
-            
-            // Try Three of a Kind fixer first
-            String threeKindFixedCategory = ThreeOfAKindFixer.fixCategorySelection(dice.getValues(), rawScores, rollCount);
-            if (threeKindFixedCategory != null) {
-                int score = rawScores.get(threeKindFixedCategory);
-                computerPlayer.fillCategory(threeKindFixedCategory, score);
-                updateScorecardDisplay(threeKindFixedCategory, score, false, roundNumber);
-                showMessage("Computer selects " + threeKindFixedCategory + " for " + score + " points (Three of a Kind Fix)");
-                
-                new Handler().postDelayed(() -> {
-                    endTurn();
-                }, 1500);
-                return;
-            }
-        }
-
-        // Try to apply our direct fix for the Four of a Kind issue
-        String fixedCategory = null;
-        if (rollCount == 3) { // Only on final roll
-            fixedCategory = DirectFix.fixComputerChoice(dice.getValues(), computerPlayer.getAvailableCategories());
-        }
-        
-        // If our fix returned a category, use it
-        if (fixedCategory != null) {
-            String category = fixedCategory;
-            int score = Helper.calculateScore(category, dice.getValues());
-            computerPlayer.fillCategory(category, score);
-            updateScorecardDisplay(category, score, false, roundNumber);
-            showMessage("Computer selects " + category + " for " + score + " points");
-            
-            new Handler().postDelayed(() -> {
-                endTurn();
-            }, 1500);
-            return;
-        }
-        
-        // Otherwise, continue with normal logic
-        String category = computerPlayer.selectCategory(dice.getValues());
+    /**
+     * Plans the computer's turn on the compute thread from a copy of its scorecard, then
+     * applies the step to the engine back on the main thread, holding the continue button
+     * in between. Only the engine the step was started on is changed; if a game was loaded
+     * in the meantime, the step is dropped.
+     */
+    private <T> void runComputer(ComputerStep<T> step, GameExecutors.Callback<T> onResult) {
+        GameEngine stepEngine = engine;
+        ComputerPlayer computer = computerPlayer;
+        boolean optimal = computer.getMode() == ComputerPlayer.Mode.OPTIMAL;
+        int filledMask = computer.getBoard().getFilledMask();
+        int upper = computer.getUpperSectionScore();
+        continueButton.setEnabled(false);
+        executors.compute(() -> optimal ? SolitaireSolver.getDefault().keepOptimizer(filledMask, upper) : null,
+                optimizer -> {
+                    continueButton.setEnabled(true);
+                    if (engine != stepEngine) {
+                        return;
+                    }
+                    if (optimizer != null) {
+                        computer.useOptimalTurn(optimizer, filledMask, upper);
+                    }
+                    onResult.onResult(step.apply());
+                });
+    }
 
-        // If category is null, computer wants to roll again
-        if (category == null) {
-            if (rollCount < 3) {
-                selectedDice = computerPlayer.getSelectedDice();
-                showComputerInputDialog();
-                return;
-            }
-            // If we're on our last roll and no valid category was found, pass turn to next player
-            List<String> availableCategories = computerPlayer.getAvailableCategories();
-            boolean hasValidScore = false;
-            for (String availableCategory : availableCategories) {
-                if (Helper.calculateScore(availableCategory, dice.getValues()) > 0) {
-                    hasValidScore = true;
-                    break;
-                }
-            }
-            if (!hasValidScore) {
-                showMessage("Computer has no valid scoring categories. Turn passes to next player.");
-                endTurn();
-                return;
-            }
-            // If we have at least one valid scoring category, select the best one
-            for (String availableCategory : availableCategories) {
-                int score = Helper.calculateScore(availableCategory, dice.getValues());
-                if (score > 0) {
-                    category = availableCategory;
-                    break;
-                }
+    /**
+     * Rolls or sets the computer's dice and shows its analysis.
+     */
+    private void analyzeComputerRoll(ComputerStep<RollAnalysis> roll) {
+        runComputer(roll, analysis -> {
+            updateUI();
+            showAvailableCategories();
+            showMessage("Computer's Analysis:\n" + analysis.getText());
+
+            if (engine.getRollCount() < Constants.MAX_ROLLS && engine.computerWantsToRoll()) {
+                continueButton.setText("Continue to Roll " + (engine.getRollCount() + 1));
+                continueButton.setVisibility(View.VISIBLE);
+            } else {
+                continueButton.setText("Select Category");
+                continueButton.setVisibility(View.VISIBLE);
             }
-        }
-
-        int score = Helper.calculateScore(category, dice.getValues());
-        computerPlayer.fillCategory(category, score);
-        updateScorecardDisplay(category, score, false, roundNumber);
-        showMessage("Computer selects " + category + " for " + score + " points");
-
-        new Handler().postDelayed(() -> {
-            endTurn();
-        }, 1500);
+        });
     }
 
     private void promptForCategorySelection() {
-        // Store the final dice values before showing dialog
-        lastScoringDice = dice.getValues().clone();
-
-        List<String> availableCategories = currentPlayer.getAvailableCategories();
-        List<String> scoringCategories = new ArrayList<>();
-
-        // Only include categories where the player can score points
-        for (String category : availableCategories) {
-            int score = Helper.calculateScore(category, dice.getValues());
-            if (score > 0) {
-                scoringCategories.add(category);
-            }
-        }
+        engine.stand();
+        List<String> scoringCategories = engine.getScoringCategories();
 
         // If no categories can score points, show a message and pass turn to next player
         if (scoringCategories.isEmpty()) {
             showMessage("No valid scoring categories available. Turn passes to next player.");
+            engine.passTurn();
             endTurn();
             return;
         }
@@ -548,9 +446,8 @@ public class MainActivity extends AppCompatActivity {
         builder.setTitle("Select Category");
         builder.setItems(categories, (dialog, which) -> {
             String selectedCategory = categories[which];
-            int score = Helper.calculateScore(selectedCategory, dice.getValues());
-            currentPlayer.fillCategory(selectedCategory, score);
-            updateScorecardDisplay(selectedCategory, score, currentPlayer == humanPlayer, roundNumber);
+            int score = engine.scoreCategory(selectedCategory);
+            updateCategoryDisplays();
             showMessage("Scored " + score + " points in " + selectedCategory);
             endTurn();
         });
@@ -559,52 +456,58 @@ public class MainActivity extends AppCompatActivity {
 
     private void endTurn() {
         updateScoreDisplay();
-        logTurn();
+        engine.endTurn();
+        if (journal.getError() != null) {
+            Log.w(TAG, "Autosave stopped", journal.getError());
+        }
 
-        if (isGameOver()) {
+        if (engine.isGameOver()) {
+            journal.discard();
+            archiveGame();
             endGame();
         } else {
-            switchPlayers();
             startTurn();
         }
     }
 
-    private void switchPlayers() {
-        // Simply alternate between players
-        currentPlayer = (currentPlayer == humanPlayer) ? computerPlayer : humanPlayer;
-
-        // Reset dice selections when switching players to avoid inheriting from previous player
-        resetDiceSelections();
-        
-        // If switching to computer player, also reset its internal selection state
-        if (currentPlayer == computerPlayer) {
-            computerPlayer.resetDiceSelections();
-        }
-
-        // Only increment round number after both players have gone
-        if (currentPlayer == computerPlayer) {  // Start of new round
-            roundNumber++;
-        }
-    }
+    /**
+     * Adds the finished game to the archive and the lifetime statistics on the I/O thread.
+     */
+    private void archiveGame() {
+        byte[] record = GameArchive.encode(engine);
+        File file = new File(getFilesDir(), GameArchive.FILE_NAME);
+        executors.io(() -> {
+            if (archive == null) {
+                archive = new GameArchive(file);
+            }
+            archive.append(record);
+            archive.flush();
 
-    private boolean isGameOver() {
-        return humanPlayer.allCategoriesFilled() || computerPlayer.allCategoriesFilled();
+            File statsFile = new File(getFilesDir(), LifetimeStats.FILE_NAME);
+            if (lifetimeStats == null) {
+                lifetimeStats = LifetimeStats.read(statsFile);
+            }
+            lifetimeStats.record(GameArchive.Record.wrap(record));
+            lifetimeStats.write(statsFile);
+            return null;
+        }, done -> { }, e -> Log.w(TAG, "Could not archive the game", e));
     }
 
     private void endGame() {
         int humanScore = humanPlayer.getTotalScore();
         int computerScore = computerPlayer.getTotalScore();
-        String winner = humanScore > computerScore ? "Human" :
-                humanScore < computerScore ? "Computer" : "Tie";
+        Player winner = engine.getWinner();
 
         AlertDialog.Builder builder = new AlertDialog.Builder(this);
         builder.setTitle("Game Over");
         builder.setMessage("Final Scores:\n" +
                 "Human: " + humanScore + "\n" +
                 "Computer: " + computerScore + "\n\n" +
-                (winner.equals("Tie") ? "It's a tie!" : winner + " wins!"));
+                (winner == null ? "It's a tie!" : winner.getName() + " wins!"));
         builder.setPositiveButton("New Game", (dialog, which) -> {
             initializeGame();
+            updateCategoryDisplays();
+            updateUI();
             determineFirstPlayer();
         });
         builder.setNegativeButton("Exit", (dialog, which) -> finish());
@@ -612,37 +515,47 @@ public class MainActivity extends AppCompatActivity {
     }
 
     private void showHelp() {
-        if (currentPlayer != humanPlayer) return;
-
-        String helpText = Helper.getAdvice(dice.getValues(),
-                selectedDice,
-                rollCount,
-                humanPlayer.getAvailableCategories(),
-                humanPlayer.getScores());
-        showMessage("Help", helpText);
+        if (engine.getCurrentPlayer() != humanPlayer) return;
+
+        // Copied here; the advice search runs on the compute thread
+        int[] values = engine.getDice().getValues();
+        boolean[] held = engine.getHeldDice().clone();
+        int rollCount = engine.getRollCount();
+        List<String> available = new ArrayList<>(humanPlayer.getAvailableCategories());
+        Map<String, Integer> scores = new HashMap<>(humanPlayer.getScores());
+        executors.compute(() -> Helper.getAdvice(values, held, rollCount, available, scores),
+                helpText -> showMessage("Help", helpText));
     }
 
     private void showGameLog() {
-        showMessage("Game Log", gameLog.toString());
+        TurnLog log = engine.getTurnLog();
+        showGameLogPage(Math.max(log.firstAvailable(), log.size() - LOG_ENTRIES_PER_PAGE));
     }
 
-    private void logTurn() {
-        gameLog.append("Round ").append(roundNumber).append(": ")
-                .append(currentPlayer == humanPlayer ? "Human" : "Computer")
-                .append("'s Turn\n");
-
-        // Only show dice information if we have it (new games)
-        if (lastScoringDice != null) {
-            gameLog.append("Dice Rolled: ");
-            for (int value : lastScoringDice) {
-                gameLog.append(value).append(" ");
-            }
-            gameLog.append("\n");
+    /**
+     * Shows the log entries from 'from' on; only this page is rendered. The newest page
+     * also has the computer's recent decisions.
+     */
+    private void showGameLogPage(int from) {
+        TurnLog log = engine.getTurnLog();
+        int to = Math.min(log.size(), from + LOG_ENTRIES_PER_PAGE);
+        String text = log.render(from, to - from);
+        if (to == log.size()) {
+            text += "Computer's recent decisions:\n" + computerPlayer.getTrace().render(DECISIONS_SHOWN);
         }
 
-        gameLog.append("Scored ").append(currentPlayer.getLastScore())
-                .append(" points in ").append(currentPlayer.getLastCategory())
-                .append("\n\n");
+        AlertDialog.Builder builder = new AlertDialog.Builder(this);
+        builder.setTitle("Game Log")
+                .setMessage(text)
+                .setPositiveButton("OK", null);
+        if (from > log.firstAvailable()) {
+            builder.setNegativeButton("Earlier",
+                    (dialog, which) -> showGameLogPage(Math.max(log.firstAvailable(), from - LOG_ENTRIES_PER_PAGE)));
+        }
+        if (to < log.size()) {
+            builder.setNeutralButton("Later", (dialog, which) -> showGameLogPage(to));
+        }
+        builder.show();
     }
 
     private void updateUI() {
@@ -652,15 +565,7 @@ public class MainActivity extends AppCompatActivity {
     }
 
     private void updateDiceImages() {
-        int[] values = dice.getValues();
-        // Always show and update all 5 dice
-        for (int i = 0; i < Constants.DICE_COUNT; i++) {
-            diceViews[i].setVisibility(View.VISIBLE);
-            int resourceId = getResources().getIdentifier(
-                    "dice_" + values[i], "drawable", getPackageName());
-            diceViews[i].setImageResource(resourceId);
-            diceViews[i].setAlpha(selectedDice[i] ? 0.5f : 1.0f);
-        }
+        diceFaces.update(engine.getDice(), engine.getHeldDice());
     }
 
     private void updateScoreDisplay() {
@@ -669,7 +574,8 @@ public class MainActivity extends AppCompatActivity {
     }
 
     private void updateButtonStates() {
-        boolean isHumanTurn = currentPlayer == humanPlayer;
+        boolean isHumanTurn = engine.getCurrentPlayer() == humanPlayer;
+        int rollCount = engine.getRollCount();
 
         // Handle roll and stand buttons
         if (isHumanTurn) {
@@ -731,22 +637,19 @@ public class MainActivity extends AppCompatActivity {
     }
 
     private void resetDiceSelections() {
-        for (int i = 0; i < selectedDice.length; i++) {
-            selectedDice[i] = false;
-        }
+        engine.clearSelections();
         updateDiceSelection();
     }
 
     private void updateDiceSelection() {
-        for (int i = 0; i < diceViews.length; i++) {
-            diceViews[i].setAlpha(selectedDice[i] ? 0.5f : 1.0f);
-        }
+        diceFaces.updateHeld(engine.getHeldDice());
     }
 
     private void showAvailableCategories() {
         StringBuilder categories = new StringBuilder("Available Categories:\n");
-        for (String category : currentPlayer.getAvailableCategories()) {
-            int potentialScore = Helper.calculateScore(category, dice.getValues());
+        int hand = engine.getDice().getHand();
+        for (String category : engine.getCurrentPlayer().getAvailableCategories()) {
+            int potentialScore = Helper.calculateScore(category, hand);
             categories.append(category)
                     .append(": ")
                     .append(potentialScore)
@@ -764,154 +667,144 @@ public class MainActivity extends AppCompatActivity {
                 .setView(input)
                 .setPositiveButton("Save", (dialog, which) -> {
                     String fileName = input.getText().toString();
-                    if (!fileName.endsWith(".dat")) {
-                        fileName += ".dat";
+                    if (!fileName.endsWith(SaveCatalog.SAVE_SUFFIX)) {
+                        fileName += SaveCatalog.SAVE_SUFFIX;
                     }
 
-                    try {
-                        File file = new File(getFilesDir(), fileName);
-                        BufferedWriter writer = new BufferedWriter(new FileWriter(file));
-
-                        // Write round number
-                        writer.write("Round: " + roundNumber + "\n\n");
-                        writer.write("Scorecard:\n");
-
-                        // Write scorecard data with correct round info and player ownership
-                        for (String category : Constants.CATEGORIES) {
-                            TableRow row = categoryRows.get(category);
-                            if (row == null) continue;
-                            
-                            // Extract round information from UI
-                            TextView roundView = (TextView) row.getChildAt(3);
-                            String roundText = roundView.getText().toString();
-                            int round = "-".equals(roundText) ? roundNumber : Integer.parseInt(roundText);
-                            
-                            // Get scores from both human and computer players
-                            int humanScore = 0;
-                            int computerScore = 0;
-                            
-                            // Check human score
-                            TextView humanScoreView = (TextView) row.getChildAt(1);
-                            String humanScoreText = humanScoreView.getText().toString();
-                            if (!"-".equals(humanScoreText)) {
-                                humanScore = Integer.parseInt(humanScoreText);
-                            }
-                            
-                            // Check computer score
-                            TextView computerScoreView = (TextView) row.getChildAt(2);
-                            String computerScoreText = computerScoreView.getText().toString();
-                            if (!"-".equals(computerScoreText)) {
-                                computerScore = Integer.parseInt(computerScoreText);
-                            }
-                            
-                            // Write the appropriate score based on who filled the category
-                            if (!"-".equals(humanScoreText)) {
-                                writer.write(humanScore + " Human " + round + "\n");
-                            } else if (!"-".equals(computerScoreText)) {
-                                writer.write(computerScore + " Computer " + round + "\n");
-                            } else {
-                                writer.write("0\n");
-                            }
+                    // Snapshot the game here and write it on the I/O thread
+                    SavedGame save = SavedGame.of(engine);
+                    // Inputs of the game so far, checked against where it stands now when replayed
+                    InputLog inputs = engine.getInputLog();
+                    inputs.setOutcome(engine.fingerprint());
+                    byte[] replay = inputs.toByteArray();
+                    File file = new File(getFilesDir(), fileName);
+                    String baseName = fileName.substring(0, fileName.length() - SaveCatalog.SAVE_SUFFIX.length());
+                    File replayFile = new File(getFilesDir(), baseName + ".replay");
+                    long savedAt = System.currentTimeMillis();
+                    executors.io(() -> {
+                        save.write(file);
+                        catalog.put(file.getName(), savedAt, save);
+                        FileOutputStream out = new FileOutputStream(replayFile);
+                        try {
+                            out.write(replay);
+                        } finally {
+                            out.close();
                         }
-
-                        writer.close();
-                        showMessage("Game saved successfully!");
-
-                    } catch (IOException e) {
-                        showMessage("Error saving game: " + e.getMessage());
-                    }
+                        return null;
+                    }, done -> showMessage("Game saved successfully!"),
+                            e -> showMessage("Error saving game: " + e.getMessage()));
                 })
                 .setNegativeButton("Cancel", null)
                 .show();
     }
 
     private void loadGame() {
-        File[] saves = getFilesDir().listFiles((dir, name) -> name.endsWith(".dat"));
-        if (saves == null || saves.length == 0) {
+        showSavePage(0);
+    }
+
+    /**
+     * Lists one page of saves from the catalog, newest first, without opening the saves.
+     */
+    private void showSavePage(int page) {
+        // One more than a page, to tell whether there are older saves
+        executors.io(() -> catalog.list(page * SAVES_PER_PAGE, SAVES_PER_PAGE + 1),
+                entries -> chooseSave(page, entries), e -> showMessage("Error loading game: " + e.getMessage()));
+    }
+
+    private void chooseSave(int page, List<SaveCatalog.Entry> listed) {
+        if (listed.isEmpty()) {
             showMessage("No saved games found");
             return;
         }
-
-        String[] fileNames = new String[saves.length];
-        for (int i = 0; i < saves.length; i++) {
-            fileNames[i] = saves[i].getName();
+        boolean hasOlder = listed.size() > SAVES_PER_PAGE;
+        List<SaveCatalog.Entry> entries = hasOlder ? listed.subList(0, SAVES_PER_PAGE) : listed;
+
+        DateFormat format = DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT);
+        String[] labels = new String[entries.size()];
+        for (int i = 0; i < labels.length; i++) {
+            SaveCatalog.Entry entry = entries.get(i);
+            labels[i] = entry.getFileName() + "\nRound " + entry.getRound()
+                    + ", Human " + entry.getTotal(0) + " vs Computer " + entry.getTotal(1)
+                    + ", " + (entry.getFilled(0) + entry.getFilled(1)) + "/" + Category.COUNT + " filled"
+                    + ", " + format.format(new Date(entry.getSavedAt()));
         }
 
         AlertDialog.Builder builder = new AlertDialog.Builder(this);
         builder.setTitle("Select Save File")
-                .setItems(fileNames, (dialog, which) -> {
-                    try {
-                        BufferedReader reader = new BufferedReader(new FileReader(saves[which]));
-
-                        // Read round number
-                        String roundLine = reader.readLine();
-                        roundNumber = Integer.parseInt(roundLine.split(": ")[1]);
-
-                        // Skip empty line and "Scorecard:" line
-                        reader.readLine();
-                        reader.readLine();
-
-                        // Reset players
-                        humanPlayer = new Player("Human");
-                        computerPlayer = new ComputerPlayer();
-                        Player.resetFilledCategories();
-                        gameLog = new StringBuilder();
-
-                        // Read scorecard data and update UI
-                        int categoryIndex = 0;
-                        for (String category : Constants.CATEGORIES) {
-                            String line = reader.readLine();
-                            if (line == null) break;
-
-                            String[] parts = line.split(" ");
-                            if (parts.length > 1) {
-                                int score = Integer.parseInt(parts[0]);
-                                int round = Integer.parseInt(parts[2]);
-                                if (parts[1].equals("Human")) {
-                                    humanPlayer.fillCategory(category, score);
-                                    updateScorecardDisplay(category, score, true, round);
-                                    gameLog.append("Round ").append(round).append(": Human scored ")  // Add these
-                                            .append(score).append(" points in ").append(category)      // three
-                                            .append("\n");                                            // lines
-                                } else if (parts[1].equals("Computer")) {
-                                    computerPlayer.fillCategory(category, score);
-                                    updateScorecardDisplay(category, score, false, round);
-                                    gameLog.append("Round ").append(round).append(": Computer scored ")  // Add these
-                                            .append(score).append(" points in ").append(category)         // three
-                                            .append("\n");                                               // lines
-                                }
-                            }
-                            categoryIndex++;
-                        }
-
+                .setItems(labels, (dialog, which) -> {
+                    String fileName = entries.get(which).getFileName();
+                    File file = new File(getFilesDir(), fileName);
+                    executors.io(() -> SavedGame.read(file), save -> {
+                        // Start a fresh game and put the saved one into it
+                        initializeGame();
+                        save.restore(engine);
+                        startJournal();
+                        showRestoredGame(save);
+                    }, e -> {
+                        // The save has gone or is damaged; stop listing it
+                        executors.io(() -> {
+                            catalog.remove(fileName);
+                            return null;
+                        }, done -> { }, removeError -> Log.w(TAG, "Could not update the save catalog", removeError));
+                        showMessage("Error loading game: " + e.getMessage());
+                    });
+                })
+                .setNegativeButton("Cancel", null);
+        if (hasOlder) {
+            builder.setPositiveButton("Older", (dialog, which) -> showSavePage(page + 1));
+        }
+        if (page > 0) {
+            builder.setNeutralButton("Newer", (dialog, which) -> showSavePage(page - 1));
+        }
+        builder.show();
+    }
 
-                        reader.close();
-                        updateUI();
+    /**
+     * Shows a game just put back into the engine and carries on from where it was saved.
+     */
+    private void showRestoredGame(SavedGame save) {
+        updateCategoryDisplays();
+        updateUI();
 
-                        // Determine first player based on scores
-                        int humanScore = humanPlayer.getTotalScore();
-                        int computerScore = computerPlayer.getTotalScore();
-
-                        if (computerScore < humanScore) {
-                            currentPlayer = computerPlayer;
-                            showMessage("Computer plays first with score " + computerScore + " vs Human " + humanScore);
-                            handleComputerTurn();
-                        } else if (humanScore < computerScore) {
-                            currentPlayer = humanPlayer;
-                            showMessage("Human plays first with score " + humanScore + " vs Computer " + computerScore);
-                            enableHumanTurnUI();
-                        } else {
-                            determineFirstPlayer();
-                        }
+        int humanScore = humanPlayer.getTotalScore();
+        int computerScore = computerPlayer.getTotalScore();
+        if (engine.getState() == TurnState.INITIAL_TOSS) {
+            determineFirstPlayer();
+        } else if (engine.getRollCount() > 0) {
+            continueLoadedTurn();
+        } else {
+            startTurn();
+            // Old saves have no turn: the player behind on points goes first
+            if (!save.hasTurn() && engine.getCurrentPlayer() == computerPlayer) {
+                showMessage("Computer plays first with score " + computerScore + " vs Human " + humanScore);
+            } else if (!save.hasTurn()) {
+                showMessage("Human plays first with score " + humanScore + " vs Computer " + computerScore);
+            }
+        }
 
-                        updateButtonStates();
+        updateButtonStates();
+    }
 
-                    } catch (IOException e) {
-                        showMessage("Error loading game: " + e.getMessage());
-                    }
-                })
-                .setNegativeButton("Cancel", null)
-                .show();
+    /**
+     * Shows a turn that was saved after one or more rolls, ready to carry on.
+     */
+    private void continueLoadedTurn() {
+        updateDiceImages();
+        if (engine.isComputerTurn()) {
+            disableHumanTurnUI();
+            if (engine.getRollCount() < Constants.MAX_ROLLS && engine.computerWantsToRoll()) {
+                continueButton.setText("Continue to Roll " + (engine.getRollCount() + 1));
+            } else {
+                continueButton.setText("Select Category");
+            }
+            continueButton.setVisibility(View.VISIBLE);
+        } else {
+            enableHumanTurnUI();
+            updateDiceSelection();
+            showAvailableCategories();
+            continueButton.setVisibility(View.GONE);
+        }
+        updateUI();
     }
 
     private void showManualDiceInput() {
@@ -921,8 +814,10 @@ public class MainActivity extends AppCompatActivity {
         // Track selected values for each die
         int[] selectedValues = new int[5];
         
-        // Save the current dice values for reference
-        int[] currentDiceValues = dice.getValues();
+        // Save the current dice values and holds for reference
+        int[] currentDiceValues = engine.getDice().getValues();
+        boolean[] selectedDice = engine.getHeldDice();
+        int rollCount = engine.getRollCount();
 
         // Setup click listeners for all dice images
         for (int diePosition = 1; diePosition <= 5; diePosition++) {
@@ -957,7 +852,7 @@ public class MainActivity extends AppCompatActivity {
                     });
 
                     // Special handling for computer player
-                    if (rollCount > 0 && currentPlayer == computerPlayer) {
+                    if (rollCount > 0 && engine.getCurrentPlayer() == computerPlayer) {
                         // Check if current position's die should be kept (selectedDice[pos-1] is true)
                         boolean isDicePositionHeld = selectedDice[diePosition - 1];
                         
@@ -981,7 +876,7 @@ public class MainActivity extends AppCompatActivity {
                         // Regular handling for human player or first roll
                         if (rollCount > 0 && selectedDice[diePosition - 1]) {
                             dieImage.setEnabled(false);
-                            if (dice.getValues()[diePosition - 1] == value) {
+                            if (currentDiceValues[diePosition - 1] == value) {
                                 dieImage.setAlpha(1.0f);
                                 selectedValues[diePosition - 1] = value;
                             } else {
@@ -1007,24 +902,12 @@ public class MainActivity extends AppCompatActivity {
                         }
                     }
 
-                    if (allSelected) {
-                        dice.setManualValues(selectedValues);
-                        rollCount++;
+                    if (allSelected && engine.getCurrentPlayer() == computerPlayer) {
+                        analyzeComputerRoll(() -> engine.setDice(selectedValues));
+                    } else if (allSelected) {
+                        engine.setDice(selectedValues);
                         updateUI();
                         showAvailableCategories();
-
-                        if (currentPlayer == computerPlayer) {
-                            String analysis = computerPlayer.analyzeRoll(dice.getValues());
-                            showMessage("Computer's Analysis:\n" + analysis);
-
-                            if (rollCount < 3) {
-                                continueButton.setText("Continue to Roll " + (rollCount + 1));
-                                continueButton.setVisibility(View.VISIBLE);
-                            } else {
-                                continueButton.setText("Select Category");
-                                continueButton.setVisibility(View.VISIBLE);
-                            }
-                        }
                     } else {
                         showMessage("Please select a value for each die");
                         showManualDiceInput();
@@ -1035,18 +918,17 @@ public class MainActivity extends AppCompatActivity {
     }
 
     private void handleContinueButton() {
-        if (currentPlayer == computerPlayer) {
-            if (rollCount == 0) {
+        if (engine.isComputerTurn()) {
+            if (engine.getRollCount() == 0) {
                 showComputerInputDialog();
-            } else if (rollCount < 3 && computerPlayer.shouldRollAgain()) {
-                selectedDice = computerPlayer.getSelectedDice();
+            } else if (engine.getRollCount() < Constants.MAX_ROLLS && engine.computerWantsToRoll()) {
                 showComputerInputDialog();
             } else {
                 computerSelectCategory();
             }
         } else {
             // Human player turn
-            if (rollCount == 0) {
+            if (engine.getRollCount() == 0) {
                 // First roll
                 resetDiceSelections();
                 rollButton.setEnabled(true);  // Enable roll button
@@ -1060,28 +942,8 @@ public class MainActivity extends AppCompatActivity {
     private void showComputerInputDialog() {
         AlertDialog.Builder builder = new AlertDialog.Builder(this);
         builder.setTitle("Computer Turn")
-                .setMessage("Choose dice input method for roll " + (rollCount + 1))
-                .setPositiveButton("Random", (dialog, which) -> {
-                    if (rollCount == 0) {
-                        dice = new Dice();
-                        dice.rollAll();
-                    } else {
-                        dice.roll(selectedDice);
-                    }
-                    rollCount++;
-                    computerPlayer.setRollCount(rollCount); // Update computer's roll count
-                    updateDiceImages();
-                    String analysis = computerPlayer.analyzeRoll(dice.getValues());
-                    showMessage("Computer's Analysis:\n" + analysis);
-
-                    if (rollCount < 3 && computerPlayer.shouldRollAgain()) {
-                        continueButton.setText("Continue to Roll " + (rollCount + 1));
-                        continueButton.setVisibility(View.VISIBLE);
-                    } else {
-                        continueButton.setText("Select Category");
-                        continueButton.setVisibility(View.VISIBLE);
-                    }
-                })
+                .setMessage("Choose dice input method for roll " + (engine.getRollCount() + 1))
+                .setPositiveButton("Random", (dialog, which) -> analyzeComputerRoll(engine::roll))
                 .setNegativeButton("Manual", (dialog, which) -> {
                     manualInputButton.setEnabled(true);
                     showComputerManualDiceInput();  // Use the specialized method
@@ -1197,15 +1059,18 @@ public class MainActivity extends AppCompatActivity {
         scorecardTable.addView(totalRow);
     }
 
-    private void updateScorecardDisplay(String category, int score, boolean isHuman, int round) {
-        TableRow row = categoryRows.get(category);
-        if (row != null) {
-            TextView scoreView = (TextView) row.getChildAt(isHuman ? 1 : 2);
-            scoreView.setText(String.valueOf(score));
-            TextView roundView = (TextView) row.getChildAt(3);
-            roundView.setText(String.valueOf(round));
-            updateTotalScores();
+    // Shows every category's score and round as the engine has them
+    private void updateCategoryDisplays() {
+        for (int i = 0; i < Constants.CATEGORIES.length; i++) {
+            TableRow row = categoryRows.get(Constants.CATEGORIES[i]);
+            if (row == null) continue;
+            Player owner = engine.getCategoryOwner(i);
+            String score = owner == null ? "-" : String.valueOf(owner.getScore(Constants.CATEGORIES[i]));
+            ((TextView) row.getChildAt(1)).setText(owner == humanPlayer ? score : "-");
+            ((TextView) row.getChildAt(2)).setText(owner == computerPlayer ? score : "-");
+            ((TextView) row.getChildAt(3)).setText(owner == null ? "-" : String.valueOf(engine.getCategoryRound(i)));
         }
+        updateTotalScores();
     }
 
     private void updateTotalScores() {
@@ -1225,8 +1090,9 @@ public class MainActivity extends AppCompatActivity {
         // Track selected values for each die
         int[] selectedValues = new int[5];
         
-        // Get current dice values
-        int[] currentDiceValues = dice.getValues();
+        // Get current dice values and the computer's holds
+        int[] currentDiceValues = engine.getDice().getValues();
+        boolean[] selectedDice = engine.getHeldDice();
         
         // Get the strategy from the computer player to display in the dialog
         String strategy = computerPlayer.getCurrentStrategy();
@@ -1358,21 +1224,7 @@ public class MainActivity extends AppCompatActivity {
                     }
 
                     if (allSelected) {
-                        dice.setManualValues(selectedValues);
-                        rollCount++;
-                        updateUI();
-                        showAvailableCategories();
-
-                        String analysis = computerPlayer.analyzeRoll(dice.getValues());
-                        showMessage("Computer's Analysis:\n" + analysis);
-
-                        if (rollCount < 3) {
-                            continueButton.setText("Continue to Roll " + (rollCount + 1));
-                            continueButton.setVisibility(View.VISIBLE);
-                        } else {
-                            continueButton.setText("Select Category");
-                            continueButton.setVisibility(View.VISIBLE);
-                        }
+                        analyzeComputerRoll(() -> engine.setDice(selectedValues));
                     } else {
                         showMessage("Please select a value for each die");
                         showComputerManualDiceInput();
@@ -8,30 +8,27 @@ import java.util.Map;
 public class Player {
     protected String name;
     protected boolean isHuman;
-    protected Map<String, Integer> scorecard;
-    // Make filledCategories static so it's shared across all players
-    protected static Map<String, Boolean> filledCategories = new HashMap<>();
+    // Score per category, indexed by Category ordinal
+    protected int[] scorecard;
+    // Categories this player has scored
+    protected int scoredMask;
+    // Categories filled by either player in this game
+    protected final CategoryBoard board;
     protected String lastCategory;
     protected int lastScore;
 
     public Player(String name) {
+        this(name, CategoryBoard.SHARED);
+    }
+
+    public Player(String name, CategoryBoard board) {
         this.name = name;
+        this.board = board;
         this.isHuman = true;
-        this.scorecard = new HashMap<>();
+        this.scorecard = new int[Category.COUNT];
+        this.scoredMask = 0;
         this.lastCategory = "";
         this.lastScore = 0;
-        initializeScorecard();
-    }
-
-    private void initializeScorecard() {
-        // Initialize all categories with zero score
-        for (String category : Constants.CATEGORIES) {
-            scorecard.put(category, 0);
-            // Only initialize filledCategories if it hasn't been initialized by another player
-            if (!filledCategories.containsKey(category)) {
-                filledCategories.put(category, false);
-            }
-        }
     }
 
     public String getName() {
@@ -42,54 +39,99 @@ public class Player {
         this.name = name;
     }
 
+    /**
+     * Mask of the categories nobody has filled yet.
+     */
+    public int getAvailableMask() {
+        return ~board.getFilledMask() & Category.ALL_MASK;
+    }
+
+    public boolean isCategoryAvailable(int category) {
+        return !board.isFilled(category);
+    }
+
+    public boolean isCategoryAvailable(Category category) {
+        return isCategoryAvailable(category.ordinal());
+    }
+
+    // String adapter for the UI
     public List<String> getAvailableCategories() {
         List<String> available = new ArrayList<>();
-        for (String category : Constants.CATEGORIES) {
-            if (!filledCategories.get(category)) {
-                available.add(category);
-            }
+        for (int m = getAvailableMask(); m != 0; m &= m - 1) {
+            available.add(Constants.CATEGORIES[Integer.numberOfTrailingZeros(m)]);
         }
         return available;
     }
 
     public boolean isCategoryFilled(String category) {
-        return filledCategories.getOrDefault(category, false);
+        int index = Constants.getCategoryIndex(category);
+        return index >= 0 && board.isFilled(index);
     }
 
     public void fillCategory(String category, int score) {
-        if (!isCategoryFilled(category)) {
-            scorecard.put(category, score);
-            filledCategories.put(category, true);
-            lastCategory = category;
+        int index = Constants.getCategoryIndex(category);
+        if (index >= 0) {
+            fillCategory(index, score);
+        }
+    }
+
+    public void fillCategory(Category category, int score) {
+        fillCategory(category.ordinal(), score);
+    }
+
+    public void fillCategory(int category, int score) {
+        if (!board.isFilled(category)) {
+            scorecard[category] = score;
+            scoredMask |= 1 << category;
+            board.setFilled(category, true);
+            lastCategory = Constants.CATEGORIES[category];
             lastScore = score;
         }
     }
 
     // Add method to reset filled categories (useful for new games)
     public static void resetFilledCategories() {
-        filledCategories.clear();
-        for (String category : Constants.CATEGORIES) {
-            filledCategories.put(category, false);
-        }
+        CategoryBoard.SHARED.reset();
+    }
+
+    public CategoryBoard getBoard() {
+        return board;
     }
 
     public int getScore(String category) {
-        return scorecard.getOrDefault(category, 0);
+        int index = Constants.getCategoryIndex(category);
+        return index >= 0 ? scorecard[index] : 0;
+    }
+
+    public int getScore(Category category) {
+        return scorecard[category.ordinal()];
+    }
+
+    /**
+     * Mask of the categories this player has scored.
+     */
+    public int getScoredMask() {
+        return scoredMask;
     }
 
     public int getTotalScore() {
         int total = 0;
-        for (int score : scorecard.values()) {
+        for (int score : scorecard) {
             total += score;
         }
         return total;
     }
 
-    public boolean allCategoriesFilled() {
-        for (boolean filled : filledCategories.values()) {
-            if (!filled) return false;
+    public int getUpperSectionScore() {
+        int total = 0;
+        for (int m = scoredMask & Category.UPPER_MASK; m != 0; m &= m - 1) {
+            total += scorecard[Integer.numberOfTrailingZeros(m)];
         }
-        return true;
+        return total;
+    }
+
+    public boolean allCategoriesFilled() {
+        return board.isFull();
     }
 
     public String getLastCategory() {
@@ -105,13 +147,12 @@ public class Player {
         state.append("Player: ").append(name).append("\n");
         state.append("Scores:\n");
 
-        for (String category : Constants.CATEGORIES) {
-            if (filledCategories.get(category)) {
-                state.append(category)
-                        .append(": ")
-                        .append(scorecard.get(category))
-                        .append("\n");
-            }
+        for (int m = board.getFilledMask(); m != 0; m &= m - 1) {
+            int category = Integer.numberOfTrailingZeros(m);
+            state.append(Constants.CATEGORIES[category])
+                    .append(": ")
+                    .append(scorecard[category])
+                    .append("\n");
         }
 
         state.append("Total Score: ").append(getTotalScore()).append("\n");
@@ -138,42 +179,23 @@ public class Player {
 
     public Map<String, Integer> getPotentialScores(int[] diceValues) {
         Map<String, Integer> potentialScores = new HashMap<>();
-        for (String category : getAvailableCategories()) {
-            int score = Helper.calculateScore(category, diceValues);
+        int handIndex = ScoreTable.indexOf(diceValues);
+        for (int m = getAvailableMask(); m != 0; m &= m - 1) {
+            int category = Integer.numberOfTrailingZeros(m);
+            int score = ScoreTable.score(handIndex, category);
             if (score > 0) {
-                potentialScores.put(category, score);
+                potentialScores.put(Constants.CATEGORIES[category], score);
             }
         }
         return potentialScores;
     }
 
-    public String getSaveString() {
-        StringBuilder save = new StringBuilder();
-        for (String category : Constants.CATEGORIES) {
-            save.append(scorecard.get(category))
-                    .append(" ")
-                    .append(filledCategories.get(category))
-                    .append("\n");
-        }
-        return save.toString();
-    }
-
-    public void loadFromString(String saveData) {
-        String[] lines = saveData.split("\n");
-        int index = 0;
-        for (String category : Constants.CATEGORIES) {
-            if (index < lines.length) {
-                String[] parts = lines[index].split(" ");
-                if (parts.length == 2) {
-                    scorecard.put(category, Integer.parseInt(parts[0]));
-                    filledCategories.put(category, Boolean.parseBoolean(parts[1]));
-                }
-            }
-            index++;
-        }
-    }
-
     public Map<String, Integer> getScores() {
-        return new HashMap<>(scorecard); // Return a copy to prevent modification
+        // Return a copy to prevent modification
+        Map<String, Integer> scores = new HashMap<>();
+        for (int i = 0; i < Category.COUNT; i++) {
+            scores.put(Constants.CATEGORIES[i], scorecard[i]);
+        }
+        return scores;
     }
-}
\ No newline at end of file
+}
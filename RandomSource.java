@@ -0,0 +1,88 @@
+package com.example.ccjava;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * Where dice get their randomness.
+ *
+ * java.util.Random is thread safe at the cost of a compare-and-set on every
+ * draw, which a single game never needs. The sources here are unsynchronized;
+ * give each thread its own, made with split() from a common parent so that
+ * parallel runs stay reproducible from one seed.
+ */
+public interface RandomSource {
+    /**
+     * Uniform value in [0, bound).
+     */
+    int nextInt(int bound);
+
+    /**
+     * Uniform 64-bit value.
+     */
+    long nextLong();
+
+    /**
+     * A new source whose values are independent of this one's, for another thread.
+     */
+    RandomSource split();
+
+    enum Kind {
+        JAVA {
+            public RandomSource create(long seed) {
+                return of(new Random(seed));
+            }
+        },
+        SPLITTABLE {
+            public RandomSource create(long seed) {
+                return new Splittable(new SplittableRandom(seed));
+            }
+        },
+        XOROSHIRO {
+            public RandomSource create(long seed) {
+                return new Xoroshiro128PlusPlus(seed);
+            }
+        };
+
+        public abstract RandomSource create(long seed);
+    }
+
+    /**
+     * Adapts an existing java.util.Random, sharing it rather than copying.
+     */
+    static RandomSource of(final Random random) {
+        return new RandomSource() {
+            public int nextInt(int bound) {
+                return random.nextInt(bound);
+            }
+
+            public long nextLong() {
+                return random.nextLong();
+            }
+
+            public RandomSource split() {
+                return of(new Random(random.nextLong()));
+            }
+        };
+    }
+
+    final class Splittable implements RandomSource {
+        private final SplittableRandom random;
+
+        public Splittable(SplittableRandom random) {
+            this.random = random;
+        }
+
+        public int nextInt(int bound) {
+            return random.nextInt(bound);
+        }
+
+        public long nextLong() {
+            return random.nextLong();
+        }
+
+        public RandomSource split() {
+            return new Splittable(random.split());
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.ccjava;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Command-line runner for recorded games.
+ *
+ * Given .replay files saved by the app, it replays each one, says whether it
+ * still ends where it was saved and prints its game log and the computer's
+ * recent decisions, so a reported decision can be reproduced without entering
+ * the dice again. Given numbers instead, it records that many computer games,
+ * encodes and decodes their logs and replays them all, checking every replay
+ * against the original; that is both a regression check for determinism and
+ * a measure of replay speed.
+ *
+ * Usage: ReplayRunner file.replay...
+ *    or: ReplayRunner [games] [seed] [mode1] [mode2]
+ */
+public final class ReplayRunner {
+    // Mismatches described in full before the rest are only counted
+    private static final int MISMATCHES_SHOWN = 10;
+    private static final int DECISIONS_SHOWN = 20;
+
+    private ReplayRunner() {
+    }
+
+    /**
+     * Plays a recorded game between two computer players and returns its log, with the
+     * fingerprint it ended on.
+     */
+    public static InputLog record(long seed, ComputerPlayer.Mode first, ComputerPlayer.Mode second) {
+        CategoryBoard board = new CategoryBoard();
+        ComputerPlayer one = new ComputerPlayer("Computer 1", board);
+        ComputerPlayer two = new ComputerPlayer("Computer 2", board);
+        one.setMode(first);
+        two.setMode(second);
+        GameEngine engine = GameEngine.recorded(one, two, seed);
+        engine.playGame();
+        InputLog log = engine.getInputLog();
+        log.setOutcome(engine.fingerprint());
+        return log;
+    }
+
+    /**
+     * Replays a log; returns null when it ends on its recorded fingerprint, otherwise what went wrong.
+     */
+    public static String check(InputLog log) {
+        GameEngine engine;
+        try {
+            engine = log.replay();
+        } catch (IllegalStateException e) {
+            return e.getMessage();
+        }
+        if (log.hasOutcome() && engine.fingerprint() != log.getOutcome()) {
+            return String.format(Locale.US, "Ended on %016x instead of %016x", engine.fingerprint(),
+                    log.getOutcome());
+        }
+        return null;
+    }
+
+    private static void replayFiles(String[] paths) throws IOException {
+        for (String path : paths) {
+            InputLog log;
+            DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(path)));
+            try {
+                log = InputLog.read(in);
+            } finally {
+                in.close();
+            }
+            String problem = check(log);
+            System.out.println(path + ": " + log.size() + " inputs, seed " + log.getSeed() + ", "
+                    + (problem == null ? "replays exactly" : problem));
+            if (problem != null) {
+                System.out.print(log);
+                continue;
+            }
+            GameEngine engine = log.replay();
+            System.out.print(engine.getGameLog());
+            for (int seat = 0; seat < 2; seat++) {
+                Player player = engine.getPlayer(seat);
+                if (player instanceof ComputerPlayer) {
+                    System.out.println(player.getName() + "'s recent decisions:");
+                    System.out.print(((ComputerPlayer) player).getTrace().render(DECISIONS_SHOWN));
+                }
+            }
+        }
+    }
+
+    private static void replayBulk(long games, long seed, ComputerPlayer.Mode first, ComputerPlayer.Mode second)
+            throws IOException {
+        System.out.println(String.format(Locale.US, "Recording %d games, seed %d, %s vs %s",
+                games, seed, first, second));
+        SolitaireSolver.getDefault();
+
+        byte[][] encoded = new byte[(int) games][];
+        long bytes = 0;
+        long inputs = 0;
+        long start = System.nanoTime();
+        for (int game = 0; game < games; game++) {
+            InputLog log = record(SelfPlaySimulator.gameSeed(seed, game), first, second);
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(128);
+            log.write(new DataOutputStream(buffer));
+            encoded[game] = buffer.toByteArray();
+            bytes += encoded[game].length;
+            inputs += log.size();
+        }
+        double recordSeconds = (System.nanoTime() - start) / 1e9;
+
+        int mismatches = 0;
+        start = System.nanoTime();
+        for (int game = 0; game < games; game++) {
+            InputLog log = InputLog.read(new DataInputStream(new ByteArrayInputStream(encoded[game])));
+            String problem = check(log);
+            if (problem != null && ++mismatches <= MISMATCHES_SHOWN) {
+                System.out.println("Game " + game + " (seed " + log.getSeed() + "): " + problem);
+            }
+        }
+        double replaySeconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println(String.format(Locale.US, "Recorded in %.2f s (%.0f games/s), %.1f inputs and %.1f bytes per game",
+                recordSeconds, games / recordSeconds, inputs / (double) games, bytes / (double) games));
+        System.out.println(String.format(Locale.US, "Replayed in %.2f s (%.0f games/s), %d of %d differ",
+                replaySeconds, games / replaySeconds, mismatches, games));
+        if (mismatches > 0) {
+            System.exit(1);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && new File(args[0]).isFile()) {
+            replayFiles(args);
+            return;
+        }
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 10000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1;
+        ComputerPlayer.Mode first = args.length > 2 ? ComputerPlayer.Mode.valueOf(args[2].toUpperCase(Locale.US))
+                : ComputerPlayer.Mode.HEURISTIC;
+        ComputerPlayer.Mode second = args.length > 3 ? ComputerPlayer.Mode.valueOf(args[3].toUpperCase(Locale.US))
+                : first;
+        replayBulk(games, seed, first, second);
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.ccjava;
+
+/**
+ * Exact odds for the rest of a turn.
+ *
+ * Every question is answered by a KeepOptimizer, so the answers assume each
+ * remaining reroll keeps whatever gives the best chance (or the best expected
+ * score) for that one target. The per-category optimizers are built once when
+ * the class loads; the optimizer for a specific target hand is built the first
+ * time that hand is asked about and kept for later queries.
+ *
+ * Hands and keeps are packed DiceHands, categories are Category ordinals and
+ * rollsLeft is the number of rerolls still allowed after the current roll.
+ */
+public final class RerollOdds {
+    private static final KeepOptimizer[] CATEGORY_HITS = new KeepOptimizer[Category.COUNT];
+    private static final KeepOptimizer[] CATEGORY_SCORES = new KeepOptimizer[Category.COUNT];
+    // By target hand index, null until first asked for
+    private static final KeepOptimizer[] HAND_HITS = new KeepOptimizer[ScoreTable.HAND_COUNT];
+
+    static {
+        for (int c = 0; c < Category.COUNT; c++) {
+            final int category = c;
+            CATEGORY_HITS[c] = new KeepOptimizer(handIndex -> ScoreTable.score(handIndex, category) > 0 ? 1 : 0);
+            CATEGORY_SCORES[c] = new KeepOptimizer(handIndex -> ScoreTable.score(handIndex, category));
+        }
+    }
+
+    private RerollOdds() {
+    }
+
+    /**
+     * Chance of ending the turn with a hand that scores in the category.
+     */
+    public static double categoryProbability(int hand, int category, int rollsLeft) {
+        return CATEGORY_HITS[category].value(hand, rollsLeft);
+    }
+
+    /**
+     * Chance of scoring in the category after keeping the given dice and rerolling the
+     * rest, with rollsLeft rerolls available before this one.
+     */
+    public static double keepProbability(int keep, int category, int rollsLeft) {
+        return CATEGORY_HITS[category].keepValue(keep, rollsLeft);
+    }
+
+    /**
+     * Dice to keep for the best chance at the category, as a packed sub-hand.
+     */
+    public static int bestKeepFor(int hand, int category, int rollsLeft) {
+        return CATEGORY_HITS[category].bestKeep(hand, rollsLeft);
+    }
+
+    /**
+     * Best expected score in the category when every remaining reroll chases it.
+     */
+    public static double expectedScore(int hand, int category, int rollsLeft) {
+        return CATEGORY_SCORES[category].value(hand, rollsLeft);
+    }
+
+    /**
+     * Chance of ending the turn with exactly the target hand.
+     */
+    public static double handProbability(int hand, int target, int rollsLeft) {
+        final int targetIndex = DiceHand.index(target);
+        KeepOptimizer optimizer = HAND_HITS[targetIndex];
+        if (optimizer == null) {
+            // Threads racing here build equal optimizers; its fields are final, so either is safe to share
+            optimizer = new KeepOptimizer(handIndex -> handIndex == targetIndex ? 1 : 0);
+            HAND_HITS[targetIndex] = optimizer;
+        }
+        return optimizer.value(hand, rollsLeft);
+    }
+}
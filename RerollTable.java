@@ -0,0 +1,158 @@
+package com.example.ccjava;
+
+/**
+ * Exact one-roll transition probabilities, built once when the class loads.
+ *
+ * Keeping some dice and rerolling the rest leads from one of the 462 kept
+ * multisets of 0 to 5 dice to one of the 252 five-dice hands. The matrix is
+ * sparse (a keep of n dice reaches only the C(10 - n, 5 - n) hands that contain
+ * it, 4368 entries in all), so each row stores just the reachable hands and
+ * their probabilities. Keeps are packed DiceHands of 0 to 5 dice.
+ */
+public final class RerollTable {
+    // Kept multisets of 0-5 dice: C(11, 5) of them. A keep of n dice is ranked among keeps
+    // of the same size by ScoreTable.indexOfCounts and offset by the number of smaller keeps
+    public static final int KEEP_COUNT = 462;
+    private static final int[] KEEP_OFFSET = {0, 1, 7, 28, 84, 210};
+
+    // Row of the matrix for each keep: reachable hand indices and their probabilities
+    private static final int[][] OUTCOME_HANDS = new int[KEEP_COUNT][];
+    private static final double[][] OUTCOME_PROBS = new double[KEEP_COUNT][];
+    private static final int[] KEEP_HANDS = new int[KEEP_COUNT];
+    // Distinct keeps of each hand, the whole hand first
+    private static final int[][] SUB_KEEPS = new int[ScoreTable.HAND_COUNT][];
+
+    private static final int HAND_LIMIT = 1 << (Constants.DIE_MAX_VALUE * DiceHand.BITS);
+
+    static {
+        for (int hand = 0; hand < HAND_LIMIT; hand = nextHand(hand)) {
+            int keep = keepIndex(hand);
+            KEEP_HANDS[keep] = hand;
+            int free = Constants.DICE_COUNT - DiceHand.size(hand);
+            int[] outcomes = handsOfSize(free);
+            OUTCOME_HANDS[keep] = new int[outcomes.length];
+            OUTCOME_PROBS[keep] = new double[outcomes.length];
+            for (int i = 0; i < outcomes.length; i++) {
+                OUTCOME_HANDS[keep][i] = DiceHand.index(hand + outcomes[i]);
+                OUTCOME_PROBS[keep][i] = probability(outcomes[i], free);
+            }
+        }
+        for (int handIndex = 0; handIndex < ScoreTable.HAND_COUNT; handIndex++) {
+            SUB_KEEPS[handIndex] = enumerateSubKeeps(ScoreTable.countsOf(handIndex));
+        }
+    }
+
+    private RerollTable() {
+    }
+
+    /**
+     * Dense index of a kept multiset of 0-5 dice, in [0, KEEP_COUNT).
+     */
+    public static int keepIndex(int keep) {
+        return KEEP_OFFSET[DiceHand.size(keep)] + ScoreTable.indexOfCounts(keep);
+    }
+
+    /**
+     * Packed DiceHand of a keep index.
+     */
+    public static int keepHand(int keepIndex) {
+        return KEEP_HANDS[keepIndex];
+    }
+
+    /**
+     * Probability that keeping the given dice and rolling the rest gives exactly the hand.
+     */
+    public static double transition(int keep, int hand) {
+        int keepIndex = keepIndex(keep);
+        int target = DiceHand.index(hand);
+        int[] hands = OUTCOME_HANDS[keepIndex];
+        for (int i = 0; i < hands.length; i++) {
+            if (hands[i] == target) {
+                return OUTCOME_PROBS[keepIndex][i];
+            }
+        }
+        return 0;
+    }
+
+    // Rows are shared with the optimizers, so callers must not modify them
+    static int[] outcomeHands(int keepIndex) {
+        return OUTCOME_HANDS[keepIndex];
+    }
+
+    static double[] outcomeProbs(int keepIndex) {
+        return OUTCOME_PROBS[keepIndex];
+    }
+
+    static int[] subKeeps(int handIndex) {
+        return SUB_KEEPS[handIndex];
+    }
+
+    // Next packed hand of at most five dice in counting order, or HAND_LIMIT after the last one
+    private static int nextHand(int hand) {
+        for (int face = 1; face <= Constants.DIE_MAX_VALUE; face++) {
+            int next = DiceHand.withDie(hand, face);
+            if (DiceHand.size(next) <= Constants.DICE_COUNT) {
+                return next;
+            }
+            // Carry: clear this face and move on to the next one
+            hand -= DiceHand.count(hand, face) << ((face - 1) * DiceHand.BITS);
+        }
+        return HAND_LIMIT;
+    }
+
+    private static int[] handsOfSize(int size) {
+        int[] hands = new int[binomial(size + 5, 5)];
+        int n = 0;
+        for (int hand = 0; hand < HAND_LIMIT; hand = nextHand(hand)) {
+            if (DiceHand.size(hand) == size) {
+                hands[n++] = hand;
+            }
+        }
+        return hands;
+    }
+
+    private static int[] enumerateSubKeeps(int hand) {
+        int total = 1;
+        for (int face = 1; face <= Constants.DIE_MAX_VALUE; face++) {
+            total *= DiceHand.count(hand, face) + 1;
+        }
+        int[] keeps = new int[total];
+        // Mixed-radix countdown over the count kept of each face, starting from the whole hand
+        for (int i = 0; i < total; i++) {
+            int keep = 0;
+            int rest = i;
+            for (int face = 1; face <= Constants.DIE_MAX_VALUE; face++) {
+                int radix = DiceHand.count(hand, face) + 1;
+                keep += (radix - 1 - rest % radix) << ((face - 1) * DiceHand.BITS);
+                rest /= radix;
+            }
+            keeps[i] = keepIndex(keep);
+        }
+        return keeps;
+    }
+
+    // Chance that rolling `dice` dice gives exactly the multiset `hand`
+    private static double probability(int hand, int dice) {
+        double p = factorial(dice);
+        for (int face = 1; face <= Constants.DIE_MAX_VALUE; face++) {
+            p /= factorial(DiceHand.count(hand, face));
+        }
+        return p / Math.pow(Constants.DIE_MAX_VALUE, dice);
+    }
+
+    private static int factorial(int n) {
+        int result = 1;
+        for (int i = 2; i <= n; i++) {
+            result *= i;
+        }
+        return result;
+    }
+
+    private static int binomial(int n, int k) {
+        int result = 1;
+        for (int i = 1; i <= k; i++) {
+            result = result * (n - k + i) / i;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.ccjava;
+
+/**
+ * The computer's reading of one roll: the dice, the open categories, the
+ * strategy it chose and which dice it keeps.
+ *
+ * Deciding is cheap; explaining is not. The text shown in the analysis
+ * dialog is built from fixed templates the first time getText() is called
+ * and kept, so a roll that nobody looks at (every roll of a simulated game)
+ * never builds it at all.
+ */
+public final class RollAnalysis {
+    private static final String HEADER = "AVAILABLE CATEGORIES:\n"
+            + pad("Category", 20) + " " + pad("Points", 10) + "\n"
+            + "------------------------------\n";
+    // Category names padded to the width of the Category column
+    private static final String[] PADDED_NAMES = new String[Category.COUNT];
+
+    static {
+        for (int c = 0; c < Category.COUNT; c++) {
+            PADDED_NAMES[c] = pad(Constants.CATEGORIES[c], 20) + " ";
+        }
+    }
+
+    private final int[] dice;
+    private final int hand;
+    private final int rollCount;
+    private final int availableMask;
+    private final String strategy;
+    private final int keepMask;
+    private final boolean optimal;
+    private final double expectedValue;
+    private String text;
+
+    RollAnalysis(int[] dice, int rollCount, int availableMask, String strategy, int keepMask,
+                 boolean optimal, double expectedValue) {
+        this.dice = dice.clone();
+        this.hand = DiceHand.of(dice);
+        this.rollCount = rollCount;
+        this.availableMask = availableMask;
+        this.strategy = strategy;
+        this.keepMask = keepMask;
+        this.optimal = optimal;
+        this.expectedValue = expectedValue;
+    }
+
+    /**
+     * Whether this analysis was made for the same dice and situation.
+     */
+    boolean matches(int[] dice, int rollCount, int availableMask, boolean optimal) {
+        if (this.rollCount != rollCount || this.availableMask != availableMask || this.optimal != optimal) {
+            return false;
+        }
+        for (int i = 0; i < this.dice.length; i++) {
+            if (this.dice[i] != dice[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int getDie(int i) {
+        return dice[i];
+    }
+
+    public int getRollCount() {
+        return rollCount;
+    }
+
+    public int getAvailableMask() {
+        return availableMask;
+    }
+
+    /**
+     * Points the dice would score in the category.
+     */
+    public int getScore(int category) {
+        return ScoreTable.score(DiceHand.index(hand), category);
+    }
+
+    public String getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * Dice kept for the next roll, bit i set when die i is kept.
+     */
+    public int getKeepMask() {
+        return keepMask;
+    }
+
+    public boolean isKept(int die) {
+        return (keepMask & (1 << die)) != 0;
+    }
+
+    /**
+     * Expected points still to come under optimal play, 0 for the heuristic strategy.
+     */
+    public double getExpectedValue() {
+        return expectedValue;
+    }
+
+    /**
+     * Why a kept die is kept, as shown next to it in the text.
+     */
+    public String getKeepReason() {
+        if (strategy == null) {
+            return "";
+        } else if (strategy.contains("Yahtzee")) {
+            return " (Potential Yahtzee)";
+        } else if (strategy.contains("Straight")) {
+            return " (Part of Straight)";
+        } else if (strategy.contains("Full House")) {
+            return " (Part of Full House)";
+        } else if (strategy.contains("Kind")) {
+            return " (Part of " + strategy + ")";
+        }
+        return " (For " + strategy + ")";
+    }
+
+    public String getText() {
+        if (text == null) {
+            text = render();
+        }
+        return text;
+    }
+
+    @Override
+    public String toString() {
+        return getText();
+    }
+
+    private String render() {
+        StringBuilder analysis = new StringBuilder(512);
+        analysis.append("Current Dice: [");
+        for (int i = 0; i < dice.length; i++) {
+            analysis.append(i > 0 ? ", " : "").append(dice[i]);
+        }
+        analysis.append("]\n\n").append(HEADER);
+
+        // Open categories, highest score first and scorecard order among equals
+        int[] order = new int[Integer.bitCount(availableMask)];
+        int n = 0;
+        for (int m = availableMask; m != 0; m &= m - 1) {
+            int c = Integer.numberOfTrailingZeros(m);
+            int score = getScore(c);
+            int at = n++;
+            while (at > 0 && getScore(order[at - 1]) < score) {
+                order[at] = order[at - 1];
+                at--;
+            }
+            order[at] = c;
+        }
+        for (int c : order) {
+            int score = getScore(c);
+            analysis.append(PADDED_NAMES[c]);
+            String points = Integer.toString(score);
+            analysis.append(points);
+            for (int i = points.length(); i < 10; i++) {
+                analysis.append(' ');
+            }
+            // Add indicator for best scoring options
+            if (score >= 25) {
+                analysis.append(" ★★★"); // High value
+            } else if (score >= 15) {
+                analysis.append(" ★★"); // Medium value
+            } else if (score > 0) {
+                analysis.append(" ★"); // Low value
+            }
+            analysis.append('\n');
+        }
+        analysis.append('\n');
+
+        analysis.append("Roll #").append(rollCount).append(" of 3\n\n");
+
+        analysis.append("STRATEGY ANALYSIS:\n");
+        analysis.append("Current Strategy: ").append(strategy != null ? strategy : "None");
+        if (optimal && Integer.bitCount(keepMask) < dice.length) {
+            analysis.append(" (").append(Math.round(expectedValue * 10) / 10.0).append(" points to come)");
+        }
+        analysis.append("\n\n");
+
+        analysis.append("DICE SELECTION:\n");
+        String reason = getKeepReason();
+        for (int i = 0; i < dice.length; i++) {
+            if (isKept(i)) {
+                analysis.append("Keeping ").append(dice[i]).append(reason).append('\n');
+            }
+        }
+
+        analysis.append("\nREASONING:\n");
+        int selectedCount = Integer.bitCount(keepMask);
+        if (selectedCount == 0) {
+            analysis.append("No good combinations found. Will try for a better roll.\n");
+        } else if (selectedCount == dice.length) {
+            analysis.append("Have a complete combination! Ready to score.\n");
+        } else {
+            analysis.append("Keeping ").append(selectedCount).append(" dice to build towards ").append(strategy).append('\n');
+        }
+        return analysis.toString();
+    }
+
+    private static String pad(String s, int width) {
+        StringBuilder sb = new StringBuilder(s);
+        while (sb.length() < width) {
+            sb.append(' ');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,283 @@
+package com.example.ccjava;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Index of the saved games in a directory, so the load dialog can list them
+ * without opening every save.
+ *
+ * The catalog is kept up to date by put() on every save and is read once,
+ * on first use. When the file is missing, unreadable or fails its checksum,
+ * it is rebuilt by reading each save in the directory. Entries are kept
+ * newest first. The catalog is not thread-safe; the activity only uses it on
+ * its I/O thread.
+ *
+ * Catalog file: int MAGIC "YCAT", short version, short reserved, int entry
+ * count, then per entry
+ *   short  name length, then the name in UTF-8
+ *   long   time saved, in milliseconds
+ *   byte   round
+ *   short  per seat: total score
+ *   byte   per seat: categories filled
+ * followed by an int CRC32 of everything before it.
+ */
+public final class SaveCatalog {
+    public static final String FILE_NAME = "saves.catalog";
+    public static final String SAVE_SUFFIX = ".dat";
+
+    private static final int MAGIC = 0x59434154;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 12;
+    // Largest name put() stores; longer ones are not listed
+    private static final int MAX_NAME_BYTES = 255;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /**
+     * What the load dialog shows for one save.
+     */
+    public static final class Entry {
+        private final String fileName;
+        private final long savedAt;
+        private final int round;
+        private final int[] totals = new int[2];
+        private final int[] filled = new int[2];
+
+        private Entry(String fileName, long savedAt, int round) {
+            this.fileName = fileName;
+            this.savedAt = savedAt;
+            this.round = round;
+        }
+
+        static Entry of(String fileName, long savedAt, SavedGame save) {
+            Entry entry = new Entry(fileName, savedAt, save.getRound());
+            for (int c = 0; c < Category.COUNT; c++) {
+                int owner = save.getOwner(c);
+                if (owner >= 0) {
+                    entry.totals[owner] += save.getScore(c);
+                    entry.filled[owner]++;
+                }
+            }
+            return entry;
+        }
+
+        public String getFileName() {
+            return fileName;
+        }
+
+        public long getSavedAt() {
+            return savedAt;
+        }
+
+        public int getRound() {
+            return round;
+        }
+
+        public int getTotal(int seat) {
+            return totals[seat];
+        }
+
+        /**
+         * Categories the player in the seat has filled.
+         */
+        public int getFilled(int seat) {
+            return filled[seat];
+        }
+    }
+
+    private final File directory;
+    private final File file;
+    // Newest first; null until first used
+    private List<Entry> entries;
+
+    public SaveCatalog(File directory) {
+        this.directory = directory;
+        this.file = new File(directory, FILE_NAME);
+    }
+
+    /**
+     * Number of saves listed, reading or rebuilding the catalog on first use.
+     */
+    public int size() {
+        return entries().size();
+    }
+
+    /**
+     * Up to count saves, newest first, skipping the first 'from'.
+     */
+    public List<Entry> list(int from, int count) {
+        List<Entry> all = entries();
+        from = Math.min(from, all.size());
+        int to = Math.min(from + count, all.size());
+        return new ArrayList<>(all.subList(from, to));
+    }
+
+    /**
+     * Records a save just written to fileName, replacing any older entry for it.
+     */
+    public void put(String fileName, long savedAt, SavedGame save) throws IOException {
+        List<Entry> all = entries();
+        removeEntry(all, fileName);
+        if (fileName.getBytes(UTF_8).length <= MAX_NAME_BYTES) {
+            all.add(0, Entry.of(fileName, savedAt, save));
+        }
+        write(all);
+    }
+
+    /**
+     * Drops the entry for a save that could no longer be read.
+     */
+    public void remove(String fileName) throws IOException {
+        List<Entry> all = entries();
+        if (removeEntry(all, fileName)) {
+            write(all);
+        }
+    }
+
+    private static boolean removeEntry(List<Entry> all, String fileName) {
+        for (int i = 0; i < all.size(); i++) {
+            if (all.get(i).fileName.equals(fileName)) {
+                all.remove(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<Entry> entries() {
+        if (entries == null) {
+            try {
+                entries = read();
+            } catch (IOException e) {
+                // Rebuilt below
+            }
+            if (entries == null) {
+                entries = rebuild();
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Lists the saves again from the files themselves and rewrites the catalog.
+     * Saves that cannot be read are left out.
+     */
+    public List<Entry> rebuild() {
+        List<Entry> all = new ArrayList<>();
+        File[] saves = directory.listFiles((parent, name) -> name.endsWith(SAVE_SUFFIX));
+        if (saves != null) {
+            for (File save : saves) {
+                if (save.getName().getBytes(UTF_8).length > MAX_NAME_BYTES) {
+                    continue;
+                }
+                try {
+                    all.add(Entry.of(save.getName(), save.lastModified(), SavedGame.read(save)));
+                } catch (IOException e) {
+                    // Not a save we can list
+                }
+            }
+        }
+        Collections.sort(all, (a, b) -> Long.compare(b.savedAt, a.savedAt));
+        entries = all;
+        try {
+            write(all);
+        } catch (IOException e) {
+            // The listing is still good; the next start rebuilds it again
+        }
+        return all;
+    }
+
+    // Null when there is no catalog or it does not check out
+    private List<Entry> read() throws IOException {
+        if (!file.isFile()) {
+            return null;
+        }
+        ByteBuffer buffer;
+        FileInputStream in = new FileInputStream(file);
+        try {
+            FileChannel channel = in.getChannel();
+            buffer = ByteBuffer.allocate((int) Math.min(channel.size(), Integer.MAX_VALUE));
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Keep reading
+            }
+            buffer.flip();
+        } finally {
+            in.close();
+        }
+
+        int end = buffer.limit() - 4;
+        if (end < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getShort() != VERSION) {
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, end);
+        if ((int) crc.getValue() != buffer.getInt(end)) {
+            return null;
+        }
+        buffer.getShort();
+        int count = buffer.getInt();
+        List<Entry> all = new ArrayList<>(Math.max(0, Math.min(count, end / 16)));
+        try {
+            for (int i = 0; i < count; i++) {
+                byte[] name = new byte[buffer.getShort() & 0xFFFF];
+                buffer.get(name);
+                Entry entry = new Entry(new String(name, UTF_8), buffer.getLong(), buffer.get() & 0xFF);
+                for (int seat = 0; seat < 2; seat++) {
+                    entry.totals[seat] = buffer.getShort();
+                    entry.filled[seat] = buffer.get();
+                }
+                all.add(entry);
+            }
+        } catch (RuntimeException e) {
+            return null;
+        }
+        return buffer.position() == end ? all : null;
+    }
+
+    // Written to a temporary file that then replaces the catalog, as saves are
+    private void write(List<Entry> all) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(HEADER_SIZE + all.size() * 32);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeShort(0);
+        out.writeInt(all.size());
+        for (Entry entry : all) {
+            byte[] name = entry.fileName.getBytes(UTF_8);
+            out.writeShort(name.length);
+            out.write(name);
+            out.writeLong(entry.savedAt);
+            out.writeByte(entry.round);
+            for (int seat = 0; seat < 2; seat++) {
+                out.writeShort(entry.totals[seat]);
+                out.writeByte(entry.filled[seat]);
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        out.writeInt((int) crc.getValue());
+
+        File temp = new File(file.getPath() + ".tmp");
+        FileOutputStream stream = new FileOutputStream(temp);
+        try {
+            stream.write(bytes.toByteArray());
+            stream.getFD().sync();
+        } finally {
+            stream.close();
+        }
+        if (!temp.renameTo(file) && !(file.delete() && temp.renameTo(file))) {
+            throw new IOException("Could not replace " + file.getName());
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package com.example.ccjava;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * A game as saved: the round, each category's owner, score and round, and the
+ * turn in progress, taken straight from the engine.
+ *
+ * Saves are written as one small binary record through a FileChannel, to a
+ * temporary file that then replaces the old save:
+ *   int    MAGIC, "YSAV"
+ *   short  format version
+ *   short  payload length
+ *   payload:
+ *     byte   round
+ *     byte   seat that went first, -1 before the first-player toss
+ *     byte   seat whose turn it is, -1 before the first-player toss
+ *     byte   roll count
+ *     byte   TurnState ordinal
+ *     byte   held dice, bit i set when die i is held
+ *     5 byte dice
+ *     3 byte per category: owner seat (-1 while open), score, round filled
+ *   int    CRC32 of the payload
+ * read() also takes the text saves of earlier versions, which have only the
+ * round and the scorecard; those resume the way they always did, with the
+ * player behind on points going first.
+ */
+public final class SavedGame {
+    private static final int MAGIC = 0x59534156;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int PAYLOAD_SIZE = 11 + 3 * Category.COUNT;
+    public static final int ENCODED_SIZE = HEADER_SIZE + PAYLOAD_SIZE + 4;
+    // Largest file read() will take; an old text save is a few hundred bytes
+    private static final int MAX_FILE_SIZE = 64 * 1024;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private int round;
+    private final int[] owners = new int[Category.COUNT];
+    private final int[] scores = new int[Category.COUNT];
+    private final int[] rounds = new int[Category.COUNT];
+    // Turn in progress; absent from old text saves
+    private final boolean hasTurn;
+    private int firstSeat = -1;
+    private int currentSeat = -1;
+    private int rollCount;
+    private TurnState state = TurnState.INITIAL_TOSS;
+    private int heldMask;
+    private final int[] dice = new int[Constants.DICE_COUNT];
+
+    private SavedGame(int round, boolean hasTurn) {
+        this.round = round;
+        this.hasTurn = hasTurn;
+        Arrays.fill(owners, -1);
+    }
+
+    /**
+     * Snapshot of the engine's game as it stands.
+     */
+    public static SavedGame of(GameEngine engine) {
+        SavedGame save = new SavedGame(engine.getRoundNumber(), true);
+        for (int c = 0; c < Category.COUNT; c++) {
+            Player owner = engine.getCategoryOwner(c);
+            if (owner != null) {
+                save.owners[c] = engine.seatOf(owner);
+                save.scores[c] = owner.getScore(Category.of(c));
+                save.rounds[c] = engine.getCategoryRound(c);
+            }
+        }
+        save.firstSeat = engine.seatOf(engine.getFirstPlayer());
+        save.currentSeat = engine.seatOf(engine.getCurrentPlayer());
+        save.rollCount = engine.getRollCount();
+        save.state = engine.getState();
+        boolean[] held = engine.getHeldDice();
+        for (int i = 0; i < Constants.DICE_COUNT; i++) {
+            save.dice[i] = engine.getDice().getValue(i);
+            save.heldMask |= held[i] ? 1 << i : 0;
+        }
+        return save;
+    }
+
+    /**
+     * Puts the saved game into a fresh engine.
+     */
+    public void restore(GameEngine engine) {
+        for (int c = 0; c < Category.COUNT; c++) {
+            if (owners[c] >= 0) {
+                engine.restoreCategory(Constants.CATEGORIES[c], owners[c], scores[c], rounds[c]);
+            }
+        }
+        if (hasTurn) {
+            engine.restoreTurn(round, firstSeat, currentSeat, dice, heldMask, rollCount, state);
+        } else {
+            engine.resume(round);
+        }
+    }
+
+    /**
+     * Applies the turn that follows this snapshot, the one numbered completedTurns():
+     * fills its category and moves on to the other player's turn, or ends the game once
+     * every category is filled. Applying any other turn leaves the game wrong.
+     */
+    void applyTurn(int seat, int first, int category, int score, int turnRound, int[] turnDice) {
+        if (category >= 0 && owners[category] < 0) {
+            owners[category] = seat;
+            scores[category] = score;
+            rounds[category] = turnRound;
+        }
+        System.arraycopy(turnDice, 0, dice, 0, Constants.DICE_COUNT);
+        firstSeat = first;
+        heldMask = 0;
+        rollCount = 0;
+        if (isGameOver()) {
+            currentSeat = seat;
+            round = turnRound;
+            state = TurnState.TURN_END;
+        } else {
+            currentSeat = 1 - seat;
+            // A new round starts each time play comes back to whoever went first
+            round = currentSeat == first ? turnRound + 1 : turnRound;
+            state = TurnState.FIRST_ROLL;
+        }
+    }
+
+    /**
+     * Turns completed before the one in progress. Each round is one turn per player, so
+     * this follows from the round and whose turn it is.
+     */
+    int completedTurns() {
+        if (firstSeat < 0 || currentSeat < 0) {
+            return 0;
+        }
+        return turnNumber(round, currentSeat, firstSeat);
+    }
+
+    /**
+     * Number of the turn the seat plays in the round, counting from 0 for the first turn.
+     */
+    static int turnNumber(int turnRound, int seat, int first) {
+        return 2 * (turnRound - 1) + (seat == first ? 0 : 1);
+    }
+
+    public boolean isGameOver() {
+        for (int owner : owners) {
+            if (owner < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int getRound() {
+        return round;
+    }
+
+    /**
+     * Seat that filled the category, or -1 if it is open.
+     */
+    public int getOwner(int category) {
+        return owners[category];
+    }
+
+    public int getScore(int category) {
+        return scores[category];
+    }
+
+    public int getCategoryRound(int category) {
+        return rounds[category];
+    }
+
+    /**
+     * Points scored so far by the player in the seat.
+     */
+    public int getTotal(int seat) {
+        int total = 0;
+        for (int c = 0; c < Category.COUNT; c++) {
+            if (owners[c] == seat) {
+                total += scores[c];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Whether the save holds the turn in progress; old text saves do not.
+     */
+    public boolean hasTurn() {
+        return hasTurn;
+    }
+
+    public int getCurrentSeat() {
+        return currentSeat;
+    }
+
+    public int getRollCount() {
+        return rollCount;
+    }
+
+    public TurnState getState() {
+        return state;
+    }
+
+    // ----- Binary format -----
+
+    public void encode(ByteBuffer buffer) {
+        buffer.putInt(MAGIC).putShort((short) VERSION).putShort((short) PAYLOAD_SIZE);
+        int payloadStart = buffer.position();
+        buffer.put((byte) round).put((byte) firstSeat).put((byte) currentSeat).put((byte) rollCount)
+                .put((byte) state.ordinal()).put((byte) heldMask);
+        for (int value : dice) {
+            buffer.put((byte) value);
+        }
+        for (int c = 0; c < Category.COUNT; c++) {
+            buffer.put((byte) owners[c]).put((byte) scores[c]).put((byte) rounds[c]);
+        }
+        buffer.putInt((int) crc(buffer, payloadStart, PAYLOAD_SIZE));
+    }
+
+    /**
+     * Reads a record written by encode(), checking its header, checksum and values.
+     */
+    public static SavedGame decode(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a saved game");
+        }
+        int version = buffer.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported save version " + version);
+        }
+        int length = buffer.getShort();
+        if (length != PAYLOAD_SIZE || buffer.remaining() < length + 4) {
+            throw new IOException("Truncated save");
+        }
+        int payloadStart = buffer.position();
+        if ((int) crc(buffer, payloadStart, length) != buffer.getInt(payloadStart + length)) {
+            throw new IOException("Save is corrupt (checksum mismatch)");
+        }
+
+        SavedGame save = new SavedGame(buffer.get() & 0xFF, true);
+        save.firstSeat = checkSeat(buffer.get());
+        save.currentSeat = checkSeat(buffer.get());
+        save.rollCount = check(buffer.get(), 0, Constants.MAX_ROLLS);
+        save.state = TurnState.values()[check(buffer.get(), 0, TurnState.values().length - 1)];
+        save.heldMask = check(buffer.get(), 0, (1 << Constants.DICE_COUNT) - 1);
+        for (int i = 0; i < Constants.DICE_COUNT; i++) {
+            save.dice[i] = check(buffer.get(), Constants.DIE_MIN_VALUE, Constants.DIE_MAX_VALUE);
+        }
+        for (int c = 0; c < Category.COUNT; c++) {
+            save.owners[c] = checkSeat(buffer.get());
+            save.scores[c] = buffer.get() & 0xFF;
+            save.rounds[c] = buffer.get() & 0xFF;
+        }
+        buffer.getInt();
+        return save;
+    }
+
+    private static long crc(ByteBuffer buffer, int start, int length) {
+        CRC32 crc = new CRC32();
+        for (int i = start; i < start + length; i++) {
+            crc.update(buffer.get(i));
+        }
+        return crc.getValue();
+    }
+
+    private static int checkSeat(byte seat) throws IOException {
+        return check(seat, -1, 1);
+    }
+
+    private static int check(int value, int min, int max) throws IOException {
+        if (value < min || value > max) {
+            throw new IOException("Save value " + value + " out of range");
+        }
+        return value;
+    }
+
+    // ----- Files -----
+
+    public void write(File file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(ENCODED_SIZE);
+        encode(buffer);
+        buffer.flip();
+
+        File temp = new File(file.getPath() + ".tmp");
+        FileOutputStream out = new FileOutputStream(temp);
+        try {
+            FileChannel channel = out.getChannel();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } finally {
+            out.close();
+        }
+        if (!temp.renameTo(file) && !(file.delete() && temp.renameTo(file))) {
+            throw new IOException("Could not replace " + file.getName());
+        }
+    }
+
+    /**
+     * Reads a save in either format.
+     */
+    public static SavedGame read(File file) throws IOException {
+        ByteBuffer buffer;
+        FileInputStream in = new FileInputStream(file);
+        try {
+            FileChannel channel = in.getChannel();
+            long size = channel.size();
+            if (size > MAX_FILE_SIZE) {
+                throw new IOException(file.getName() + " is too large to be a save");
+            }
+            buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Keep reading
+            }
+            buffer.flip();
+        } finally {
+            in.close();
+        }
+        if (buffer.remaining() >= 4 && buffer.getInt(0) == MAGIC) {
+            return decode(buffer);
+        }
+        return readLegacy(new String(buffer.array(), 0, buffer.limit(), UTF_8));
+    }
+
+    /**
+     * Parses a text save: "Round: n", a blank line, "Scorecard:", then one line per
+     * category holding "0" while open or "score Human|Computer round" once filled.
+     */
+    static SavedGame readLegacy(String text) throws IOException {
+        String[] lines = text.split("\n");
+        try {
+            SavedGame save = new SavedGame(Integer.parseInt(lines[0].split(": ")[1].trim()), false);
+            for (int c = 0; c < Category.COUNT && c + 3 < lines.length; c++) {
+                String[] parts = lines[c + 3].trim().split(" ");
+                if (parts.length > 2) {
+                    int seat = parts[1].equals("Human") ? 0 : parts[1].equals("Computer") ? 1 : -1;
+                    if (seat >= 0) {
+                        save.owners[c] = seat;
+                        save.scores[c] = Integer.parseInt(parts[0]);
+                        save.rounds[c] = Integer.parseInt(parts[2]);
+                    }
+                }
+            }
+            return save;
+        } catch (RuntimeException e) {
+            throw new IOException("Not a saved game", e);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.ccjava;
+
+/**
+ * Precomputed category scores for every distinct five-dice hand.
+ *
+ * Dice order never matters for scoring, so the 7776 possible rolls collapse
+ * into 252 sorted multisets. Each multiset gets a dense index in [0, 252)
+ * and the scores of all 12 categories are computed once when the class loads.
+ * Looking up a score is then an index calculation plus an array read, with no
+ * allocation.
+ */
+public final class ScoreTable {
+    public static final int HAND_COUNT = 252;
+    public static final int CATEGORY_COUNT = 12;
+
+    // Hands are ranked from their packed face counts: 3 bits per face, face 1 in the low bits
+    private static final int COUNT_BITS = 3;
+    private static final int COUNT_MASK = 7;
+
+    // RANK[slot][face] = C(face + slot, slot + 1): contribution of the sorted die in "slot"
+    // showing face (face + 1) to the colex rank of the hand
+    private static final int[][] RANK = new int[Constants.DICE_COUNT][Constants.DIE_MAX_VALUE];
+
+    private static final int[][] SCORES = new int[HAND_COUNT][CATEGORY_COUNT];
+    private static final int[] COUNTS = new int[HAND_COUNT];
+
+    static {
+        for (int slot = 0; slot < Constants.DICE_COUNT; slot++) {
+            for (int face = 0; face < Constants.DIE_MAX_VALUE; face++) {
+                RANK[slot][face] = binomial(face + slot, slot + 1);
+            }
+        }
+
+        // Enumerate every way of spreading 5 dice over 6 faces
+        int[] counts = new int[Constants.DIE_MAX_VALUE + 1];
+        for (int c1 = 0; c1 <= 5; c1++) {
+            for (int c2 = 0; c1 + c2 <= 5; c2++) {
+                for (int c3 = 0; c1 + c2 + c3 <= 5; c3++) {
+                    for (int c4 = 0; c1 + c2 + c3 + c4 <= 5; c4++) {
+                        for (int c5 = 0; c1 + c2 + c3 + c4 + c5 <= 5; c5++) {
+                            counts[1] = c1;
+                            counts[2] = c2;
+                            counts[3] = c3;
+                            counts[4] = c4;
+                            counts[5] = c5;
+                            counts[6] = 5 - c1 - c2 - c3 - c4 - c5;
+                            int packed = pack(counts);
+                            int index = indexOfCounts(packed);
+                            COUNTS[index] = packed;
+                            fillScores(SCORES[index], counts);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private ScoreTable() {
+    }
+
+    /**
+     * Returns the hand index of the given dice, or -1 if they are not five values in 1-6.
+     */
+    public static int indexOf(int[] dice) {
+        if (dice == null || dice.length != Constants.DICE_COUNT) {
+            return -1;
+        }
+        int packed = 0;
+        for (int value : dice) {
+            if (value < Constants.DIE_MIN_VALUE || value > Constants.DIE_MAX_VALUE) {
+                return -1;
+            }
+            packed += 1 << ((value - 1) * COUNT_BITS);
+        }
+        return indexOfCounts(packed);
+    }
+
+    /**
+     * Returns the hand index of packed face counts (3 bits per face, face 1 lowest).
+     * For five dice this is the index used by the score table; for fewer dice it is
+     * the rank among hands of that size.
+     */
+    public static int indexOfCounts(int packedCounts) {
+        int rank = 0;
+        int slot = 0;
+        for (int face = 0; face < Constants.DIE_MAX_VALUE; face++) {
+            int count = (packedCounts >>> (face * COUNT_BITS)) & COUNT_MASK;
+            for (; count > 0; count--) {
+                rank += RANK[slot++][face];
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Returns the packed face counts of a hand index.
+     */
+    public static int countsOf(int handIndex) {
+        return COUNTS[handIndex];
+    }
+
+    /**
+     * Returns the score of a hand in a category, both given as indices.
+     */
+    public static int score(int handIndex, int categoryIndex) {
+        return SCORES[handIndex][categoryIndex];
+    }
+
+    /**
+     * Convenience lookup for callers holding raw dice. Returns 0 for unknown
+     * categories or dice that do not form a valid hand.
+     */
+    public static int score(int categoryIndex, int[] dice) {
+        int hand = indexOf(dice);
+        if (hand < 0 || categoryIndex < 0 || categoryIndex >= CATEGORY_COUNT) {
+            return 0;
+        }
+        return SCORES[hand][categoryIndex];
+    }
+
+    private static int pack(int[] counts) {
+        int packed = 0;
+        for (int face = 1; face <= Constants.DIE_MAX_VALUE; face++) {
+            packed |= counts[face] << ((face - 1) * COUNT_BITS);
+        }
+        return packed;
+    }
+
+    // Reference scoring straight from the face counts; only runs while building the table
+    private static void fillScores(int[] row, int[] counts) {
+        int sum = 0;
+        int maxCount = 0;
+        boolean hasThree = false;
+        boolean hasTwo = false;
+        for (int face = 1; face <= Constants.DIE_MAX_VALUE; face++) {
+            sum += face * counts[face];
+            maxCount = Math.max(maxCount, counts[face]);
+            if (counts[face] == 3) hasThree = true;
+            if (counts[face] == 2) hasTwo = true;
+            row[face - 1] = face * counts[face];
+        }
+
+        boolean p1 = counts[1] > 0, p2 = counts[2] > 0, p3 = counts[3] > 0;
+        boolean p4 = counts[4] > 0, p5 = counts[5] > 0, p6 = counts[6] > 0;
+        boolean smallStraight = (p1 && p2 && p3 && p4) || (p2 && p3 && p4 && p5) || (p3 && p4 && p5 && p6);
+        boolean largeStraight = (p1 && p2 && p3 && p4 && p5) || (p2 && p3 && p4 && p5 && p6);
+
+        row[6] = maxCount >= 3 ? sum : 0;                                       // Three of a Kind
+        row[7] = maxCount >= 4 ? sum : 0;                                       // Four of a Kind
+        row[8] = hasThree && hasTwo ? Constants.FULL_HOUSE_SCORE : 0;           // Full House
+        row[9] = smallStraight ? Constants.SMALL_STRAIGHT_SCORE : 0;            // Small Straight
+        row[10] = largeStraight ? Constants.LARGE_STRAIGHT_SCORE : 0;           // Large Straight
+        row[11] = maxCount == 5 ? Constants.YAHTZEE_SCORE : 0;                  // Yahtzee
+    }
+
+    private static int binomial(int n, int k) {
+        if (k < 0 || k > n) {
+            return 0;
+        }
+        int result = 1;
+        for (int i = 1; i <= k; i++) {
+            result = result * (n - k + i) / i;
+        }
+        return result;
+    }
+}
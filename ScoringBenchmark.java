@@ -0,0 +1,62 @@
+package com.example.ccjava;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Helper.calculateScore for each category, on the int[] and packed-hand entry points.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ScoringBenchmark {
+    @Param({"Aces", "Twos", "Threes", "Fours", "Fives", "Sixes", "Three of a Kind", "Four of a Kind",
+            "Full House", "Small Straight", "Large Straight", "Yahtzee"})
+    public String category;
+
+    private int[][] rolls;
+    private int[] hands;
+    private int next;
+    private PrintStream console;
+
+    @Setup
+    public void setUp() {
+        console = BenchmarkHands.silenceConsole();
+        rolls = BenchmarkHands.rolls();
+        hands = new int[rolls.length];
+        for (int i = 0; i < rolls.length; i++) {
+            hands[i] = DiceHand.of(rolls[i]);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(console);
+    }
+
+    @Benchmark
+    public int calculateScore() {
+        return Helper.calculateScore(category, rolls[next++ & BenchmarkHands.MASK]);
+    }
+
+    @Benchmark
+    public int calculateScoreHand() {
+        return Helper.calculateScore(category, hands[next++ & BenchmarkHands.MASK]);
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.ccjava;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Command-line simulator that plays computer-vs-computer games on every core.
+ *
+ * Games are split into ranges on a fork/join pool. Each game gets its own
+ * GameEngine and a RandomSource seeded from the master seed and the game's
+ * number, so a run gives the same statistics for the same arguments however
+ * the work is scheduled and however many threads play it.
+ *
+ * Usage: SelfPlaySimulator [games] [seed] [mode1] [mode2] [threads] [rng] [archive] [stats]
+ * where the modes are ComputerPlayer.Mode names, HEURISTIC by default, rng
+ * is a RandomSource.Kind name, XOROSHIRO by default, archive is a
+ * GameArchive file every game is appended to ("-" for none) and stats is a
+ * LifetimeStats file the run's statistics are merged into.
+ */
+public final class SelfPlaySimulator {
+    // Games a task plays itself rather than splitting further
+    private static final int BATCH = 256;
+
+    private final long masterSeed;
+    private final ComputerPlayer.Mode firstMode;
+    private final ComputerPlayer.Mode secondMode;
+    private final RandomSource.Kind randomKind;
+    // Where finished games are kept, or null
+    private GameArchive archive;
+
+    public SelfPlaySimulator(long masterSeed, ComputerPlayer.Mode firstMode, ComputerPlayer.Mode secondMode) {
+        this(masterSeed, firstMode, secondMode, RandomSource.Kind.XOROSHIRO);
+    }
+
+    public SelfPlaySimulator(long masterSeed, ComputerPlayer.Mode firstMode, ComputerPlayer.Mode secondMode,
+                             RandomSource.Kind randomKind) {
+        this.masterSeed = masterSeed;
+        this.firstMode = firstMode;
+        this.secondMode = secondMode;
+        this.randomKind = randomKind;
+    }
+
+    /**
+     * Appends every game played from now on to the archive.
+     */
+    public void setArchive(GameArchive archive) {
+        this.archive = archive;
+    }
+
+    /**
+     * Plays games [0, games) on the pool and returns their combined statistics.
+     */
+    public SimulationStats run(long games, ForkJoinPool pool) {
+        return pool.invoke(new Batch(0, games));
+    }
+
+    /**
+     * Plays a single game; the same game number always plays out the same way.
+     */
+    public GameEngine playGame(long game) {
+        GameEngine engine = GameEngine.selfPlay(randomKind.create(gameSeed(masterSeed, game)), firstMode,
+                secondMode);
+        engine.playGame();
+        return engine;
+    }
+
+    /**
+     * Seed of one game, from a SplitMix64 step so neighbouring games get unrelated streams.
+     */
+    public static long gameSeed(long masterSeed, long game) {
+        long z = masterSeed + (game + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private final class Batch extends RecursiveTask<SimulationStats> {
+        private static final long serialVersionUID = 1L;
+
+        private final long from;
+        private final long to;
+
+        Batch(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected SimulationStats compute() {
+            if (to - from <= BATCH) {
+                SimulationStats stats = new SimulationStats();
+                for (long game = from; game < to; game++) {
+                    GameEngine engine = playGame(game);
+                    stats.record(engine);
+                    archive(engine);
+                }
+                return stats;
+            }
+            long mid = (from + to) >>> 1;
+            Batch left = new Batch(from, mid);
+            left.fork();
+            SimulationStats stats = new Batch(mid, to).compute();
+            stats.merge(left.join());
+            return stats;
+        }
+    }
+
+    private void archive(GameEngine engine) {
+        if (archive == null) {
+            return;
+        }
+        try {
+            archive.append(engine);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 100000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1;
+        ComputerPlayer.Mode first = args.length > 2 ? ComputerPlayer.Mode.valueOf(args[2].toUpperCase(Locale.US))
+                : ComputerPlayer.Mode.HEURISTIC;
+        ComputerPlayer.Mode second = args.length > 3 ? ComputerPlayer.Mode.valueOf(args[3].toUpperCase(Locale.US))
+                : first;
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+        RandomSource.Kind randomKind = args.length > 5
+                ? RandomSource.Kind.valueOf(args[5].toUpperCase(Locale.US)) : RandomSource.Kind.XOROSHIRO;
+
+        System.out.println(String.format(Locale.US, "Playing %d games, seed %d, %s vs %s on %d threads, %s dice",
+                games, seed, first, second, threads, randomKind));
+
+        // Solve the optimal tables before the clock starts
+        SolitaireSolver.getDefault();
+
+        SelfPlaySimulator simulator = new SelfPlaySimulator(seed, first, second, randomKind);
+        GameArchive archive = args.length > 6 && !args[6].equals("-") ? new GameArchive(new File(args[6])) : null;
+        simulator.setArchive(archive);
+
+        SimulationStats stats;
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            stats = simulator.run(games, pool);
+        } finally {
+            pool.shutdown();
+            if (archive != null) {
+                archive.close();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.print(stats.report(seconds));
+
+        if (args.length > 7) {
+            File statsFile = new File(args[7]);
+            LifetimeStats lifetime = LifetimeStats.read(statsFile);
+            lifetime.merge(stats.getLifetime());
+            lifetime.write(statsFile);
+            System.out.print(lifetime.report());
+        }
+    }
+}
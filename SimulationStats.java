@@ -0,0 +1,183 @@
+package com.example.ccjava;
+
+import java.util.Locale;
+
+/**
+ * Totals over a batch of finished self-play games.
+ *
+ * Everything is kept as integer counts so that batches played on different
+ * threads merge to exactly the same result whatever order they finish in.
+ * Final scores go into a histogram, which gives exact percentiles.
+ */
+public final class SimulationStats {
+    // No player can reach this many points in a game that shares 12 categories
+    private static final int MAX_SCORE = 512;
+
+    private long games;
+    private long rounds;
+    private final long[] wins = new long[2];
+    private long ties;
+    private final long[] scoreSums = new long[2];
+    // Final scores of both players
+    private final long[] scoreHistogram = new long[MAX_SCORE + 1];
+    // Per category: games in which it was filled, and in which it was filled with a zero
+    private final long[] fills = new long[Category.COUNT];
+    private final long[] zeros = new long[Category.COUNT];
+    private final long[] fillsBySeat = new long[2];
+    // Per-category score statistics, which merge to rounding rather than exactly
+    private final LifetimeStats lifetime = new LifetimeStats();
+
+    /**
+     * Adds one finished game.
+     */
+    public void record(GameEngine game) {
+        games++;
+        rounds += game.getRoundNumber();
+        for (int seat = 0; seat < 2; seat++) {
+            int score = game.getPlayer(seat).getTotalScore();
+            scoreSums[seat] += score;
+            scoreHistogram[Math.min(score, MAX_SCORE)]++;
+        }
+        Player winner = game.getWinner();
+        if (winner == null) {
+            ties++;
+        } else {
+            wins[winner == game.getPlayer(0) ? 0 : 1]++;
+        }
+        for (int c = 0; c < Category.COUNT; c++) {
+            Player owner = game.getCategoryOwner(c);
+            if (owner == null) {
+                continue;
+            }
+            fills[c]++;
+            fillsBySeat[owner == game.getPlayer(0) ? 0 : 1]++;
+            if (owner.getScore(Category.of(c)) == 0) {
+                zeros[c]++;
+            }
+        }
+        lifetime.record(game);
+    }
+
+    /**
+     * Adds another batch's totals to this one.
+     */
+    public void merge(SimulationStats other) {
+        games += other.games;
+        rounds += other.rounds;
+        ties += other.ties;
+        for (int seat = 0; seat < 2; seat++) {
+            wins[seat] += other.wins[seat];
+            scoreSums[seat] += other.scoreSums[seat];
+            fillsBySeat[seat] += other.fillsBySeat[seat];
+        }
+        for (int s = 0; s <= MAX_SCORE; s++) {
+            scoreHistogram[s] += other.scoreHistogram[s];
+        }
+        for (int c = 0; c < Category.COUNT; c++) {
+            fills[c] += other.fills[c];
+            zeros[c] += other.zeros[c];
+        }
+        lifetime.merge(other.lifetime);
+    }
+
+    /**
+     * Score statistics per seat and category, to be merged into a device's lifetime totals.
+     */
+    public LifetimeStats getLifetime() {
+        return lifetime;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public long getWins(int seat) {
+        return wins[seat];
+    }
+
+    public long getTies() {
+        return ties;
+    }
+
+    public double meanScore(int seat) {
+        return games == 0 ? 0 : (double) scoreSums[seat] / games;
+    }
+
+    /**
+     * Mean final score over both players.
+     */
+    public double meanScore() {
+        return games == 0 ? 0 : (double) (scoreSums[0] + scoreSums[1]) / (2 * games);
+    }
+
+    /**
+     * Final score that the given fraction (0 to 1) of player results are at or below.
+     */
+    public int percentile(double fraction) {
+        long total = 2 * games;
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(fraction * total));
+        long seen = 0;
+        for (int s = 0; s <= MAX_SCORE; s++) {
+            seen += scoreHistogram[s];
+            if (seen >= rank) {
+                return s;
+            }
+        }
+        return MAX_SCORE;
+    }
+
+    /**
+     * Share of games in which the category was filled by either player.
+     */
+    public double fillRate(int category) {
+        return games == 0 ? 0 : (double) fills[category] / games;
+    }
+
+    /**
+     * Share of the category's fills that scored nothing.
+     */
+    public double zeroRate(int category) {
+        return fills[category] == 0 ? 0 : (double) zeros[category] / fills[category];
+    }
+
+    /**
+     * Share of games in which someone scored a Yahtzee.
+     */
+    public double yahtzeeRate() {
+        int yahtzee = Category.YAHTZEE.ordinal();
+        return games == 0 ? 0 : (double) (fills[yahtzee] - zeros[yahtzee]) / games;
+    }
+
+    public String report(double seconds) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.US, "Games: %d in %.2f s (%.0f games/s)%n",
+                games, seconds, seconds > 0 ? games / seconds : 0));
+        sb.append(String.format(Locale.US, "Mean rounds: %.2f%n", games == 0 ? 0 : (double) rounds / games));
+        for (int seat = 0; seat < 2; seat++) {
+            sb.append(String.format(Locale.US, "Seat %d: mean %.2f, wins %.2f%%, categories %.2f per game%n",
+                    seat + 1, meanScore(seat), percent(wins[seat], games), ratio(fillsBySeat[seat], games)));
+        }
+        sb.append(String.format(Locale.US, "Ties: %.2f%%%n", percent(ties, games)));
+        sb.append(String.format(Locale.US, "Score: mean %.2f, p5 %d, p25 %d, p50 %d, p75 %d, p95 %d, p99 %d%n",
+                meanScore(), percentile(0.05), percentile(0.25), percentile(0.5),
+                percentile(0.75), percentile(0.95), percentile(0.99)));
+        sb.append(String.format(Locale.US, "Yahtzee scored in %.2f%% of games%n", 100 * yahtzeeRate()));
+        sb.append(String.format(Locale.US, "%-16s %8s %8s%n", "Category", "Filled", "Zero"));
+        for (int c = 0; c < Category.COUNT; c++) {
+            sb.append(String.format(Locale.US, "%-16s %7.2f%% %7.2f%%%n",
+                    Constants.CATEGORIES[c], 100 * fillRate(c), 100 * zeroRate(c)));
+        }
+        return sb.toString();
+    }
+
+    private static double percent(long count, long total) {
+        return total == 0 ? 0 : 100.0 * count / total;
+    }
+
+    private static double ratio(long count, long total) {
+        return total == 0 ? 0 : (double) count / total;
+    }
+}
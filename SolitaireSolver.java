@@ -0,0 +1,145 @@
+package com.example.ccjava;
+
+/**
+ * Exact expected-value solver for a single player filling the whole scorecard.
+ *
+ * A game state between turns is the mask of filled categories plus the upper
+ * section sum capped at the bonus threshold. Working backwards from the full
+ * scorecard, every state gets the expected number of points still to come under
+ * optimal play. Each turn is solved exactly by a KeepOptimizer whose
+ * end-of-turn value is the best category plus the value of the state it leads
+ * to, so keep and category decisions reduce to table lookups.
+ *
+ * This ruleset pays no upper bonus, in which case the upper-sum dimension
+ * collapses and the whole table is 4096 values, solved in well under a second.
+ * In the two-player game categories are shared, so these values are the best
+ * solitaire play rather than a guaranteed optimum against an opponent.
+ */
+public final class SolitaireSolver {
+    private static SolitaireSolver defaultSolver;
+
+    private final int bonusThreshold;
+    private final int bonusScore;
+    private final int upperStates;
+    // Expected points still to come, indexed by filledMask * upperStates + upperSum
+    private final double[] values;
+
+    private SolitaireSolver(int bonusThreshold, int bonusScore) {
+        this.bonusThreshold = bonusThreshold;
+        this.bonusScore = bonusScore;
+        this.upperStates = bonusScore > 0 ? bonusThreshold + 1 : 1;
+        this.values = new double[(Category.ALL_MASK + 1) * upperStates];
+    }
+
+    /**
+     * Solver for this game's rules, solved on first use.
+     */
+    public static synchronized SolitaireSolver getDefault() {
+        if (defaultSolver == null) {
+            defaultSolver = solve(Constants.UPPER_BONUS_THRESHOLD, Constants.UPPER_BONUS_SCORE);
+        }
+        return defaultSolver;
+    }
+
+    /**
+     * Solves every game state for the given upper bonus rule.
+     */
+    public static SolitaireSolver solve(int bonusThreshold, int bonusScore) {
+        SolitaireSolver solver = new SolitaireSolver(bonusThreshold, bonusScore);
+        long[] reachable = solver.reachableUpperSums();
+        // Filling a category only ever sets bits, so higher masks are solved first
+        for (int mask = Category.ALL_MASK - 1; mask >= 0; mask--) {
+            long sums = reachable[mask & Category.UPPER_MASK];
+            for (int upper = 0; upper < solver.upperStates; upper++) {
+                if ((sums & (1L << upper)) != 0) {
+                    solver.values[mask * solver.upperStates + upper] = solver.keepOptimizer(mask, upper).startValue();
+                }
+            }
+        }
+        return solver;
+    }
+
+    /**
+     * Expected points still to come from the start of a turn with these categories filled.
+     */
+    public double expectedRemaining(int filledMask, int upperSum) {
+        return values[filledMask * upperStates + upperState(upperSum)];
+    }
+
+    /**
+     * Keep optimizer for one game state, valuing each end-of-turn hand by its best
+     * category plus the expected points after it. Build once per turn.
+     */
+    public KeepOptimizer keepOptimizer(final int filledMask, int upperSum) {
+        final int upper = upperState(upperSum);
+        return new KeepOptimizer(handIndex -> {
+            int category = bestCategoryIndex(filledMask, upper, handIndex);
+            return category < 0 ? 0 : categoryValue(filledMask, upper, handIndex, category);
+        });
+    }
+
+    /**
+     * Category index that maximises the expected final score, or -1 if none is open.
+     */
+    public int bestCategory(int filledMask, int upperSum, int hand) {
+        return bestCategoryIndex(filledMask, upperState(upperSum), DiceHand.index(hand));
+    }
+
+    private int bestCategoryIndex(int filledMask, int upper, int handIndex) {
+        double best = Double.NEGATIVE_INFINITY;
+        int bestCategory = -1;
+        for (int m = ~filledMask & Category.ALL_MASK; m != 0; m &= m - 1) {
+            int category = Integer.numberOfTrailingZeros(m);
+            double value = categoryValue(filledMask, upper, handIndex, category);
+            if (value > best) {
+                best = value;
+                bestCategory = category;
+            }
+        }
+        return bestCategory;
+    }
+
+    // Points for scoring the hand in the category plus the value of the state it leads to
+    private double categoryValue(int filledMask, int upper, int handIndex, int category) {
+        int score = ScoreTable.score(handIndex, category);
+        int nextMask = filledMask | (1 << category);
+        if (upperStates == 1) {
+            return score + values[nextMask];
+        }
+        int nextUpper = upper;
+        if (category < 6) {
+            nextUpper = Math.min(bonusThreshold, upper + score);
+            if (upper < bonusThreshold && nextUpper == bonusThreshold) {
+                score += bonusScore;
+            }
+        }
+        return score + values[nextMask * upperStates + nextUpper];
+    }
+
+    private int upperState(int upperSum) {
+        return upperStates == 1 ? 0 : Math.min(upperSum, bonusThreshold);
+    }
+
+    // Bit u of entry m is set when upper sum u (capped) can be reached by filling the upper mask m
+    private long[] reachableUpperSums() {
+        long[] reachable = new long[Category.UPPER_MASK + 1];
+        for (int m = 0; m <= Category.UPPER_MASK; m++) {
+            if (m == 0 || upperStates == 1) {
+                reachable[m] = 1L;
+                continue;
+            }
+            int face = Integer.numberOfTrailingZeros(m) + 1;
+            long before = reachable[m & (m - 1)];
+            long sums = 0;
+            for (int u = 0; u < upperStates; u++) {
+                if ((before & (1L << u)) != 0) {
+                    for (int n = 0; n <= Constants.DICE_COUNT; n++) {
+                        sums |= 1L << Math.min(bonusThreshold, u + n * face);
+                    }
+                }
+            }
+            reachable[m] = sums;
+        }
+        return reachable;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.ccjava;
+
+/**
+ * Every straight question about a hand, answered from the set of faces it shows.
+ *
+ * Runs depend only on which faces are present, a 6-bit mask with bit f - 1 for
+ * face f, so all 64 answers are worked out when the class loads and each query
+ * is one array read. An entry packs:
+ *   bits  0-5   faces of the longest run (the lowest run on a tie)
+ *   bits  6-8   length of that run
+ *   bits  9-11  lowest face of that run, 0 if no face is present
+ *   bit   12    small straight
+ *   bit   13    large straight
+ *   bits 14-19  faces worth keeping while chasing a straight: the longest run
+ *               when it is at least 3 long, otherwise the high faces 4-6
+ */
+public final class StraightTable {
+    // Face sets the strategies test for, bit f - 1 for face f
+    public static final int FACES_1234 = 0b001111;
+    public static final int FACES_2345 = 0b011110;
+    public static final int FACES_3456 = 0b111100;
+    public static final int FACES_1345 = 0b011101;
+    public static final int HIGH_FACES = 0b111000;
+
+    private static final int[] ENTRIES = new int[1 << Constants.DIE_MAX_VALUE];
+
+    static {
+        for (int present = 0; present < ENTRIES.length; present++) {
+            int run = runOf(present);
+            int length = Integer.bitCount(run);
+            int start = run == 0 ? 0 : Integer.numberOfTrailingZeros(run) + 1;
+            boolean small = contains(present, FACES_1234) || contains(present, FACES_2345)
+                    || contains(present, FACES_3456);
+            boolean large = contains(present, 0b011111) || contains(present, 0b111110);
+            int chase = length >= 3 ? run : HIGH_FACES;
+            ENTRIES[present] = run | length << 6 | start << 9 | (small ? 1 << 12 : 0) | (large ? 1 << 13 : 0)
+                    | chase << 14;
+        }
+    }
+
+    private StraightTable() {
+    }
+
+    public static int runMask(int present) {
+        return ENTRIES[present] & 0x3F;
+    }
+
+    public static int longestRun(int present) {
+        return (ENTRIES[present] >>> 6) & 0x7;
+    }
+
+    /**
+     * Lowest face of the longest run, 0 if no face is present.
+     */
+    public static int runStart(int present) {
+        return (ENTRIES[present] >>> 9) & 0x7;
+    }
+
+    public static boolean isSmallStraight(int present) {
+        return (ENTRIES[present] & (1 << 12)) != 0;
+    }
+
+    public static boolean isLargeStraight(int present) {
+        return (ENTRIES[present] & (1 << 13)) != 0;
+    }
+
+    /**
+     * Faces to keep when chasing a straight.
+     */
+    public static int chaseMask(int present) {
+        return (ENTRIES[present] >>> 14) & 0x3F;
+    }
+
+    /**
+     * Whether every face in faces is present.
+     */
+    public static boolean contains(int present, int faces) {
+        return (present & faces) == faces;
+    }
+
+    // Longest run of set bits, the lowest on a tie
+    private static int runOf(int present) {
+        if (present == 0) return 0;
+        int starts = present;
+        int length = 1;
+        for (int next = starts & (starts >>> 1); next != 0; next = starts & (starts >>> 1)) {
+            starts = next;
+            length++;
+        }
+        return ((1 << length) - 1) << Integer.numberOfTrailingZeros(starts);
+    }
+}
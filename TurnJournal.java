@@ -0,0 +1,293 @@
+package com.example.ccjava;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.Executor;
+import java.util.zip.CRC32;
+
+/**
+ * Autosave that survives the app being killed: a SavedGame snapshot plus an
+ * append-only journal of the turns completed since.
+ *
+ * The engine appends one fixed 12-byte record per completed turn; nothing
+ * else is rewritten. The engine's thread only takes snapshots and builds
+ * records; writing them is left to an executor, the activity's I/O thread.
+ * Records reach the disk in groups: the journal is forced
+ * every SYNC_EVERY turns and whenever sync() is called, when the app goes to
+ * the background. Every COMPACT_EVERY turns the game is written as a fresh
+ * snapshot and the journal is cut back to its header.
+ *
+ * Journal file: int MAGIC "YJNL", int version, then records of
+ *   int    bit 0 seat, bit 1 seat that went first, bits 2-5 category (15 when
+ *          nothing was scored), bits 6-13 score, bits 14-21 round
+ *   short  the five dice, 3 bits each
+ *   short  RECORD_MARK
+ *   int    CRC32 of the 8 bytes before it
+ * recover() stops at the first record that is cut short or fails its check,
+ * which is where a crash mid-write leaves the file. Each record's round, seat
+ * and first seat give its turn number, and the snapshot's round and current
+ * seat give the number of turns it already holds. Records for those turns are
+ * skipped, so a crash between renaming a new snapshot in and cutting the
+ * journal back does not apply the old turns a second time.
+ */
+public final class TurnJournal {
+    public static final String SNAPSHOT_NAME = "autosave.snapshot";
+    public static final String JOURNAL_NAME = "autosave.journal";
+
+    private static final int MAGIC = 0x594A4E4C;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int RECORD_SIZE = 12;
+    private static final short RECORD_MARK = 0x5452;
+    private static final int NO_CATEGORY = 15;
+    private static final int DIE_BITS = 3;
+    // Completed turns between forcing the journal to disk, and between snapshots
+    private static final int SYNC_EVERY = 2;
+    private static final int COMPACT_EVERY = 8;
+
+    private final File snapshotFile;
+    private final File journalFile;
+    // Where the file work runs, in order; the caller only takes snapshots and builds records
+    private final Executor executor;
+    private final CRC32 crc = new CRC32();
+    // Turns since the last snapshot, counted on the caller's thread
+    private int sinceSnapshot;
+    // Owned by the executor's thread
+    private RandomAccessFile file;
+    private FileChannel channel;
+    private int unsynced;
+    // First failure; the journal stops writing once it has one
+    private volatile IOException error;
+
+    /**
+     * Journal that does its file work on the calling thread.
+     */
+    public TurnJournal(File directory) {
+        this(directory, Runnable::run);
+    }
+
+    /**
+     * Journal that does its file work on the executor, which must run tasks one at a time in order.
+     */
+    public TurnJournal(File directory, Executor executor) {
+        this.snapshotFile = new File(directory, SNAPSHOT_NAME);
+        this.journalFile = new File(directory, JOURNAL_NAME);
+        this.executor = executor;
+    }
+
+    private interface FileTask {
+        void run() throws IOException;
+    }
+
+    private void run(final FileTask task) {
+        executor.execute(() -> {
+            if (error != null) {
+                return;
+            }
+            try {
+                task.run();
+            } catch (IOException e) {
+                error = e;
+            }
+        });
+    }
+
+    /**
+     * Starts journaling the engine's game from its current state, replacing any earlier
+     * autosave, and attaches the journal to the engine.
+     */
+    public void start(GameEngine engine) {
+        final SavedGame snapshot = SavedGame.of(engine);
+        sinceSnapshot = 0;
+        executor.execute(() -> {
+            closeFile();
+            error = null;
+        });
+        run(() -> {
+            file = new RandomAccessFile(journalFile, "rw");
+            channel = file.getChannel();
+            writeSnapshot(snapshot);
+        });
+        engine.setTurnJournal(this);
+    }
+
+    /**
+     * Called by the engine when a turn is complete; category is -1 when nothing was scored.
+     */
+    void append(GameEngine engine, int seat, int category, int score, int round, int[] dice) {
+        if (++sinceSnapshot >= COMPACT_EVERY && !engine.isGameOver()) {
+            // The snapshot already holds this turn
+            final SavedGame snapshot = SavedGame.of(engine);
+            sinceSnapshot = 0;
+            run(() -> writeSnapshot(snapshot));
+            return;
+        }
+
+        int firstSeat = Math.max(0, engine.seatOf(engine.getFirstPlayer()));
+        int packedDice = 0;
+        for (int d = 0; d < Constants.DICE_COUNT; d++) {
+            packedDice |= dice[d] << (d * DIE_BITS);
+        }
+        final ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+        record.putInt(seat | firstSeat << 1 | (category < 0 ? NO_CATEGORY : category) << 2
+                | score << 6 | round << 14);
+        record.putShort((short) packedDice).putShort(RECORD_MARK);
+        crc.reset();
+        crc.update(record.array(), 0, 8);
+        record.putInt((int) crc.getValue());
+        record.flip();
+        run(() -> {
+            if (channel == null) {
+                return;
+            }
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+            if (++unsynced >= SYNC_EVERY) {
+                syncFile();
+            }
+        });
+    }
+
+    /**
+     * Forces the turns appended so far to disk.
+     */
+    public void sync() {
+        run(this::syncFile);
+    }
+
+    private void syncFile() throws IOException {
+        if (channel != null && unsynced > 0) {
+            channel.force(false);
+            unsynced = 0;
+        }
+    }
+
+    // The snapshot replaces the old one in a single rename before the journal is cut
+    private void writeSnapshot(SavedGame snapshot) throws IOException {
+        if (channel == null) {
+            return;
+        }
+        snapshot.write(snapshotFile);
+        channel.truncate(0);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).flip();
+        channel.write(header, 0);
+        channel.position(HEADER_SIZE);
+        channel.force(false);
+        unsynced = 0;
+    }
+
+    /**
+     * Failure that stopped the journal, or null while it is working.
+     */
+    public IOException getError() {
+        return error;
+    }
+
+    /**
+     * Syncs and closes the journal; the autosave stays for the next start.
+     */
+    public void close() {
+        executor.execute(this::closeFile);
+    }
+
+    private void closeFile() {
+        if (file == null) {
+            return;
+        }
+        try {
+            if (error == null) {
+                syncFile();
+            }
+        } catch (IOException e) {
+            error = e;
+        } finally {
+            try {
+                file.close();
+            } catch (IOException e) {
+                // Nothing more to write
+            }
+            file = null;
+            channel = null;
+        }
+    }
+
+    /**
+     * Closes the journal and deletes the autosave, once the game is over.
+     */
+    public void discard() {
+        executor.execute(() -> {
+            closeFile();
+            journalFile.delete();
+            snapshotFile.delete();
+        });
+    }
+
+    /**
+     * The autosaved game: the snapshot with every intact journaled turn applied, or null
+     * if there is no autosave.
+     */
+    public static SavedGame recover(File directory) throws IOException {
+        File snapshotFile = new File(directory, SNAPSHOT_NAME);
+        if (!snapshotFile.isFile()) {
+            return null;
+        }
+        SavedGame save = SavedGame.read(snapshotFile);
+        File journalFile = new File(directory, JOURNAL_NAME);
+        if (!journalFile.isFile()) {
+            return save;
+        }
+
+        RandomAccessFile file = new RandomAccessFile(journalFile, "r");
+        try {
+            FileChannel channel = file.getChannel();
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(channel.size(), Integer.MAX_VALUE));
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Keep reading
+            }
+            buffer.flip();
+            if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return save;
+            }
+            CRC32 crc = new CRC32();
+            int[] dice = new int[Constants.DICE_COUNT];
+            int nextTurn = save.completedTurns();
+            while (buffer.remaining() >= RECORD_SIZE) {
+                int start = buffer.position();
+                int word = buffer.getInt();
+                int packedDice = buffer.getShort() & 0xFFFF;
+                short mark = buffer.getShort();
+                crc.reset();
+                crc.update(buffer.array(), start, 8);
+                if (mark != RECORD_MARK || buffer.getInt() != (int) crc.getValue()) {
+                    break;
+                }
+                int seat = word & 0x1;
+                int firstSeat = (word >>> 1) & 0x1;
+                int round = (word >>> 14) & 0xFF;
+                int turn = SavedGame.turnNumber(round, seat, firstSeat);
+                if (turn < nextTurn) {
+                    // Already in the snapshot; the journal was not cut back after it was written
+                    continue;
+                }
+                if (turn > nextTurn || save.isGameOver()) {
+                    break;
+                }
+                for (int d = 0; d < Constants.DICE_COUNT; d++) {
+                    dice[d] = (packedDice >>> (d * DIE_BITS)) & 0x7;
+                }
+                int category = (word >>> 2) & 0xF;
+                save.applyTurn(seat, firstSeat, category == NO_CATEGORY ? -1 : category,
+                        (word >>> 6) & 0xFF, round, dice);
+                nextTurn++;
+            }
+        } finally {
+            file.close();
+        }
+        return save;
+    }
+}
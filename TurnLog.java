@@ -0,0 +1,149 @@
+package com.example.ccjava;
+
+/**
+ * Game log kept as one packed long per entry in a fixed-size ring, rendered
+ * to text only for the entries being shown.
+ *
+ * Once the ring is full, each new entry overwrites the oldest, so memory use
+ * stays flat however long the log runs. A game's log is far shorter than the
+ * ring the engine gives it. The log is not thread-safe.
+ *
+ * Entry:
+ *   bits  0-14  the five dice, 3 bits each
+ *   bit  15     set when the entry has dice
+ *   bits 16-19  category index, or NO_CATEGORY when nothing was scored
+ *   bits 20-27  score
+ *   bits 28-35  round
+ *   bit  36     seat
+ *   bit  37     TURN or RESTORED entry
+ * hash() is the String hash of the whole text, kept as entries are added, so
+ * it is the same as render(0, size()).hashCode() even after entries are dropped.
+ */
+public final class TurnLog {
+    public static final int TURN = 0;
+    public static final int RESTORED = 1;
+
+    private static final int NO_CATEGORY = 15;
+    private static final int DIE_BITS = 3;
+
+    private final String[] names;
+    private final long[] entries;
+    private final int capacity;
+    // Entries added; the newest is at (count - 1) % capacity
+    private long count;
+    private int hash;
+    private final StringBuilder scratch = new StringBuilder(64);
+
+    public TurnLog(String firstName, String secondName, int capacity) {
+        this.names = new String[] {firstName, secondName};
+        this.capacity = capacity;
+        this.entries = new long[capacity];
+    }
+
+    /**
+     * A turn just finished; category is -1 and score 0 when nothing was scored, and dice
+     * is null when the turn never rolled.
+     */
+    public void addTurn(int round, int seat, int[] dice, int category, int score) {
+        add(TURN, round, seat, dice, category, score);
+    }
+
+    /**
+     * A category put back from a saved game.
+     */
+    public void addRestored(int round, int seat, int category, int score) {
+        add(RESTORED, round, seat, null, category, score);
+    }
+
+    private void add(int type, int round, int seat, int[] dice, int category, int score) {
+        long entry = (long) (category < 0 ? NO_CATEGORY : category) << 16
+                | (long) score << 20
+                | (long) round << 28
+                | (long) seat << 36
+                | (long) type << 37;
+        if (dice != null) {
+            for (int d = 0; d < Constants.DICE_COUNT; d++) {
+                entry |= (long) dice[d] << (d * DIE_BITS);
+            }
+            entry |= 1L << 15;
+        }
+
+        entries[(int) (count % capacity)] = entry;
+        count++;
+
+        scratch.setLength(0);
+        renderEntry(scratch, entry);
+        for (int i = 0; i < scratch.length(); i++) {
+            hash = 31 * hash + scratch.charAt(i);
+        }
+    }
+
+    /**
+     * Entries added so far, including any no longer kept.
+     */
+    public int size() {
+        return (int) count;
+    }
+
+    /**
+     * Index of the oldest entry that can still be rendered.
+     */
+    public int firstAvailable() {
+        return (int) Math.max(0, count - capacity);
+    }
+
+    /**
+     * String hash of the whole log's text.
+     */
+    public int hash() {
+        return hash;
+    }
+
+    /**
+     * Text of entries [from, from + n), leaving out any that are no longer available.
+     */
+    public String render(int from, int n) {
+        StringBuilder sb = new StringBuilder();
+        int to = (int) Math.min(count, (long) from + n);
+        for (long i = Math.max(from, firstAvailable()); i < to; i++) {
+            renderEntry(sb, entries[(int) (i % capacity)]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * The whole available log as text.
+     */
+    @Override
+    public String toString() {
+        return render(0, size());
+    }
+
+    private void renderEntry(StringBuilder sb, long entry) {
+        String name = names[(int) (entry >>> 36) & 0x1];
+        int round = (int) (entry >>> 28) & 0xFF;
+        int category = (int) (entry >>> 16) & 0xF;
+        int score = (int) (entry >>> 20) & 0xFF;
+        if (((entry >>> 37) & 0x1) == RESTORED) {
+            sb.append("Round ").append(round).append(": ").append(name)
+                    .append(" scored ").append(score).append(" points in ").append(Constants.CATEGORIES[category])
+                    .append("\n");
+            return;
+        }
+
+        sb.append("Round ").append(round).append(": ").append(name).append("'s Turn\n");
+        if ((entry & (1L << 15)) != 0) {
+            sb.append("Dice Rolled: ");
+            for (int d = 0; d < Constants.DICE_COUNT; d++) {
+                sb.append((entry >>> (d * DIE_BITS)) & 0x7).append(" ");
+            }
+            sb.append("\n");
+        }
+        if (category != NO_CATEGORY) {
+            sb.append("Scored ").append(score).append(" points in ").append(Constants.CATEGORIES[category])
+                    .append("\n\n");
+        } else {
+            sb.append("No category scored\n\n");
+        }
+    }
+}
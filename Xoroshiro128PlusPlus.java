@@ -0,0 +1,53 @@
+package com.example.ccjava;
+
+/**
+ * xoroshiro128++ generator (Blackman and Vigna): 128 bits of state, a few
+ * shifts and adds per 64-bit value and no synchronization. Not for sharing
+ * between threads; split() one off for each.
+ */
+public final class Xoroshiro128PlusPlus implements RandomSource {
+    private long s0;
+    private long s1;
+
+    /**
+     * Expands the seed into the two state words with SplitMix64, which never yields an all-zero state.
+     */
+    public Xoroshiro128PlusPlus(long seed) {
+        long z = seed;
+        s0 = mix(z += 0x9E3779B97F4A7C15L);
+        s1 = mix(z + 0x9E3779B97F4A7C15L);
+    }
+
+    public long nextLong() {
+        long a = s0;
+        long b = s1;
+        long result = Long.rotateLeft(a + b, 17) + a;
+        b ^= a;
+        s0 = Long.rotateLeft(a, 49) ^ b ^ (b << 21);
+        s1 = Long.rotateLeft(b, 28);
+        return result;
+    }
+
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive");
+        }
+        // Top 31 bits, retried when they fall in the incomplete last block (as java.util.Random does)
+        int r = (int) (nextLong() >>> 33);
+        int m = bound - 1;
+        for (int u = r; u - (r = u % bound) + m < 0; u = (int) (nextLong() >>> 33)) {
+            // Biased, draw again
+        }
+        return r;
+    }
+
+    public RandomSource split() {
+        return new Xoroshiro128PlusPlus(nextLong());
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}